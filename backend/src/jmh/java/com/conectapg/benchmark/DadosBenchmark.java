@@ -0,0 +1,61 @@
+package com.conectapg.benchmark;
+
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.model.Usuario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidades de exemplo compartilhadas pelos benchmarks.
+ */
+final class DadosBenchmark {
+
+    private static final TipoOcorrencia[] TIPOS = TipoOcorrencia.values();
+    private static final StatusOcorrencia[] STATUS = StatusOcorrencia.values();
+
+    private DadosBenchmark() {
+    }
+
+    static Usuario usuario(long id) {
+        Usuario usuario = novoUsuario((int) id);
+        usuario.setId(id);
+        usuario.setDataCriacao(LocalDateTime.of(2024, 1, 1, 8, 0));
+        return usuario;
+    }
+
+    /** Usuário sem id, pronto para ser persistido. */
+    static Usuario novoUsuario(int indice) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuário " + indice);
+        usuario.setEmail("usuario" + indice + "@example.com");
+        usuario.setSenha("$2a$04$abcdefghijklmnopqrstuuN7mW2D0nJqJ6GHxRn7l1YvKp5R6fXPu");
+        return usuario;
+    }
+
+    static Ocorrencia ocorrencia(long id, Usuario usuario) {
+        Ocorrencia ocorrencia = new Ocorrencia();
+        ocorrencia.setId(id);
+        preencher(ocorrencia, (int) id, usuario);
+        ocorrencia.setDataCriacao(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(id));
+        ocorrencia.setDataAtualizacao(ocorrencia.getDataCriacao());
+        return ocorrencia;
+    }
+
+    /** Ocorrência sem id nem datas, pronta para ser persistida. */
+    static Ocorrencia novaOcorrencia(int indice, Usuario usuario) {
+        Ocorrencia ocorrencia = new Ocorrencia();
+        preencher(ocorrencia, indice, usuario);
+        return ocorrencia;
+    }
+
+    private static void preencher(Ocorrencia ocorrencia, int indice, Usuario usuario) {
+        ocorrencia.setTitulo("Ocorrência " + indice);
+        ocorrencia.setDescricao("Descrição detalhada da ocorrência número " + indice + " registrada pelo cidadão");
+        ocorrencia.setLocalizacao("Rua das Flores, " + indice);
+        ocorrencia.setTipo(TIPOS[indice % TIPOS.length]);
+        ocorrencia.setStatus(STATUS[indice % STATUS.length]);
+        ocorrencia.setUsuario(usuario);
+    }
+}
@@ -0,0 +1,105 @@
+package com.conectapg.benchmark;
+
+import com.conectapg.ConectaPgApplication;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Usuario;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import com.conectapg.domain.service.OcorrenciaService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo de {@link OcorrenciaService#listarTodas()} (consulta, mapeamento e
+ * transação) sobre o H2 em memória do perfil de testes.
+ *
+ * {@link #listarTodasPorEntidades()} refaz a leitura anterior (entidades com JOIN FETCH do
+ * usuário e {@link OcorrenciaMapper}) para comparar com a projeção direta em
+ * {@link OcorrenciaResponse}. A diferença de heap aparece com {@code -prof gc}
+ * ({@code gc.alloc.rate.norm}, bytes alocados por listagem).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListarOcorrenciasBenchmark {
+
+    private static final int USUARIOS = 50;
+
+    @Param({"1000", "10000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext contexto;
+    private OcorrenciaService ocorrenciaService;
+    private OcorrenciaMapper mapper;
+    private EntityManager entityManager;
+    private TransactionTemplate somenteLeitura;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ConectaPgApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.conectapg=WARN",
+                        "logging.level.org.springframework.security=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run();
+        ocorrenciaService = contexto.getBean(OcorrenciaService.class);
+        mapper = contexto.getBean(OcorrenciaMapper.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        somenteLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        somenteLeitura.setReadOnly(true);
+        popularBanco(contexto.getBean(UsuarioRepository.class), contexto.getBean(OcorrenciaRepository.class));
+    }
+
+    private void popularBanco(UsuarioRepository usuarioRepository, OcorrenciaRepository ocorrenciaRepository) {
+        List<Usuario> usuarios = new ArrayList<>(USUARIOS);
+        for (int i = 0; i < USUARIOS; i++) {
+            usuarios.add(DadosBenchmark.novoUsuario(i));
+        }
+        usuarios = usuarioRepository.saveAll(usuarios);
+
+        List<Ocorrencia> ocorrencias = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ocorrencias.add(DadosBenchmark.novaOcorrencia(i, usuarios.get(i % USUARIOS)));
+        }
+        ocorrenciaRepository.saveAll(ocorrencias);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<OcorrenciaResponse> listarTodas() {
+        return ocorrenciaService.listarTodas();
+    }
+
+    @Benchmark
+    public List<OcorrenciaResponse> listarTodasPorEntidades() {
+        return somenteLeitura.execute(status -> entityManager
+                .createQuery("SELECT o FROM Ocorrencia o JOIN FETCH o.usuario ORDER BY o.dataCriacao DESC",
+                        Ocorrencia.class)
+                .getResultStream()
+                .map(mapper::toResponse)
+                .toList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.conectapg.benchmark;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.UsuarioResponse;
+import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.api.mapper.UsuarioMapper;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final OcorrenciaMapper ocorrenciaMapper = new OcorrenciaMapper();
+    private final UsuarioMapper usuarioMapper = new UsuarioMapper();
+
+    private Usuario usuario;
+    private Ocorrencia ocorrencia;
+
+    @Setup
+    public void preparar() {
+        usuario = DadosBenchmark.usuario(1L);
+        ocorrencia = DadosBenchmark.ocorrencia(1L, usuario);
+    }
+
+    @Benchmark
+    public OcorrenciaResponse ocorrenciaToResponse() {
+        return ocorrenciaMapper.toResponse(ocorrencia);
+    }
+
+    @Benchmark
+    public UsuarioResponse usuarioToResponse() {
+        return usuarioMapper.toResponse(usuario);
+    }
+}
@@ -0,0 +1,48 @@
+package com.conectapg.benchmark;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.domain.model.Usuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de listagens, com o ObjectMapper configurado como o do Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private ObjectMapper objectMapper;
+    private List<OcorrenciaResponse> ocorrencias;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        OcorrenciaMapper mapper = new OcorrenciaMapper();
+        Usuario usuario = DadosBenchmark.usuario(1L);
+        ocorrencias = new ArrayList<>(quantidade);
+        for (long id = 1; id <= quantidade; id++) {
+            ocorrencias.add(mapper.toResponse(DadosBenchmark.ocorrencia(id, usuario)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarListaDeOcorrencias() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ocorrencias);
+    }
+}
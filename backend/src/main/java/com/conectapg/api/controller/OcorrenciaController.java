@@ -1,18 +1,47 @@
 package com.conectapg.api.controller;
 
+import com.conectapg.api.dto.AlteracaoStatusLoteRequest;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse;
+import com.conectapg.api.dto.AlteracoesResponse;
+import com.conectapg.api.dto.EstatisticasResponse;
+import com.conectapg.api.dto.LoteOcorrenciaResponse;
 import com.conectapg.api.dto.OcorrenciaRequest;
 import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.PaginaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
+import com.conectapg.api.sse.TransmissorOcorrencias;
 import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.FiltroOcorrencias;
+import com.conectapg.domain.service.EstatisticasOcorrencias;
+import com.conectapg.domain.service.ExportacaoService;
+import com.conectapg.domain.service.FormatoExportacao;
 import com.conectapg.domain.service.OcorrenciaService;
+import com.conectapg.domain.service.SincronizacaoService;
+import com.conectapg.domain.service.VersaoRecurso;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/ocorrencias")
@@ -21,29 +50,142 @@ import java.util.List;
 public class OcorrenciaController {
 
     private final OcorrenciaService ocorrenciaService;
+    private final ExportacaoService exportacaoService;
+    private final TransmissorOcorrencias transmissorOcorrencias;
+    private final EstatisticasOcorrencias estatisticasOcorrencias;
+    private final SincronizacaoService sincronizacaoService;
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar ocorrências por lista de IDs",
+               description = "Uma única consulta; itens na ordem dos IDs informados e IDs inexistentes em naoEncontrados.")
+    public ResponseEntity<ResultadoPorIdsResponse<OcorrenciaResponse>> buscarPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ocorrenciaService.buscarPorIds(ids));
+    }
 
     @GetMapping
-    @Operation(summary = "Listar todas as ocorrências")
-    public ResponseEntity<List<OcorrenciaResponse>> listarTodas() {
-        return ResponseEntity.ok(ocorrenciaService.listarTodas());
+    @Operation(summary = "Listar ocorrências",
+               description = "Filtros opcionais e combináveis, aplicados no banco; datas pela data de criação, " +
+                             "com ambos os extremos incluídos. Aceita If-None-Match com a ETag da resposta anterior.")
+    public ResponseEntity<List<OcorrenciaResponse>> listarTodas(
+            @RequestParam(required = false) StatusOcorrencia status,
+            @RequestParam(required = false) TipoOcorrencia tipo,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String localizacao,
+            WebRequest request) {
+        FiltroOcorrencias filtro = FiltroOcorrencias.builder()
+                .status(status)
+                .tipo(tipo)
+                .usuarioId(usuarioId)
+                .dataInicio(dataInicio)
+                .dataFim(dataFim)
+                .localizacao(localizacao)
+                .build();
+        if (filtro.isVazio()) {
+            return responderSeModificado(request, ocorrenciaService.buscarVersaoListagem(null, null),
+                    ocorrenciaService::listarTodas);
+        }
+        return responderSeModificado(request, ocorrenciaService.buscarVersaoListagem(filtro),
+                () -> ocorrenciaService.listar(filtro));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar ocorrências paginadas por cursor",
+               description = "Ordena por data de criação decrescente. Use o campo 'next' da resposta como 'cursor' da próxima chamada.")
+    public ResponseEntity<PaginaResponse<OcorrenciaResponse>> listarPaginado(
+            @RequestParam(required = false) StatusOcorrencia status,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(ocorrenciaService.listarPaginado(status, usuarioId, cursor, tamanho));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar ocorrências em NDJSON ou CSV",
+               description = "Envia as linhas conforme são lidas do banco, em ordem de data de criação, sem montar " +
+                             "o resultado em memória. O período filtra pela data de criação e inclui os dois dias " +
+                             "informados. Com o máximo de exportações simultâneas em andamento, responde 503.")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) StatusOcorrencia status,
+            @RequestParam(required = false) TipoOcorrencia tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        exportacaoService.validarPeriodo(dataInicio, dataFim);
+        ExportacaoService.Vaga vaga = exportacaoService.reservarVaga();
+
+        StreamingResponseBody corpo = saida -> {
+            try (vaga) {
+                exportacaoService.exportar(status, tipo, dataInicio, dataFim, formatoExportacao, saida);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(formatoExportacao.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("ocorrencias." + formatoExportacao.getExtensao())
+                        .build()
+                        .toString())
+                .body(corpo);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de ocorrências (Server-Sent Events)",
+               description = "Emite ocorrencia-criada, ocorrencia-status-alterado e ocorrencia-removida, com uma " +
+                             "lista de ocorrências em JSON no campo data. Os filtros aceitam vários valores.")
+    public SseEmitter acompanhar(
+            @RequestParam(required = false) Set<StatusOcorrencia> status,
+            @RequestParam(required = false) Set<TipoOcorrencia> tipo) {
+        return transmissorOcorrencias.assinar(status, tipo);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Contagens de ocorrências por status, tipo e dia de criação",
+               description = "Respondida a partir de contadores em memória, reconciliados periodicamente com o banco.")
+    public ResponseEntity<EstatisticasResponse> estatisticas() {
+        return ResponseEntity.ok(estatisticasOcorrencias.consultar());
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Sincronizar ocorrências desde o último token",
+               description = "Retorna as ocorrências criadas ou alteradas e os ids das removidas desde 'since'. " +
+                             "Sem 'since', ou com um token anterior às remoções ainda registradas, inicia a lista " +
+                             "completa com completa=true, em páginas: enquanto temMais=true, chame de novo com o " +
+                             "token recebido. Use o campo 'token' da resposta como 'since' da próxima chamada.")
+    public ResponseEntity<AlteracoesResponse> alteracoes(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(sincronizacaoService.alteracoesDesde(since));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar ocorrência por ID")
-    public ResponseEntity<OcorrenciaResponse> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(ocorrenciaService.buscarPorId(id));
+    @Operation(summary = "Buscar ocorrência por ID", description = "Aceita If-None-Match com a ETag da resposta anterior.")
+    public ResponseEntity<OcorrenciaResponse> buscarPorId(@PathVariable Long id, WebRequest request) {
+        // A versão vem do banco, não do cache local: outra instância pode ter alterado a ocorrência
+        Optional<VersaoRecurso> versao = ocorrenciaService.buscarVersao(id);
+        if (versao.isEmpty()) {
+            // Segue o fluxo normal, que trata a ocorrência inexistente
+            return ResponseEntity.ok(ocorrenciaService.buscarPorId(id));
+        }
+        if (request.checkNotModified(versao.get().getEtag(), versao.get().getUltimaAlteracaoEmMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(ocorrenciaService.buscarPorId(id, versao.get()));
     }
 
     @GetMapping("/status/{status}")
-    @Operation(summary = "Buscar ocorrências por status")
-    public ResponseEntity<List<OcorrenciaResponse>> buscarPorStatus(@PathVariable StatusOcorrencia status) {
-        return ResponseEntity.ok(ocorrenciaService.buscarPorStatus(status));
+    @Operation(summary = "Buscar ocorrências por status", description = "Aceita If-None-Match com a ETag da resposta anterior.")
+    public ResponseEntity<List<OcorrenciaResponse>> buscarPorStatus(@PathVariable StatusOcorrencia status,
+                                                                    WebRequest request) {
+        return responderSeModificado(request, ocorrenciaService.buscarVersaoListagem(status, null),
+                () -> ocorrenciaService.buscarPorStatus(status));
     }
 
     @GetMapping("/usuario/{usuarioId}")
-    @Operation(summary = "Buscar ocorrências por usuário")
-    public ResponseEntity<List<OcorrenciaResponse>> buscarPorUsuario(@PathVariable Long usuarioId) {
-        return ResponseEntity.ok(ocorrenciaService.buscarPorUsuario(usuarioId));
+    @Operation(summary = "Buscar ocorrências por usuário", description = "Aceita If-None-Match com a ETag da resposta anterior.")
+    public ResponseEntity<List<OcorrenciaResponse>> buscarPorUsuario(@PathVariable Long usuarioId,
+                                                                     WebRequest request) {
+        return responderSeModificado(request, ocorrenciaService.buscarVersaoListagem(null, usuarioId),
+                () -> ocorrenciaService.buscarPorUsuario(usuarioId));
     }
 
     @GetMapping("/localizacao")
@@ -52,6 +194,15 @@ public class OcorrenciaController {
         return ResponseEntity.ok(ocorrenciaService.buscarPorLocalizacao(localizacao));
     }
 
+    @GetMapping("/localizacao/busca")
+    @Operation(summary = "Buscar ocorrências por localização aproximada",
+               description = "Ignora maiúsculas, acentos e abreviações comuns (Av., R.) e ordena por similaridade.")
+    public ResponseEntity<List<OcorrenciaResponse>> buscarPorLocalizacaoSimilar(
+            @RequestParam String termo,
+            @ParameterObject @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(ocorrenciaService.buscarPorLocalizacaoSimilar(termo, pageable));
+    }
+
     @PostMapping
     @Operation(summary = "Criar nova ocorrência")
     public ResponseEntity<OcorrenciaResponse> criar(@Valid @RequestBody OcorrenciaRequest request) {
@@ -59,6 +210,13 @@ public class OcorrenciaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(novaOcorrencia);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Criar ocorrências em lote",
+               description = "Valida cada item individualmente e retorna, na ordem enviada, o id criado ou o motivo da rejeição.")
+    public ResponseEntity<LoteOcorrenciaResponse> criarEmLote(@RequestBody List<OcorrenciaRequest> requests) {
+        return ResponseEntity.ok(ocorrenciaService.criarEmLote(requests));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar ocorrência")
     public ResponseEntity<OcorrenciaResponse> atualizar(
@@ -75,10 +233,33 @@ public class OcorrenciaController {
         return ResponseEntity.ok(ocorrenciaService.atualizarStatus(id, status));
     }
 
+    @PatchMapping("/status")
+    @Operation(summary = "Atualizar status de várias ocorrências",
+               description = "Recebe ids ou um filtro (tipo, usuarioId, localizacao) e o status de destino. " +
+                             "Retorna, para cada ocorrência, se foi atualizada, se a transição não é permitida " +
+                             "a partir do status atual ou se ela não existe.")
+    public ResponseEntity<AlteracaoStatusLoteResponse> atualizarStatusEmLote(
+            @Valid @RequestBody AlteracaoStatusLoteRequest request) {
+        return ResponseEntity.ok(ocorrenciaService.atualizarStatusEmLote(request));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Deletar ocorrência")
     public ResponseEntity<Void> deletar(@PathVariable Long id) {
         ocorrenciaService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Responde 304 sem montar a listagem quando o If-None-Match do cliente corresponde à
+     * versão atual; caso contrário devolve o corpo com a ETag, que o checkNotModified já
+     * adicionou à resposta. Sem Last-Modified: a última atualização não muda quando uma
+     * ocorrência é removida, e só a ETag leva a contagem em conta.
+     */
+    private <T> ResponseEntity<T> responderSeModificado(WebRequest request, VersaoRecurso versao, Supplier<T> corpo) {
+        if (request.checkNotModified(versao.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok(corpo.get());
+    }
 }
@@ -1,16 +1,26 @@
 package com.conectapg.api.controller;
 
+import com.conectapg.api.dto.DisponibilidadeEmailResponse;
+import com.conectapg.api.dto.ExpurgoResponse;
+import com.conectapg.api.dto.PaginaNumeradaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
 import com.conectapg.api.dto.UsuarioRequest;
 import com.conectapg.api.dto.UsuarioResponse;
 import com.conectapg.domain.model.Usuario.TipoUsuario;
+import com.conectapg.domain.service.ExpurgoUsuarioService;
 import com.conectapg.domain.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -21,11 +31,20 @@ import java.util.List;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final ExpurgoUsuarioService expurgoUsuarioService;
 
     @GetMapping
-    @Operation(summary = "Listar todos os usuários")
-    public ResponseEntity<List<UsuarioResponse>> listarTodos() {
-        return ResponseEntity.ok(usuarioService.listarTodos());
+    @Operation(summary = "Listar usuários", description = "Paginado (page, size); temProxima indica se há outra página.")
+    public ResponseEntity<PaginaNumeradaResponse<UsuarioResponse>> listarTodos(
+            @ParameterObject @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(usuarioService.listarTodos(pageable));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar usuários por lista de IDs",
+               description = "Uma única consulta; itens na ordem dos IDs informados e IDs inexistentes em naoEncontrados.")
+    public ResponseEntity<ResultadoPorIdsResponse<UsuarioResponse>> buscarPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(usuarioService.buscarPorIds(ids));
     }
 
     @GetMapping("/{id}")
@@ -34,6 +53,12 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarioService.buscarPorId(id));
     }
 
+    @GetMapping("/email/disponivel")
+    @Operation(summary = "Verificar se um email está disponível para cadastro")
+    public ResponseEntity<DisponibilidadeEmailResponse> verificarEmail(@RequestParam String email) {
+        return ResponseEntity.ok(new DisponibilidadeEmailResponse(email, usuarioService.emailDisponivel(email)));
+    }
+
     @GetMapping("/email/{email}")
     @Operation(summary = "Buscar usuário por email")
     public ResponseEntity<UsuarioResponse> buscarPorEmail(@PathVariable String email) {
@@ -42,14 +67,17 @@ public class UsuarioController {
 
     @GetMapping("/tipo/{tipo}")
     @Operation(summary = "Buscar usuários por tipo")
-    public ResponseEntity<List<UsuarioResponse>> buscarPorTipo(@PathVariable TipoUsuario tipo) {
-        return ResponseEntity.ok(usuarioService.buscarPorTipo(tipo));
+    public ResponseEntity<PaginaNumeradaResponse<UsuarioResponse>> buscarPorTipo(
+            @PathVariable TipoUsuario tipo,
+            @ParameterObject @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(usuarioService.buscarPorTipo(tipo, pageable));
     }
 
     @GetMapping("/ativos")
     @Operation(summary = "Listar usuários ativos")
-    public ResponseEntity<List<UsuarioResponse>> buscarAtivos() {
-        return ResponseEntity.ok(usuarioService.buscarAtivos());
+    public ResponseEntity<PaginaNumeradaResponse<UsuarioResponse>> buscarAtivos(
+            @ParameterObject @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(usuarioService.buscarAtivos(pageable));
     }
 
     @PostMapping
@@ -76,9 +104,26 @@ public class UsuarioController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Deletar usuário")
+    @Operation(summary = "Deletar usuário", description = "Remove também as ocorrências do usuário.")
     public ResponseEntity<Void> deletar(@PathVariable Long id) {
         usuarioService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/{id}/expurgo")
+    @Operation(summary = "Expurgar usuário em segundo plano",
+               description = "Para usuários com muitas ocorrências: remove as ocorrências em blocos e, ao final, " +
+                             "o usuário. Acompanhe o progresso pela URL do cabeçalho Location.")
+    public ResponseEntity<ExpurgoResponse> expurgar(@PathVariable Long id) {
+        ExpurgoResponse expurgo = expurgoUsuarioService.iniciar(id);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().build().toUri())
+                .body(expurgo);
+    }
+
+    @GetMapping("/{id}/expurgo")
+    @Operation(summary = "Consultar progresso do expurgo do usuário")
+    public ResponseEntity<ExpurgoResponse> consultarExpurgo(@PathVariable Long id) {
+        return ResponseEntity.ok(expurgoUsuarioService.consultar(id));
+    }
 }
@@ -0,0 +1,39 @@
+package com.conectapg.api.dto;
+
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Alteração de status de várias ocorrências. As ocorrências são indicadas pelos
+ * {@code ids} ou por um filtro ({@code tipo}, {@code usuarioId}, {@code localizacao}),
+ * nunca pelos dois ao mesmo tempo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlteracaoStatusLoteRequest {
+
+    @NotNull(message = "Status é obrigatório")
+    private StatusOcorrencia status;
+
+    private List<Long> ids;
+
+    private TipoOcorrencia tipo;
+
+    private Long usuarioId;
+
+    /** Trecho do endereço, como na busca por localização. */
+    private String localizacao;
+
+    public boolean temFiltro() {
+        return tipo != null || usuarioId != null || (localizacao != null && !localizacao.isBlank());
+    }
+}
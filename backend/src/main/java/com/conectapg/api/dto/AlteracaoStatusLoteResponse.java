@@ -0,0 +1,38 @@
+package com.conectapg.api.dto;
+
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlteracaoStatusLoteResponse {
+
+    private int atualizadas;
+    private int rejeitadas;
+
+    /** Resultado de cada ocorrência, na ordem dos ids enviados (ou de id, quando filtradas). */
+    private List<ResultadoItem> itens;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoItem {
+        private Long id;
+        private ResultadoAlteracao resultado;
+
+        /** Status da ocorrência após a operação; nulo se ela não existir. */
+        private StatusOcorrencia status;
+    }
+
+    public enum ResultadoAlteracao {
+        ATUALIZADA, TRANSICAO_NAO_PERMITIDA, NAO_ENCONTRADA
+    }
+}
@@ -0,0 +1,37 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlteracoesResponse {
+
+    /**
+     * Ocorrências criadas ou alteradas desde o token informado; numa sincronização completa,
+     * a página atual da lista inteira, em ordem de id.
+     */
+    private List<OcorrenciaResponse> alteradas;
+
+    /** Ids das ocorrências removidas desde o token informado. */
+    private List<Long> removidas;
+
+    /**
+     * Quando {@code true}, começa uma sincronização completa e o cliente deve descartar as
+     * ocorrências que tem guardadas: não havia token ou ele é anterior às remoções registradas.
+     * As páginas seguintes vêm com {@code false} e só acrescentam ocorrências.
+     */
+    private boolean completa;
+
+    /** Há mais páginas da sincronização, completa ou incremental; chame de novo com o token desta resposta. */
+    private boolean temMais;
+
+    /** Token para a próxima chamada. */
+    private String token;
+}
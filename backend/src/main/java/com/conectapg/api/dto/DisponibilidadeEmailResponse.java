@@ -0,0 +1,14 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadeEmailResponse {
+
+    private String email;
+    private boolean disponivel;
+}
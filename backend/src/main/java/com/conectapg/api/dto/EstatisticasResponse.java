@@ -0,0 +1,29 @@
+package com.conectapg.api.dto;
+
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstatisticasResponse {
+
+    private long total;
+    private Map<StatusOcorrencia, Long> porStatus;
+    private Map<TipoOcorrencia, Long> porTipo;
+
+    /** Ocorrências criadas em cada um dos últimos dias, em ordem cronológica, incluindo dias sem registros. */
+    private Map<LocalDate, Long> porDia;
+
+    /** Momento da última conferência dos contadores com o banco. */
+    private LocalDateTime reconciliadoEm;
+}
@@ -0,0 +1,30 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpurgoResponse {
+
+    private Long usuarioId;
+    private SituacaoExpurgo situacao;
+
+    /** Ocorrências do usuário no início do expurgo. */
+    private long totalOcorrencias;
+    private long ocorrenciasRemovidas;
+
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime concluidoEm;
+    private String erro;
+
+    public enum SituacaoExpurgo {
+        EM_ANDAMENTO, CONCLUIDO, FALHOU
+    }
+}
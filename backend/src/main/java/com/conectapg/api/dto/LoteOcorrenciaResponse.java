@@ -0,0 +1,36 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteOcorrenciaResponse {
+
+    private int criadas;
+    private int rejeitadas;
+
+    /** Resultado de cada item, na mesma ordem da requisição. */
+    private List<ResultadoItem> itens;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoItem {
+        private int indice;
+        private StatusItem status;
+        private Long id;
+        private String erro;
+    }
+
+    public enum StatusItem {
+        CRIADA, REJEITADA
+    }
+}
@@ -25,6 +25,15 @@ public class OcorrenciaResponse {
     private LocalDateTime dataCriacao;
     private LocalDateTime dataAtualizacao;
 
+    /** Usado pelas consultas com constructor expression e pelo UPDATE ... RETURNING de {@code OcorrenciaRepository}. */
+    public OcorrenciaResponse(Long id, String titulo, String descricao, String localizacao,
+                              StatusOcorrencia status, TipoOcorrencia tipo,
+                              Long usuarioId, String usuarioNome, String usuarioEmail,
+                              LocalDateTime dataCriacao, LocalDateTime dataAtualizacao) {
+        this(id, titulo, descricao, localizacao, status, tipo,
+                new UsuarioResumo(usuarioId, usuarioNome, usuarioEmail), dataCriacao, dataAtualizacao);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
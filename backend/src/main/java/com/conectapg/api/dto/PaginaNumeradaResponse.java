@@ -0,0 +1,38 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem paginada por número ({@code page}/{@code size}). Sem o total de
+ * registros: a consulta busca um item a mais para saber se há próxima página, sem COUNT.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaNumeradaResponse<T> {
+
+    private List<T> itens;
+
+    private int pagina;
+
+    private int tamanho;
+
+    private boolean temProxima;
+
+    public static <E, T> PaginaNumeradaResponse<T> de(Slice<E> fatia, Function<E, T> conversor) {
+        return PaginaNumeradaResponse.<T>builder()
+                .itens(fatia.getContent().stream().map(conversor).toList())
+                .pagina(fatia.getNumber())
+                .tamanho(fatia.getSize())
+                .temProxima(fatia.hasNext())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaResponse<T> {
+
+    private List<T> itens;
+
+    /** Cursor opaco da próxima página; {@code null} quando não há mais resultados. */
+    private String next;
+}
@@ -0,0 +1,21 @@
+package com.conectapg.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoPorIdsResponse<T> {
+
+    /** Encontrados, na ordem em que os ids foram pedidos (repetições ignoradas). */
+    private List<T> itens;
+
+    /** Ids pedidos que não existem, também na ordem do pedido. */
+    private List<Long> naoEncontrados;
+}
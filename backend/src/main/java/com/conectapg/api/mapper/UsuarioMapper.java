@@ -4,35 +4,28 @@ import com.conectapg.api.dto.UsuarioRequest;
 import com.conectapg.api.dto.UsuarioResponse;
 import com.conectapg.domain.model.Usuario;
 import com.conectapg.domain.model.Usuario.TipoUsuario;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UsuarioMapper {
 
-    private final PasswordEncoder passwordEncoder;
-
-    public UsuarioMapper(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
-    }
-
-    public Usuario toEntity(UsuarioRequest request) {
+    public Usuario toEntity(UsuarioRequest request, String senhaHash) {
         Usuario usuario = new Usuario();
         usuario.setNome(request.getNome());
         usuario.setEmail(request.getEmail());
-        usuario.setSenha(passwordEncoder.encode(request.getSenha()));
+        usuario.setSenha(senhaHash);
         usuario.setTipo(request.getTipo() != null ? request.getTipo() : TipoUsuario.CIDADAO);
         usuario.setAtivo(request.getAtivo() != null ? request.getAtivo() : true);
         return usuario;
     }
 
-    public void updateEntity(Usuario usuario, UsuarioRequest request) {
+    public void updateEntity(Usuario usuario, UsuarioRequest request, String senhaHash) {
         usuario.setNome(request.getNome());
         usuario.setEmail(request.getEmail());
         
         // Só atualiza a senha se foi fornecida
-        if (request.getSenha() != null && !request.getSenha().isBlank()) {
-            usuario.setSenha(passwordEncoder.encode(request.getSenha()));
+        if (senhaHash != null) {
+            usuario.setSenha(senhaHash);
         }
         
         if (request.getTipo() != null) {
@@ -52,7 +45,7 @@ public class UsuarioMapper {
                 .tipo(usuario.getTipo())
                 .ativo(usuario.getAtivo())
                 .dataCriacao(usuario.getDataCriacao())
-                .totalOcorrencias(usuario.getOcorrencias() != null ? usuario.getOcorrencias().size() : 0)
+                .totalOcorrencias(usuario.getTotalOcorrencias())
                 .build();
     }
 }
@@ -0,0 +1,312 @@
+package com.conectapg.api.sse;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.service.OcorrenciaEvento;
+import com.conectapg.domain.service.ServicoSobrecarregadoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui as alterações de ocorrências para os assinantes de {@code GET /ocorrencias/stream}.
+ *
+ * As conexões SSE são assíncronas e não prendem threads do Tomcat. Cada assinante tem uma
+ * fila limitada: o listener do commit apenas enfileira (nunca bloqueia) e um pool de threads
+ * de envio drena as filas. Quem não consome rápido o bastante para manter a fila abaixo do
+ * limite é desconectado, sem atrasar os demais.
+ *
+ * A escrita na conexão é bloqueante: um cliente que para de ler prende a thread que escreve
+ * para ele. O pool cresce além de {@code threads} (até {@code maximo-threads}) para que os
+ * outros assinantes sigam recebendo, e uma verificação periódica desconecta quem está há mais
+ * de {@code tempo-maximo-envio} em uma escrita, interrompendo-a para liberar a thread.
+ *
+ * Métricas: {@code conectapg.eventos.assinantes} e {@code conectapg.eventos.descartados}.
+ */
+@Slf4j
+@Component
+public class TransmissorOcorrencias {
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ConectaPgProperties.Eventos config;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService envio;
+    private final ScheduledExecutorService heartbeat;
+    private final long tempoMaximoEnvioNanos;
+    private final Counter descartados;
+
+    public TransmissorOcorrencias(ConectaPgProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.config = properties.getEventos();
+        this.objectMapper = objectMapper;
+        // Sem fila: com todas as threads ocupadas cria outra, até o máximo; acima dele o envio é
+        // recusado e retomado pela verificação periódica
+        this.envio = new ThreadPoolExecutor(config.getThreads(), config.getMaximoThreads(),
+                60L, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("sse-envio-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+        this.tempoMaximoEnvioNanos = config.getTempoMaximoEnvio().toNanos();
+
+        long intervalo = config.getIntervaloHeartbeat().toMillis();
+        heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        long verificacao = Math.max(1, config.getTempoMaximoEnvio().toMillis() / 2);
+        heartbeat.scheduleAtFixedRate(this::verificarEnvios, verificacao, verificacao, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("conectapg.eventos.assinantes", assinantes, Set::size)
+                .description("Conexões abertas em /ocorrencias/stream")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("conectapg.eventos.descartados")
+                .description("Assinantes desconectados por não acompanharem o ritmo dos eventos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param status filtro por status ({@code null} ou vazio para todos)
+     * @param tipos  filtro por tipo ({@code null} ou vazio para todos)
+     */
+    public SseEmitter assinar(Set<StatusOcorrencia> status, Set<TipoOcorrencia> tipos) {
+        if (assinantes.size() >= config.getMaximoAssinantes()) {
+            throw new ServicoSobrecarregadoException("Limite de conexões ao feed de ocorrências atingido");
+        }
+
+        SseEmitter emitter = criarEmitter(config.getTempoMaximoConexao().toMillis());
+        Assinante assinante = new Assinante(emitter, new Filtro(status, tipos), config.getCapacidadeFila());
+        assinantes.add(assinante);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> {
+            assinantes.remove(assinante);
+            emitter.complete();
+        });
+
+        // Envia os cabeçalhos de imediato para o cliente saber que a conexão foi aceita
+        enfileirar(assinante, SseEmitter.event().comment("conectado").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void publicar(OcorrenciaEvento evento) {
+        long id = sequencia.incrementAndGet();
+        // Assinantes com o mesmo filtro recebem o mesmo conteúdo, serializado uma única vez
+        Map<Filtro, Set<DataWithMediaType>> porFiltro = new HashMap<>();
+        for (Assinante assinante : assinantes) {
+            Set<DataWithMediaType> dados = porFiltro.computeIfAbsent(assinante.filtro,
+                    filtro -> montarEvento(id, evento, filtro));
+            if (!dados.isEmpty()) {
+                enfileirar(assinante, dados);
+            }
+        }
+    }
+
+    int totalAssinantes() {
+        return assinantes.size();
+    }
+
+    /** Ponto de extensão para os testes simularem conexões lentas. */
+    SseEmitter criarEmitter(long tempoMaximo) {
+        return new SseEmitter(tempoMaximo);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        envio.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+
+    private Set<DataWithMediaType> montarEvento(long id, OcorrenciaEvento evento, Filtro filtro) {
+        List<OcorrenciaResponse> visiveis = evento.getOcorrencias().stream()
+                .filter(ocorrencia -> filtro.aceita(ocorrencia, evento.getStatusAnterior()))
+                .toList();
+        if (visiveis.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(evento.getTipo().getNome())
+                    .data(objectMapper.writeValueAsString(visiveis))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento de ocorrência", e);
+        }
+    }
+
+    private void enviarHeartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        assinantes.forEach(assinante -> enfileirar(assinante, ping));
+    }
+
+    private void enfileirar(Assinante assinante, Set<DataWithMediaType> dados) {
+        if (!assinante.fila.offer(dados)) {
+            desconectar(assinante, "fila cheia");
+            return;
+        }
+        agendarEnvio(assinante);
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        // No máximo uma tarefa de envio por assinante, então a ordem dos eventos é mantida
+        if (assinante.enviando.compareAndSet(false, true)) {
+            try {
+                envio.execute(() -> drenar(assinante));
+            } catch (RejectedExecutionException e) {
+                // Todas as threads escrevendo; verificarEnvios tenta de novo
+                assinante.enviando.set(false);
+            }
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        boolean falhou = false;
+        try {
+            Set<DataWithMediaType> dados;
+            while (!assinante.desconectado && (dados = assinante.fila.poll()) != null) {
+                assinante.enviar(dados);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Conexão fechada pelo cliente, emitter já concluído ou escrita interrompida na desconexão
+            assinantes.remove(assinante);
+            falhou = true;
+        } finally {
+            assinante.enviando.set(false);
+        }
+        if (assinante.desconectado) {
+            concluir(assinante);
+        } else if (!falhou && !assinante.fila.isEmpty()) {
+            // Um evento pode ter chegado entre o último poll e a liberação do envio
+            agendarEnvio(assinante);
+        }
+    }
+
+    /**
+     * Desconecta quem está há mais de {@code tempo-maximo-envio} em uma única escrita e
+     * retoma os envios recusados enquanto todas as threads estavam ocupadas.
+     */
+    private void verificarEnvios() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            if (assinante.escrevendoHaMaisDe(tempoMaximoEnvioNanos, agora)) {
+                desconectar(assinante, "escrita travada");
+            } else if (!assinante.fila.isEmpty()) {
+                agendarEnvio(assinante);
+            }
+        }
+    }
+
+    /**
+     * Nunca bloqueia: o {@code complete()} do emitter espera o fim de uma escrita em andamento,
+     * então, havendo uma, ela é interrompida e o próprio envio conclui o emitter ao sair.
+     */
+    private void desconectar(Assinante assinante, String motivo) {
+        if (!assinantes.remove(assinante)) {
+            return;
+        }
+        descartados.increment();
+        log.warn("Assinante do feed de ocorrências desconectado ({}): {} eventos pendentes",
+                motivo, assinante.fila.size());
+        assinante.desconectado = true;
+        assinante.fila.clear();
+        if (assinante.enviando.compareAndSet(false, true)) {
+            concluir(assinante);
+        } else {
+            assinante.interromperEscrita();
+        }
+    }
+
+    private void concluir(Assinante assinante) {
+        if (assinante.concluido.compareAndSet(false, true)) {
+            assinante.emitter.complete();
+        }
+    }
+
+    private record Filtro(Set<StatusOcorrencia> status, Set<TipoOcorrencia> tipos) {
+
+        /**
+         * Numa mudança de status, aceita também quando o status anterior está no filtro, para
+         * o assinante saber que a ocorrência saiu do conjunto que ele acompanha.
+         */
+        boolean aceita(OcorrenciaResponse ocorrencia, StatusOcorrencia statusAnterior) {
+            return (status == null || status.isEmpty() || status.contains(ocorrencia.getStatus())
+                            || (statusAnterior != null && status.contains(statusAnterior)))
+                    && (tipos == null || tipos.isEmpty() || tipos.contains(ocorrencia.getTipo()));
+        }
+    }
+
+    private static final class Assinante {
+
+        final SseEmitter emitter;
+        final Filtro filtro;
+        final BlockingQueue<Set<DataWithMediaType>> fila;
+        final AtomicBoolean enviando = new AtomicBoolean();
+        final AtomicBoolean concluido = new AtomicBoolean();
+        volatile boolean desconectado;
+
+        // Escrita em andamento, sob o monitor do assinante
+        private Thread escritor;
+        private long inicioEscrita;
+
+        Assinante(SseEmitter emitter, Filtro filtro, int capacidadeFila) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        }
+
+        void enviar(Set<DataWithMediaType> dados) throws IOException {
+            synchronized (this) {
+                escritor = Thread.currentThread();
+                inicioEscrita = System.nanoTime();
+            }
+            try {
+                emitter.send(dados);
+            } finally {
+                synchronized (this) {
+                    escritor = null;
+                    // Uma interrupção destinada a esta escrita não pode atingir a próxima tarefa da thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized boolean escrevendoHaMaisDe(long nanos, long agora) {
+            return escritor != null && agora - inicioEscrita > nanos;
+        }
+
+        synchronized void interromperEscrita() {
+            if (escritor != null) {
+                escritor.interrupt();
+            }
+        }
+    }
+}
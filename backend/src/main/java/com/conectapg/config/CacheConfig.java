@@ -0,0 +1,34 @@
+package com.conectapg.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches das consultas por id/email, limitados por tamanho e tempo de vida.
+ *
+ * As estatísticas de acerto, falha e remoção são publicadas pelo Actuator em
+ * {@code /actuator/metrics/cache.gets} e {@code /actuator/metrics/cache.evictions}.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String OCORRENCIAS = "ocorrencias";
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+
+    @Bean
+    public CacheManager cacheManager(ConectaPgProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(OCORRENCIAS, USUARIOS, USUARIOS_POR_EMAIL);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getTamanhoMaximo())
+                .expireAfterWrite(properties.getCache().getExpiracao())
+                .recordStats());
+        // Gravações e remoções só são aplicadas após o commit, para que uma leitura
+        // concorrente não guarde dados que ainda podem ser revertidos
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,265 @@
+package com.conectapg.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da aplicação definidas sob o prefixo {@code conectapg}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "conectapg")
+public class ConectaPgProperties {
+
+    private Paginacao paginacao = new Paginacao();
+
+    private Busca busca = new Busca();
+
+    private Lote lote = new Lote();
+
+    private Cache cache = new Cache();
+
+    private Senha senha = new Senha();
+
+    private Concorrencia concorrencia = new Concorrencia();
+
+    private Eventos eventos = new Eventos();
+
+    private Expurgo expurgo = new Expurgo();
+
+    private Particionamento particionamento = new Particionamento();
+
+    private Estatisticas estatisticas = new Estatisticas();
+
+    private FiltroEmails filtroEmails = new FiltroEmails();
+
+    private Sincronizacao sincronizacao = new Sincronizacao();
+
+    private Exportacao exportacao = new Exportacao();
+
+    @Data
+    public static class Paginacao {
+
+        /** Tamanho de página usado quando o cliente não informa um. */
+        private int tamanhoPadrao = 20;
+
+        /** Limite superior aceito para o tamanho de página. */
+        private int tamanhoMaximo = 100;
+
+        public int limitar(Integer tamanho) {
+            if (tamanho == null || tamanho <= 0) {
+                return tamanhoPadrao;
+            }
+            return Math.min(tamanho, tamanhoMaximo);
+        }
+    }
+
+    @Data
+    public static class Busca {
+
+        /**
+         * Estratégia da busca por localização. TRIGRAM depende das funções criadas
+         * na migração V4 (PostgreSQL); LIKE funciona em qualquer banco.
+         */
+        private ModoBuscaLocalizacao localizacao = ModoBuscaLocalizacao.TRIGRAM;
+    }
+
+    @Data
+    public static class Lote {
+
+        /** Quantidade máxima de itens aceita em uma única requisição de criação em lote. */
+        private int tamanhoMaximo = 5000;
+
+        /** Ids por comando UPDATE na alteração de status em lote. */
+        private int tamanhoBloco = 1000;
+    }
+
+    @Data
+    public static class Cache {
+
+        /** Quantidade máxima de entradas mantidas em cada cache. */
+        private long tamanhoMaximo = 10_000;
+
+        /** Tempo de vida de uma entrada a partir da sua gravação. */
+        private Duration expiracao = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Senha {
+
+        /** Fator de custo do BCrypt; com a calibração ativa é o valor mínimo aceito. */
+        private int custo = 10;
+
+        /** Ajusta o custo na inicialização para o maior valor que respeite a latência alvo. */
+        private boolean calibrar = true;
+
+        private Duration latenciaAlvo = Duration.ofMillis(250);
+
+        /** Threads dedicadas ao hash; limita a CPU que uma rajada de cadastros pode consumir. */
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /** Hashes aguardando uma thread livre; acima disso a requisição é rejeitada. */
+        private int capacidadeFila = 50;
+
+        private Duration tempoMaximoEspera = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Proteções do modo com virtual threads ({@code spring.threads.virtual.enabled}).
+     */
+    @Data
+    public static class Concorrencia {
+
+        /** Requisições simultâneas permitidas por conexão do pool do Hikari. */
+        private int requisicoesPorConexao = 2;
+
+        /** Espera máxima por uma vaga antes de responder 503. */
+        private Duration tempoMaximoEspera = Duration.ofSeconds(2);
+
+        /** Duração mínima de um pinning de virtual thread para ser registrado. */
+        private Duration limiarPinning = Duration.ofMillis(20);
+    }
+
+    /**
+     * Feed SSE de alterações em ocorrências ({@code GET /ocorrencias/stream}).
+     */
+    @Data
+    public static class Eventos {
+
+        /** Eventos pendentes por assinante; ao estourar, o assinante lento é desconectado. */
+        private int capacidadeFila = 256;
+
+        /** Threads que escrevem nas conexões mantidas mesmo ociosas; não dependem do número de assinantes. */
+        private int threads = 4;
+
+        /**
+         * Escritas simultâneas. Uma escrita em um cliente lento prende a sua thread; acima de
+         * {@code threads} o pool cria outras, para que os demais assinantes continuem recebendo.
+         */
+        private int maximoThreads = 64;
+
+        /** Duração máxima de uma escrita; acima disso o assinante é desconectado e a thread liberada. */
+        private Duration tempoMaximoEnvio = Duration.ofSeconds(5);
+
+        /** Conexões simultâneas aceitas por instância; acima disso responde 503. */
+        private int maximoAssinantes = 10_000;
+
+        /** Intervalo dos comentários de keep-alive, que também detectam conexões mortas. */
+        private Duration intervaloHeartbeat = Duration.ofSeconds(15);
+
+        /** Duração máxima de uma conexão; o EventSource do navegador reconecta sozinho. */
+        private Duration tempoMaximoConexao = Duration.ofMinutes(30);
+    }
+
+    /**
+     * Expurgo em segundo plano de usuários com muitas ocorrências.
+     */
+    @Data
+    public static class Expurgo {
+
+        /** Ocorrências removidas por transação. */
+        private int tamanhoBloco = 1000;
+
+        /** Pausa entre blocos, para não disputar o banco com as gravações normais. */
+        private Duration intervaloEntreBlocos = Duration.ofMillis(20);
+
+        /** Expurgos executados ao mesmo tempo; os demais aguardam na fila. */
+        private int threads = 1;
+
+        /** Expurgos aguardando na fila; acima disso novos pedidos recebem 503. */
+        private int filaMaxima = 100;
+
+        /** Por quanto tempo o resultado de um expurgo encerrado continua disponível para consulta. */
+        private Duration retencao = Duration.ofHours(1);
+    }
+
+    /**
+     * Manutenção das partições mensais de {@code ocorrencias} (migração V7, apenas PostgreSQL).
+     */
+    @Data
+    public static class Particionamento {
+
+        /** Executa a manutenção agendada; desligado onde o banco não é particionado (H2). */
+        private boolean habilitado = true;
+
+        /** Meses futuros que devem ter partição criada com antecedência. */
+        private int mesesAFrente = 3;
+
+        /** Idade, em meses, a partir da qual partições só com ocorrências FECHADAS são arquivadas. */
+        private int retencaoMeses = 24;
+    }
+
+    /**
+     * Contadores do painel ({@code GET /ocorrencias/stats}).
+     */
+    @Data
+    public static class Estatisticas {
+
+        /** Dias, contando hoje, incluídos na contagem por data de criação. */
+        private int dias = 30;
+
+        /** Intervalo entre as reconciliações dos contadores com o banco. */
+        private Duration intervaloReconciliacao = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Filtro de Bloom com os emails cadastrados, consultado antes do {@code existsByEmail}.
+     */
+    @Data
+    public static class FiltroEmails {
+
+        private boolean habilitado = true;
+
+        /** Emails previstos; o filtro é dimensionado para o maior valor entre este e o dobro dos cadastrados. */
+        private long capacidadeInicial = 100_000;
+
+        /** Fração das verificações de emails não cadastrados que ainda irão ao banco. */
+        private double taxaFalsosPositivos = 0.01;
+
+        /** Intervalo para verificar se o filtro precisa ser recarregado. */
+        private Duration intervaloReconstrucao = Duration.ofMinutes(10);
+
+        /**
+         * Idade a partir da qual o filtro é recarregado mesmo sem remoções, para incluir os emails
+         * cadastrados por outras instâncias. Também é a defasagem máxima da consulta de
+         * disponibilidade: um filtro mais velho que isso não responde por ela.
+         */
+        private Duration idadeMaxima = Duration.ofHours(1);
+    }
+
+    /**
+     * Sincronização incremental dos aplicativos ({@code GET /ocorrencias/changes}).
+     */
+    @Data
+    public static class Sincronizacao {
+
+        /**
+         * Por quanto tempo as remoções ficam registradas. Tokens anteriores às remoções já
+         * descartadas recebem de novo a listagem completa.
+         */
+        private Duration retencaoRemocoes = Duration.ofDays(30);
+
+        /** Itens por resposta: ocorrências na sincronização completa, alteradas mais removidas na incremental. */
+        private int tamanhoPagina = 1000;
+    }
+
+    /**
+     * Exportações ({@code GET /ocorrencias/export}).
+     */
+    @Data
+    public static class Exportacao {
+
+        /**
+         * Exportações simultâneas. Cada uma mantém uma conexão do pool enquanto o cliente baixa o
+         * arquivo; deve ficar bem abaixo do maximum-pool-size do Hikari.
+         */
+        private int maximoSimultaneas = 2;
+    }
+
+    public enum ModoBuscaLocalizacao {
+        TRIGRAM, LIKE
+    }
+}
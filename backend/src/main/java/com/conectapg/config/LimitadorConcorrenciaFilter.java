@@ -0,0 +1,69 @@
+package com.conectapg.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas requisições são processadas ao mesmo tempo.
+ *
+ * Com virtual threads o Tomcat não tem mais o teto de 200 threads; sem este filtro milhares
+ * de requisições disputariam as poucas conexões do Hikari e falhariam no connection-timeout.
+ * Aqui elas aguardam uma vaga (sem ocupar thread de plataforma) e, se a espera passar do
+ * limite, recebem 503.
+ */
+public class LimitadorConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore vagas;
+    private final Duration tempoMaximoEspera;
+    private final Counter rejeicoes;
+
+    public LimitadorConcorrenciaFilter(int limite, Duration tempoMaximoEspera, MeterRegistry meterRegistry) {
+        this.vagas = new Semaphore(limite, true);
+        this.tempoMaximoEspera = tempoMaximoEspera;
+        this.rejeicoes = Counter.builder("conectapg.concorrencia.rejeitadas")
+                .description("Requisições recusadas por falta de vaga no limitador")
+                .register(meterRegistry);
+        Gauge.builder("conectapg.concorrencia.disponiveis", vagas, Semaphore::availablePermits)
+                .description("Vagas livres no limitador de concorrência")
+                .register(meterRegistry);
+        Gauge.builder("conectapg.concorrencia.aguardando", vagas, Semaphore::getQueueLength)
+                .description("Requisições aguardando uma vaga no limitador")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!adquirirVaga()) {
+            rejeicoes.increment();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor sobrecarregado, tente novamente em instantes");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    private boolean adquirirVaga() {
+        try {
+            return vagas.tryAcquire(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.conectapg.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Registra quando uma virtual thread fica presa à thread de plataforma (pinning), o que
+ * acontece ao bloquear dentro de um bloco {@code synchronized} ou de código nativo.
+ *
+ * Usa o evento JFR {@code jdk.VirtualThreadPinned} em streaming, sem gravar arquivo; cada
+ * ocorrência é contada em {@code jvm.threads.virtual.pinned} e logada com a pilha.
+ */
+@Slf4j
+public class MonitorPinning {
+
+    static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private static final int FRAMES_NO_LOG = 12;
+
+    private final RecordingStream stream;
+    private final Counter pinagens;
+
+    public MonitorPinning(Duration limiar, MeterRegistry meterRegistry) {
+        this.pinagens = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads presas à thread de plataforma acima do limiar")
+                .register(meterRegistry);
+        this.stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        stream.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        pinagens.increment();
+        log.warn("Virtual thread presa por {} ms em:\n{}", evento.getDuration().toMillis(), formatarPilha(evento));
+    }
+
+    private String formatarPilha(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "\t(pilha indisponível)";
+        }
+        return evento.getStackTrace().getFrames().stream()
+                .limit(FRAMES_NO_LOG)
+                .map(MonitorPinning::formatarFrame)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String formatarFrame(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
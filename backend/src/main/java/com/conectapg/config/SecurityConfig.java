@@ -1,12 +1,14 @@
 package com.conectapg.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -28,17 +30,19 @@ public class SecurityConfig {
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/ocorrencias/**").permitAll() // Temporário - implementar autenticação depois
                 .requestMatchers("/usuarios/**").permitAll() // Temporário - implementar autenticação depois
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, InfoEndpoint.class)).permitAll()
+                // Métricas revelam volume de tráfego e de consultas: apenas com credenciais (HTTP Basic,
+                // usuário de spring.security.user), para o scraper do Prometheus. Não há PasswordEncoder
+                // global: o BCrypt dos cadastros fica em SenhaHasher e o usuário do actuator é validado
+                // pelo encoder padrão do Spring Security, que aceita a senha {noop} gerada pelo Boot
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).authenticated()
                 .anyRequest().authenticated()
-            );
+            )
+            .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
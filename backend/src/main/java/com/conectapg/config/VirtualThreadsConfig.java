@@ -0,0 +1,44 @@
+package com.conectapg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Proteções ativadas junto com {@code spring.threads.virtual.enabled=true}.
+ *
+ * Mesma condição que o Boot usa para trocar os executores: a propriedade sozinha não basta, a JVM
+ * precisa ser 21+. Em Java 17 com a propriedade ligada o Tomcat segue em threads de plataforma e
+ * o limitador não deve entrar.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public FilterRegistrationBean<LimitadorConcorrenciaFilter> limitadorConcorrencia(
+            DataSource dataSource, ConectaPgProperties properties, MeterRegistry meterRegistry) throws SQLException {
+        ConectaPgProperties.Concorrencia concorrencia = properties.getConcorrencia();
+        // O limite acompanha o maximum-pool-size para que o excesso espere por vaga aqui,
+        // e não no getConnection do Hikari, onde estouraria o connection-timeout
+        int conexoes = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        int limite = conexoes * concorrencia.getRequisicoesPorConexao();
+
+        FilterRegistrationBean<LimitadorConcorrenciaFilter> registro = new FilterRegistrationBean<>(
+                new LimitadorConcorrenciaFilter(limite, concorrencia.getTempoMaximoEspera(), meterRegistry));
+        registro.addUrlPatterns("/ocorrencias/*", "/usuarios/*");
+        return registro;
+    }
+
+    @Bean
+    public MonitorPinning monitorPinning(ConectaPgProperties properties, MeterRegistry meterRegistry) {
+        return new MonitorPinning(properties.getConcorrencia().getLimiarPinning(), meterRegistry);
+    }
+}
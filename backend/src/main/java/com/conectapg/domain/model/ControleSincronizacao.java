@@ -0,0 +1,28 @@
+package com.conectapg.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado da sincronização incremental compartilhado pelas instâncias, em uma única linha
+ * (migração V11). Atualizado apenas pelo expurgo dos registros de remoção.
+ */
+@Entity
+@Table(name = "controle_sincronizacao")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ControleSincronizacao {
+
+    @Id
+    private Integer id;
+
+    /**
+     * Maior versão entre os registros de remoção já expurgados. Tokens com versão até este
+     * valor podem ter perdido remoções e recebem de novo a listagem completa.
+     */
+    @Column(name = "versao_expurgada", nullable = false)
+    private Long versaoExpurgada;
+}
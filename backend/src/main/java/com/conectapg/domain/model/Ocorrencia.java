@@ -4,20 +4,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Entity
 @Table(name = "ocorrencias")
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ocorrencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ocorrencias_id_seq")
+    @SequenceGenerator(name = "ocorrencias_id_seq", sequenceName = "ocorrencias_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Título é obrigatório")
@@ -34,6 +40,7 @@ public class Ocorrencia {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
+    @Builder.Default
     private StatusOcorrencia status = StatusOcorrencia.ABERTA;
 
     @Enumerated(EnumType.STRING)
@@ -42,6 +49,7 @@ public class Ocorrencia {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Usuario usuario;
 
     @Column(name = "data_criacao", nullable = false, updatable = false)
@@ -50,6 +58,10 @@ public class Ocorrencia {
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
 
+    /** Id da transação que gravou a linha por último; preenchido pelo banco (migração V9). */
+    @Column(name = "versao_alteracao", insertable = false, updatable = false)
+    private Long versaoAlteracao;
+
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
@@ -61,8 +73,25 @@ public class Ocorrencia {
         dataAtualizacao = LocalDateTime.now();
     }
 
+    /**
+     * Ciclo de vida linear: ABERTA → EM_ANDAMENTO → RESOLVIDA → FECHADA.
+     */
     public enum StatusOcorrencia {
-        ABERTA, EM_ANDAMENTO, RESOLVIDA, FECHADA
+        ABERTA, EM_ANDAMENTO, RESOLVIDA, FECHADA;
+
+        /** Único status a partir do qual se chega a este; vazio para ABERTA, que é o inicial. */
+        public Optional<StatusOcorrencia> anterior() {
+            return switch (this) {
+                case ABERTA -> Optional.empty();
+                case EM_ANDAMENTO -> Optional.of(ABERTA);
+                case RESOLVIDA -> Optional.of(EM_ANDAMENTO);
+                case FECHADA -> Optional.of(RESOLVIDA);
+            };
+        }
+
+        public boolean permiteTransicaoPara(StatusOcorrencia novo) {
+            return novo.anterior().filter(this::equals).isPresent();
+        }
     }
 
     public enum TipoOcorrencia {
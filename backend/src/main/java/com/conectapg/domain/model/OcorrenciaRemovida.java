@@ -0,0 +1,29 @@
+package com.conectapg.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma ocorrência removida, para que a sincronização incremental informe a remoção
+ * aos clientes. Gravado pelo gatilho de {@code ocorrencias} (migração V9), nunca pela aplicação.
+ */
+@Entity
+@Table(name = "ocorrencias_removidas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcorrenciaRemovida {
+
+    @Id
+    private Long id;
+
+    @Column(name = "versao_alteracao", nullable = false)
+    private Long versaoAlteracao;
+
+    @Column(name = "data_remocao", nullable = false)
+    private LocalDateTime dataRemocao;
+}
@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,12 +16,14 @@ import java.util.List;
 @Entity
 @Table(name = "usuarios")
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_id_seq")
+    @SequenceGenerator(name = "usuarios_id_seq", sequenceName = "usuarios_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -37,20 +41,40 @@ public class Usuario {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
+    @Builder.Default
     private TipoUsuario tipo = TipoUsuario.CIDADAO;
 
     @Column(nullable = false)
+    @Builder.Default
     private Boolean ativo = true;
 
     @Column(name = "data_criacao", nullable = false, updatable = false)
     private LocalDateTime dataCriacao;
 
-    @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    // Mantido por UPDATE atômico em OcorrenciaService; o Hibernate nunca escreve esta coluna
+    @ColumnDefault("0")
+    @Column(name = "total_ocorrencias", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer totalOcorrencias = 0;
+
+    // Apenas leitura: as ocorrências são removidas pelo ON DELETE CASCADE de fk_usuario,
+    // sem que o Hibernate precise carregá-las e apagá-las uma a uma
+    @OneToMany(mappedBy = "usuario")
+    @Builder.Default
     private List<Ocorrencia> ocorrencias = new ArrayList<>();
 
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
+        dataAtualizacao = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        dataAtualizacao = LocalDateTime.now();
     }
 
     public enum TipoUsuario {
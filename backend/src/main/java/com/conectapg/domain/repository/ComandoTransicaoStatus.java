@@ -0,0 +1,29 @@
+package com.conectapg.domain.repository;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL do compare-and-set de status de {@link OcorrenciaRepositoryCustom#transicionarStatus}.
+ *
+ * No PostgreSQL é um único {@code UPDATE ... FROM usuarios ... RETURNING}: altera as ocorrências
+ * que ainda estão no status esperado e devolve, na mesma ida ao banco, as linhas alteradas com os
+ * dados do autor. Recebe {@code :ids}, {@code :esperado}, {@code :novo} e {@code :agora} e devolve
+ * as colunas de {@link #COLUNAS}.
+ */
+@Component
+class ComandoTransicaoStatus {
+
+    static final String COLUNAS =
+            "o.id, o.titulo, o.descricao, o.localizacao, o.status, o.tipo, o.data_criacao, o.data_atualizacao, " +
+            "u.id AS usuario_id, u.nome AS usuario_nome, u.email AS usuario_email";
+
+    private static final String TRANSICAO =
+            "UPDATE ocorrencias o SET status = :novo, data_atualizacao = :agora " +
+            "FROM usuarios u " +
+            "WHERE u.id = o.usuario_id AND o.id IN (:ids) AND o.status = :esperado " +
+            "RETURNING " + COLUNAS;
+
+    String sql() {
+        return TRANSICAO;
+    }
+}
@@ -0,0 +1,49 @@
+package com.conectapg.domain.repository;
+
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Critérios da listagem de ocorrências; campos {@code null} não filtram.
+ * Convertido em consulta por {@link OcorrenciaSpecifications}.
+ */
+@Value
+@Builder
+public class FiltroOcorrencias {
+
+    StatusOcorrencia status;
+    TipoOcorrencia tipo;
+    Long usuarioId;
+
+    /** Primeiro dia incluído, pela data de criação. */
+    LocalDate dataInicio;
+
+    /** Último dia incluído, pela data de criação. */
+    LocalDate dataFim;
+
+    /** Trecho da localização, sem diferenciar maiúsculas de minúsculas. */
+    String localizacao;
+
+    public boolean isVazio() {
+        return status == null && tipo == null && usuarioId == null
+                && dataInicio == null && dataFim == null && !temLocalizacao();
+    }
+
+    public boolean temLocalizacao() {
+        return localizacao != null && !localizacao.isBlank();
+    }
+
+    public LocalDateTime getInicio() {
+        return dataInicio != null ? dataInicio.atStartOfDay() : null;
+    }
+
+    /** Limite exclusivo: o início do dia seguinte a {@code dataFim}. */
+    public LocalDateTime getFim() {
+        return dataFim != null ? dataFim.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -1,24 +1,267 @@
 package com.conectapg.domain.repository;
 
+import com.conectapg.api.dto.OcorrenciaResponse;
 import com.conectapg.domain.model.Ocorrencia;
 import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OcorrenciaRepository extends JpaRepository<Ocorrencia, Long> {
+public interface OcorrenciaRepository extends JpaRepository<Ocorrencia, Long>, OcorrenciaRepositoryCustom {
 
-    List<Ocorrencia> findByStatus(StatusOcorrencia status);
+    /**
+     * Início das consultas de leitura: o resultado é montado direto em {@link OcorrenciaResponse}
+     * por constructor expression, com o resumo do autor do mesmo JOIN. Nenhuma entidade é
+     * carregada, então não há snapshot para dirty checking nem entradas no contexto de
+     * persistência, e o mapper não precisa copiar campo a campo.
+     */
+    String SELECT_RESPONSE = "SELECT new com.conectapg.api.dto.OcorrenciaResponse(" +
+            "o.id, o.titulo, o.descricao, o.localizacao, o.status, o.tipo, " +
+            "u.id, u.nome, u.email, o.dataCriacao, o.dataAtualizacao) " +
+            "FROM Ocorrencia o JOIN o.usuario u ";
 
-    List<Ocorrencia> findByUsuarioId(Long usuarioId);
+    @Query(SELECT_RESPONSE + "WHERE o.id = :id")
+    Optional<OcorrenciaResponse> findResponseById(@Param("id") Long id);
 
-    @Query("SELECT o FROM Ocorrencia o WHERE o.localizacao LIKE %:localizacao%")
-    List<Ocorrencia> findByLocalizacaoContaining(@Param("localizacao") String localizacao);
+    /**
+     * Ocorrência com o autor já carregado, para as alterações que devolvem ou invalidam os
+     * dados do usuário. Com open-in-view desligado, nada pode depender de inicialização lazy
+     * depois que o serviço retorna.
+     */
+    @Query("SELECT o FROM Ocorrencia o JOIN FETCH o.usuario WHERE o.id = :id")
+    Optional<Ocorrencia> findComUsuarioById(@Param("id") Long id);
 
-    @Query("SELECT o FROM Ocorrencia o ORDER BY o.dataCriacao DESC")
-    List<Ocorrencia> findAllOrderByDataCriacaoDesc();
+    @Query(SELECT_RESPONSE + "WHERE o.status = :status")
+    List<OcorrenciaResponse> findByStatus(@Param("status") StatusOcorrencia status);
+
+    @Query(SELECT_RESPONSE + "WHERE u.id = :usuarioId")
+    List<OcorrenciaResponse> findByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query(SELECT_RESPONSE + "WHERE o.localizacao LIKE %:localizacao%")
+    List<OcorrenciaResponse> findByLocalizacaoContaining(@Param("localizacao") String localizacao);
+
+    @Query(SELECT_RESPONSE + "WHERE o.id IN :ids")
+    List<OcorrenciaResponse> findComUsuarioByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca por similaridade servida pelo índice idx_ocorrencias_localizacao_trgm (PostgreSQL).
+     * Retorna apenas os ids, já ordenados por relevância, para que as ocorrências sejam
+     * lidas com o usuário em uma única consulta.
+     */
+    @Query(value = "SELECT o.id FROM ocorrencias o " +
+                   "WHERE normalizar_localizacao(o.localizacao) LIKE '%' || normalizar_localizacao(:termo) || '%' " +
+                   "OR normalizar_localizacao(:termo) <% normalizar_localizacao(o.localizacao) " +
+                   "ORDER BY word_similarity(normalizar_localizacao(:termo), normalizar_localizacao(o.localizacao)) DESC, " +
+                   "o.id DESC",
+           nativeQuery = true)
+    List<Long> findIdsByLocalizacaoSimilar(@Param("termo") String termo, Pageable pageable);
+
+    @Query(SELECT_RESPONSE +
+           "WHERE LOWER(o.localizacao) LIKE LOWER(CONCAT('%', :termo, '%')) " +
+           "ORDER BY o.dataCriacao DESC, o.id DESC")
+    List<OcorrenciaResponse> findByLocalizacaoIgnorandoCaixa(@Param("termo") String termo, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "ORDER BY o.dataCriacao DESC")
+    List<OcorrenciaResponse> findAllOrderByDataCriacaoDesc();
+
+    long countByUsuarioId(Long usuarioId);
+
+    /**
+     * Ids das ocorrências do usuário maiores que {@code aposId}, em ordem. Continuar do último id
+     * devolvido faz cada bloco do expurgo começar onde o anterior parou no índice
+     * idx_ocorrencias_usuario_id_id (V12), sem passar pelas entradas já removidas.
+     */
+    @Query("SELECT o.id FROM Ocorrencia o WHERE o.usuario.id = :usuarioId AND o.id > :aposId ORDER BY o.id")
+    List<Long> findIdsByUsuarioIdApos(@Param("usuarioId") Long usuarioId, @Param("aposId") long aposId,
+                                      Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM Ocorrencia o WHERE o.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.status FROM Ocorrencia o WHERE o.id = :id")
+    Optional<StatusOcorrencia> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT o.id AS id, o.status AS status FROM Ocorrencia o WHERE o.id IN :ids")
+    List<StatusPorId> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids das ocorrências em {@code status} que atendem ao filtro da alteração em lote.
+     * O limite impede que um filtro amplo demais selecione a tabela inteira.
+     */
+    @Query("SELECT o.id FROM Ocorrencia o " +
+           "WHERE o.status = :status " +
+           "AND (:tipo IS NULL OR o.tipo = :tipo) " +
+           "AND (:usuarioId IS NULL OR o.usuario.id = :usuarioId) " +
+           "AND (:localizacao IS NULL OR o.localizacao LIKE CONCAT('%', :localizacao, '%')) " +
+           "ORDER BY o.id")
+    List<Long> findIdsParaAlteracaoDeStatus(@Param("status") StatusOcorrencia status,
+                                            @Param("tipo") TipoOcorrencia tipo,
+                                            @Param("usuarioId") Long usuarioId,
+                                            @Param("localizacao") String localizacao,
+                                            Limit limite);
+
+    // Agregações usadas para reconciliar os contadores de EstatisticasOcorrencias.
+
+    @Query("SELECT o.status AS status, o.tipo AS tipo, COUNT(o) AS total " +
+           "FROM Ocorrencia o GROUP BY o.status, o.tipo")
+    List<ContagemPorStatusETipo> contarPorStatusETipo();
+
+    @Query("SELECT CAST(o.dataCriacao AS LocalDate) AS dia, COUNT(o) AS total " +
+           "FROM Ocorrencia o WHERE o.dataCriacao >= :inicio " +
+           "GROUP BY CAST(o.dataCriacao AS LocalDate)")
+    List<ContagemPorDia> contarPorDiaDesde(@Param("inicio") LocalDateTime inicio);
+
+    // Sincronização incremental (migração V9): versao_alteracao é o id da transação que gravou a linha.
+
+    /** Deve ser lido antes das alterações; ver horizonte_alteracoes() na migração V9. */
+    @Query(value = "SELECT horizonte_alteracoes()", nativeQuery = true)
+    long buscarHorizonteAlteracoes();
+
+    /**
+     * Página das alterações incrementais: posições depois de {@code (versao, aposId)} na ordem
+     * {@code (versao_alteracao, id)}, antes do {@code horizonte}. Como em
+     * {@link OcorrenciaSpecifications#apos}, o {@code >=} isolado delimita a varredura no índice
+     * idx_ocorrencias_versao_alteracao_id (V14) e o OR só desempata a mesma versão.
+     */
+    @Query("SELECT o.id AS id, o.versaoAlteracao AS versao FROM Ocorrencia o " +
+           "WHERE o.versaoAlteracao >= :versao AND o.versaoAlteracao < :horizonte " +
+           "AND (o.versaoAlteracao > :versao OR o.id > :aposId) " +
+           "ORDER BY o.versaoAlteracao, o.id")
+    List<VersaoPorId> findAlteradasApos(@Param("versao") long versao, @Param("aposId") long aposId,
+                                        @Param("horizonte") long horizonte, Limit limite);
+
+    /** Página da sincronização completa, percorrida pela chave primária. */
+    @Query(SELECT_RESPONSE + "WHERE o.id > :aposId ORDER BY o.id")
+    List<OcorrenciaResponse> findPaginaSincronizacao(@Param("aposId") long aposId, Limit limite);
+
+    /**
+     * Como {@link #findAlteradasApos}, para os registros de remoção. Linhas movidas entre
+     * partições deixam registro de remoção sem terem sido removidas.
+     */
+    @Query("SELECT r.id AS id, r.versaoAlteracao AS versao FROM OcorrenciaRemovida r " +
+           "WHERE r.versaoAlteracao >= :versao AND r.versaoAlteracao < :horizonte " +
+           "AND (r.versaoAlteracao > :versao OR r.id > :aposId) " +
+           "AND NOT EXISTS (SELECT 1 FROM Ocorrencia o WHERE o.id = r.id) " +
+           "ORDER BY r.versaoAlteracao, r.id")
+    List<VersaoPorId> findRemovidasApos(@Param("versao") long versao, @Param("aposId") long aposId,
+                                        @Param("horizonte") long horizonte, Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM OcorrenciaRemovida r WHERE r.dataRemocao < :limite")
+    int excluirRemocoesAnterioresA(@Param("limite") LocalDateTime limite);
+
+    @Query("SELECT MAX(r.versaoAlteracao) FROM OcorrenciaRemovida r WHERE r.dataRemocao < :limite")
+    Optional<Long> findMaiorVersaoRemovidaAntesDe(@Param("limite") LocalDateTime limite);
+
+    /** Versão até a qual os registros de remoção já foram expurgados (migração V11). */
+    @Query("SELECT c.versaoExpurgada FROM ControleSincronizacao c")
+    Optional<Long> buscarVersaoExpurgada();
+
+    // Só avança: expurgos simultâneos em instâncias diferentes não fazem o valor voltar
+    @Modifying
+    @Query("UPDATE ControleSincronizacao c SET c.versaoExpurgada = :versao WHERE c.versaoExpurgada < :versao")
+    int avancarVersaoExpurgada(@Param("versao") long versao);
+
+    // Versões para GET condicional: leem apenas datas e contagens, sem carregar entidades.
+
+    // A ocorrência pelo id e o autor pela chave primária; idx_ocorrencias_id_versao cobre a leitura
+    @Query("SELECT o.dataAtualizacao AS dataAtualizacao, u.id AS usuarioId, u.nome AS usuarioNome, " +
+           "u.email AS usuarioEmail " +
+           "FROM Ocorrencia o JOIN o.usuario u WHERE o.id = :id")
+    Optional<VersaoOcorrencia> findVersaoById(@Param("id") Long id);
+
+    /**
+     * Versão da listagem por status e/ou usuário ({@code null} não filtra). Cada combinação tem
+     * a sua consulta, só com os filtros informados no WHERE: com "(:status IS NULL OR ...)" o
+     * PostgreSQL ficaria com um plano genérico, sem os índices (status, data_atualizacao) e
+     * (usuario_id, data_atualizacao), que respondem contagem e máximo sem ler a tabela.
+     */
+    default VersaoListagem findVersaoListagem(StatusOcorrencia status, Long usuarioId) {
+        if (usuarioId == null) {
+            return status == null ? findVersaoListagemTodas() : findVersaoListagemPorStatus(status);
+        }
+        return status == null
+                ? findVersaoListagemPorUsuario(usuarioId)
+                : findVersaoListagemPorStatusEUsuario(status, usuarioId);
+    }
+
+    // Sem filtro de usuário, qualquer autor pode aparecer na listagem; o máximo de usuarios é
+    // uma leitura na ponta de idx_usuarios_data_atualizacao
+    @Query("SELECT COUNT(o) AS total, MAX(o.dataAtualizacao) AS ultimaAtualizacao, " +
+           "(SELECT MAX(u.dataAtualizacao) FROM Usuario u) AS ultimaAtualizacaoUsuario " +
+           "FROM Ocorrencia o")
+    VersaoListagem findVersaoListagemTodas();
+
+    @Query("SELECT COUNT(o) AS total, MAX(o.dataAtualizacao) AS ultimaAtualizacao, " +
+           "(SELECT MAX(u.dataAtualizacao) FROM Usuario u) AS ultimaAtualizacaoUsuario " +
+           "FROM Ocorrencia o WHERE o.status = :status")
+    VersaoListagem findVersaoListagemPorStatus(@Param("status") StatusOcorrencia status);
+
+    @Query("SELECT COUNT(o) AS total, MAX(o.dataAtualizacao) AS ultimaAtualizacao, " +
+           "(SELECT u.dataAtualizacao FROM Usuario u WHERE u.id = :usuarioId) AS ultimaAtualizacaoUsuario " +
+           "FROM Ocorrencia o WHERE o.usuario.id = :usuarioId")
+    VersaoListagem findVersaoListagemPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT COUNT(o) AS total, MAX(o.dataAtualizacao) AS ultimaAtualizacao, " +
+           "(SELECT u.dataAtualizacao FROM Usuario u WHERE u.id = :usuarioId) AS ultimaAtualizacaoUsuario " +
+           "FROM Ocorrencia o WHERE o.status = :status AND o.usuario.id = :usuarioId")
+    VersaoListagem findVersaoListagemPorStatusEUsuario(@Param("status") StatusOcorrencia status,
+                                                       @Param("usuarioId") Long usuarioId);
+
+    interface ContagemPorStatusETipo {
+        StatusOcorrencia getStatus();
+
+        TipoOcorrencia getTipo();
+
+        long getTotal();
+    }
+
+    interface ContagemPorDia {
+        LocalDate getDia();
+
+        long getTotal();
+    }
+
+    interface StatusPorId {
+        Long getId();
+
+        StatusOcorrencia getStatus();
+    }
+
+    interface VersaoPorId {
+        Long getId();
+
+        long getVersao();
+    }
+
+    interface VersaoOcorrencia {
+        LocalDateTime getDataAtualizacao();
+
+        Long getUsuarioId();
+
+        String getUsuarioNome();
+
+        String getUsuarioEmail();
+    }
+
+    interface VersaoListagem {
+        long getTotal();
+
+        LocalDateTime getUltimaAtualizacao();
+
+        LocalDateTime getUltimaAtualizacaoUsuario();
+    }
 }
@@ -0,0 +1,58 @@
+package com.conectapg.domain.repository;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OcorrenciaRepositoryCustom {
+
+    /**
+     * Compare-and-set do status em um único comando: altera apenas se a ocorrência ainda
+     * estiver em {@code esperado} e devolve o estado resultante, com nome e e-mail do autor,
+     * montado das linhas devolvidas pelo próprio UPDATE. Vazio se a ocorrência não existir ou
+     * estiver em outro status.
+     *
+     * Uma instância da ocorrência já carregada na transação é desanexada, para que a próxima
+     * leitura veja o novo status.
+     */
+    Optional<OcorrenciaResponse> transicionarStatus(Long id, StatusOcorrencia esperado, StatusOcorrencia novo);
+
+    /**
+     * Mesmo compare-and-set de {@link #transicionarStatus(Long, StatusOcorrencia, StatusOcorrencia)}
+     * aplicado a várias ocorrências em um único comando. Retorna apenas as que foram alteradas.
+     */
+    List<OcorrenciaResponse> transicionarStatus(Collection<Long> ids, StatusOcorrencia esperado,
+                                                StatusOcorrencia novo);
+
+    /**
+     * Listagem filtrada por {@code spec}, mais recentes primeiro, lida direto em
+     * {@link OcorrenciaResponse} como as consultas de {@link OcorrenciaRepository#SELECT_RESPONSE}.
+     */
+    List<OcorrenciaResponse> findResponses(Specification<Ocorrencia> spec);
+
+    /**
+     * Como {@link #findResponses(Specification)}, limitada a {@code limite} linhas. Usada pela
+     * paginação por cursor, com a posição do cursor em {@link OcorrenciaSpecifications#apos}.
+     */
+    List<OcorrenciaResponse> findResponses(Specification<Ocorrencia> spec, Limit limite);
+
+    /**
+     * Percorre as ocorrências filtradas por {@code spec}, com o autor, em ordem de data de criação
+     * e sem materializar o resultado: com o fetch size o driver do PostgreSQL abre um cursor e traz
+     * as linhas em blocos. Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    Stream<Ocorrencia> streamParaExportacao(Specification<Ocorrencia> spec);
+
+    /**
+     * Contagem e últimas atualizações (das ocorrências e dos seus autores) da listagem
+     * filtrada por {@code spec}, em uma consulta agregada, para a ETag da listagem.
+     */
+    OcorrenciaRepository.VersaoListagem buscarVersaoListagem(Specification<Ocorrencia> spec);
+}
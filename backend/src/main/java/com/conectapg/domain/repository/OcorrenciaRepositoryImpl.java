@@ -0,0 +1,190 @@
+package com.conectapg.domain.repository;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class OcorrenciaRepositoryImpl implements OcorrenciaRepositoryCustom {
+
+    private static final int LINHAS_POR_BLOCO_EXPORTACAO = 500;
+
+    private final ComandoTransicaoStatus comandoTransicao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    OcorrenciaRepositoryImpl(ComandoTransicaoStatus comandoTransicao) {
+        this.comandoTransicao = comandoTransicao;
+    }
+
+    @Override
+    public Optional<OcorrenciaResponse> transicionarStatus(Long id, StatusOcorrencia esperado, StatusOcorrencia novo) {
+        return transicionarStatus(List.of(id), esperado, novo).stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OcorrenciaResponse> transicionarStatus(Collection<Long> ids, StatusOcorrencia esperado,
+                                                       StatusOcorrencia novo) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(comandoTransicao.sql())
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("titulo", String.class)
+                .addScalar("descricao", String.class)
+                .addScalar("localizacao", String.class)
+                .addScalar("status", String.class)
+                .addScalar("tipo", String.class)
+                .addScalar("data_criacao", LocalDateTime.class)
+                .addScalar("data_atualizacao", LocalDateTime.class)
+                .addScalar("usuario_id", Long.class)
+                .addScalar("usuario_nome", String.class)
+                .addScalar("usuario_email", String.class)
+                .setParameter("novo", novo.name())
+                .setParameter("agora", LocalDateTime.now())
+                .setParameter("ids", ids)
+                .setParameter("esperado", esperado.name());
+
+        List<Object[]> linhas = query.getResultList();
+        List<OcorrenciaResponse> alteradas = linhas.stream().map(OcorrenciaRepositoryImpl::paraResponse).toList();
+        desanexarCarregadas(alteradas);
+        return alteradas;
+    }
+
+    /**
+     * Uma ocorrência alterada que já estava carregada nesta sessão ficaria com o status antigo.
+     * A busca é só no contexto de persistência (sem proxies nem consultas) e nem acontece
+     * quando a sessão está vazia, o caso comum.
+     */
+    private void desanexarCarregadas(List<OcorrenciaResponse> alteradas) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        org.hibernate.engine.spi.PersistenceContext contexto = sessao.getPersistenceContextInternal();
+        if (contexto.getNumberOfManagedEntities() == 0) {
+            return;
+        }
+        EntityPersister persister = sessao.getFactory().getMappingMetamodel().getEntityDescriptor(Ocorrencia.class);
+        for (OcorrenciaResponse alterada : alteradas) {
+            Object carregada = contexto.getEntity(sessao.generateEntityKey(alterada.getId(), persister));
+            if (carregada != null) {
+                entityManager.detach(carregada);
+            }
+        }
+    }
+
+    @Override
+    public List<OcorrenciaResponse> findResponses(Specification<Ocorrencia> spec) {
+        return findResponses(spec, Limit.unlimited());
+    }
+
+    @Override
+    public List<OcorrenciaResponse> findResponses(Specification<Ocorrencia> spec, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OcorrenciaResponse> query = cb.createQuery(OcorrenciaResponse.class);
+        Root<Ocorrencia> root = query.from(Ocorrencia.class);
+        Join<Ocorrencia, Usuario> usuario = root.join("usuario");
+        query.select(cb.construct(OcorrenciaResponse.class,
+                root.get("id"), root.get("titulo"), root.get("descricao"), root.get("localizacao"),
+                root.get("status"), root.get("tipo"),
+                usuario.get("id"), usuario.get("nome"), usuario.get("email"),
+                root.get("dataCriacao"), root.get("dataAtualizacao")));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        query.orderBy(cb.desc(root.get("dataCriacao")), cb.desc(root.get("id")));
+        TypedQuery<OcorrenciaResponse> consulta = entityManager.createQuery(query);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultList();
+    }
+
+    @Override
+    public Stream<Ocorrencia> streamParaExportacao(Specification<Ocorrencia> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ocorrencia> query = cb.createQuery(Ocorrencia.class);
+        Root<Ocorrencia> root = query.from(Ocorrencia.class);
+        root.fetch("usuario");
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        // A ordem das partições mensais: sem desempate por id, que forçaria ordenar o resultado
+        // inteiro em vez de ler os índices com data_criacao
+        query.orderBy(cb.asc(root.get("dataCriacao")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, LINHAS_POR_BLOCO_EXPORTACAO)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public OcorrenciaRepository.VersaoListagem buscarVersaoListagem(Specification<Ocorrencia> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ocorrencia> root = query.from(Ocorrencia.class);
+        Join<Ocorrencia, Usuario> usuario = root.join("usuario");
+        query.multiselect(
+                cb.count(root),
+                cb.greatest(root.<LocalDateTime>get("dataAtualizacao")),
+                cb.greatest(usuario.<LocalDateTime>get("dataAtualizacao")));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) {
+            query.where(filtro);
+        }
+
+        Tuple linha = entityManager.createQuery(query).getSingleResult();
+        long total = linha.get(0, Long.class);
+        LocalDateTime ultimaAtualizacao = linha.get(1, LocalDateTime.class);
+        LocalDateTime ultimaAtualizacaoUsuario = linha.get(2, LocalDateTime.class);
+        return new OcorrenciaRepository.VersaoListagem() {
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public LocalDateTime getUltimaAtualizacao() {
+                return ultimaAtualizacao;
+            }
+
+            @Override
+            public LocalDateTime getUltimaAtualizacaoUsuario() {
+                return ultimaAtualizacaoUsuario;
+            }
+        };
+    }
+
+    private static OcorrenciaResponse paraResponse(Object[] linha) {
+        return new OcorrenciaResponse(
+                (Long) linha[0], (String) linha[1], (String) linha[2], (String) linha[3],
+                StatusOcorrencia.valueOf((String) linha[4]), TipoOcorrencia.valueOf((String) linha[5]),
+                (Long) linha[8], (String) linha[9], (String) linha[10],
+                (LocalDateTime) linha[6], (LocalDateTime) linha[7]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.conectapg.domain.repository;
+
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Predicados da listagem filtrada de ocorrências. Só os critérios informados entram no
+ * WHERE, então o planejador vê apenas as colunas realmente filtradas e pode usar os índices
+ * compostos de status, tipo e usuário seguidos de data_criacao (migração V8).
+ */
+public final class OcorrenciaSpecifications {
+
+    private static final char ESCAPE_LIKE = '\\';
+
+    private OcorrenciaSpecifications() {
+    }
+
+    public static Specification<Ocorrencia> de(FiltroOcorrencias filtro) {
+        Specification<Ocorrencia> spec = Specification.where(null);
+        if (filtro.getStatus() != null) {
+            spec = spec.and(comStatus(filtro.getStatus()));
+        }
+        if (filtro.getTipo() != null) {
+            spec = spec.and(comTipo(filtro.getTipo()));
+        }
+        if (filtro.getUsuarioId() != null) {
+            spec = spec.and(doUsuario(filtro.getUsuarioId()));
+        }
+        if (filtro.getInicio() != null) {
+            spec = spec.and(criadasDesde(filtro.getInicio()));
+        }
+        if (filtro.getFim() != null) {
+            spec = spec.and(criadasAntesDe(filtro.getFim()));
+        }
+        if (filtro.temLocalizacao()) {
+            spec = spec.and(localizacaoContem(filtro.getLocalizacao()));
+        }
+        return spec;
+    }
+
+    public static Specification<Ocorrencia> comStatus(StatusOcorrencia status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Ocorrencia> comTipo(TipoOcorrencia tipo) {
+        return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+    }
+
+    // Compara a chave estrangeira, sem join com usuarios
+    public static Specification<Ocorrencia> doUsuario(Long usuarioId) {
+        return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), usuarioId);
+    }
+
+    public static Specification<Ocorrencia> criadasDesde(LocalDateTime inicio) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataCriacao"), inicio);
+    }
+
+    public static Specification<Ocorrencia> criadasAntesDe(LocalDateTime fim) {
+        return (root, query, cb) -> cb.lessThan(root.get("dataCriacao"), fim);
+    }
+
+    /**
+     * Posições depois de {@code (dataCriacao, id)} na ordem {@code (data_criacao DESC, id DESC)},
+     * para a paginação por cursor. O {@code dataCriacao <=} isolado delimita a varredura de
+     * intervalo no índice; o OR só desempata ocorrências criadas no mesmo instante.
+     */
+    public static Specification<Ocorrencia> apos(LocalDateTime dataCriacao, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dataCriacao"), dataCriacao),
+                cb.or(cb.lessThan(root.get("dataCriacao"), dataCriacao), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Localização contendo {@code termo}, sem diferenciar maiúsculas (GET /ocorrencias/localizacao
+     * diferencia). {@code %} e {@code _} digitados pelo usuário são escapados e valem como texto.
+     */
+    public static Specification<Ocorrencia> localizacaoContem(String termo) {
+        String trecho = termo.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        String padrao = "%" + trecho + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("localizacao")), padrao, ESCAPE_LIKE);
+    }
+}
@@ -1,10 +1,20 @@
 package com.conectapg.domain.repository;
 
 import com.conectapg.domain.model.Usuario;
+import com.conectapg.domain.model.Usuario.TipoUsuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -12,4 +22,34 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Todos os emails cadastrados, lidos com cursor para carregar o filtro de emails. Deve ser
+     * consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.email FROM Usuario u")
+    Stream<String> streamEmails();
+
+    // Slice em vez de Page: a listagem informa se há próxima página sem um COUNT da tabela
+    Slice<Usuario> findAllBy(Pageable pageable);
+
+    Slice<Usuario> findByTipo(TipoUsuario tipo, Pageable pageable);
+
+    Slice<Usuario> findByAtivoTrue(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Usuario u SET u.totalOcorrencias = u.totalOcorrencias + :quantidade WHERE u.id = :id")
+    int incrementarTotalOcorrencias(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    /**
+     * Remove o usuário com um único DELETE; as ocorrências saem junto pelo ON DELETE CASCADE
+     * da chave estrangeira, dentro do banco. Retorna 0 se o usuário não existir.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Usuario u WHERE u.id = :id")
+    int excluir(@Param("id") Long id);
 }
@@ -0,0 +1,50 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Regras comuns das consultas por lista de ids ({@code GET /ocorrencias?ids=} e
+ * {@code GET /usuarios?ids=}): uma única consulta {@code IN} e a resposta remontada na ordem
+ * do pedido, com os ids inexistentes à parte.
+ */
+final class BuscaPorIds {
+
+    private BuscaPorIds() {
+    }
+
+    /** Ids sem repetições, na ordem original. */
+    static List<Long> normalizar(Collection<Long> ids, int limite) {
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Lista de ids contém valor nulo");
+        }
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distintos.size() > limite) {
+            throw new IllegalArgumentException("Informe no máximo " + limite + " ids");
+        }
+        return distintos;
+    }
+
+    static <T> ResultadoPorIdsResponse<T> montar(List<Long> ids, Collection<T> encontrados, Function<T, Long> id) {
+        Map<Long, T> porId = encontrados.stream().collect(Collectors.toMap(id, Function.identity()));
+        List<T> itens = new ArrayList<>(porId.size());
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long pedido : ids) {
+            T item = porId.get(pedido);
+            if (item != null) {
+                itens.add(item);
+            } else {
+                naoEncontrados.add(pedido);
+            }
+        }
+        return new ResultadoPorIdsResponse<>(itens, naoEncontrados);
+    }
+}
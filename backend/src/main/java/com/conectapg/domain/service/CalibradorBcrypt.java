@@ -0,0 +1,52 @@
+package com.conectapg.domain.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Escolhe o fator de custo do BCrypt de acordo com o hardware em que a aplicação roda.
+ *
+ * Mede o tempo de um hash no custo mínimo configurado e sobe o custo enquanto a estimativa
+ * ficar dentro da latência alvo (cada incremento dobra o tempo de hash).
+ */
+@Slf4j
+final class CalibradorBcrypt {
+
+    /** Teto de segurança para que um alvo mal configurado não trave o cadastro. */
+    static final int CUSTO_MAXIMO = 16;
+
+    private static final int MEDICOES = 3;
+    private static final String AMOSTRA = "calibracao-bcrypt";
+
+    private CalibradorBcrypt() {
+    }
+
+    static int calibrar(int custoMinimo, Duration latenciaAlvo) {
+        // Aquece o JIT para que a primeira medição não distorça o resultado
+        new BCryptPasswordEncoder(4).encode(AMOSTRA);
+
+        long nanos = medir(custoMinimo);
+        int custo = custoMinimo;
+        while (custo < CUSTO_MAXIMO && nanos * 2 <= latenciaAlvo.toNanos()) {
+            custo++;
+            nanos *= 2;
+        }
+
+        log.info("Custo do BCrypt calibrado para {} (estimativa de {} ms por hash, alvo de {} ms)",
+                custo, Duration.ofNanos(nanos).toMillis(), latenciaAlvo.toMillis());
+        return custo;
+    }
+
+    private static long medir(int custo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(custo);
+        long menor = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICOES; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode(AMOSTRA);
+            menor = Math.min(menor, System.nanoTime() - inicio);
+        }
+        return menor;
+    }
+}
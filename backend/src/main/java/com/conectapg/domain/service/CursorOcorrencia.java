@@ -0,0 +1,44 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de uma ocorrência na ordenação {@code (data_criacao DESC, id DESC)}.
+ *
+ * O cursor é exposto aos clientes como um token opaco em Base64 URL-safe.
+ */
+@Value
+public class CursorOcorrencia {
+
+    private static final String SEPARADOR = "|";
+
+    LocalDateTime dataCriacao;
+    Long id;
+
+    public static CursorOcorrencia de(OcorrenciaResponse ocorrencia) {
+        return new CursorOcorrencia(ocorrencia.getDataCriacao(), ocorrencia.getId());
+    }
+
+    public String codificar() {
+        String valor = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorOcorrencia decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            return new CursorOcorrencia(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.EstatisticasResponse;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagens de ocorrências por status, tipo e dia de criação para o painel, respondidas da
+ * memória em vez de transferir a tabela inteira.
+ *
+ * Os contadores são {@link LongAdder}s atualizados pelos eventos de {@link OcorrenciaService}
+ * depois do commit, de modo que uma transação desfeita não altera as contagens. A origem de
+ * uma mudança de status vem no próprio evento.
+ *
+ * Alterações que não geram evento (remoção de usuários, troca de tipo pelo PUT, arquivamento
+ * de partições) e eventuais corridas com a reconciliação são corrigidas na reconciliação
+ * periódica com o banco ({@code conectapg.estatisticas.intervalo-reconciliacao}).
+ */
+@Slf4j
+@Component
+public class EstatisticasOcorrencias {
+
+    private final Map<StatusOcorrencia, LongAdder> porStatus = new EnumMap<>(StatusOcorrencia.class);
+    private final Map<TipoOcorrencia, LongAdder> porTipo = new EnumMap<>(TipoOcorrencia.class);
+    private final Map<LocalDate, LongAdder> porDia = new ConcurrentHashMap<>();
+    private final OcorrenciaRepository ocorrenciaRepository;
+    private final ConectaPgProperties.Estatisticas config;
+    private volatile LocalDateTime reconciliadoEm;
+
+    public EstatisticasOcorrencias(OcorrenciaRepository ocorrenciaRepository, ConectaPgProperties properties) {
+        this.ocorrenciaRepository = ocorrenciaRepository;
+        this.config = properties.getEstatisticas();
+        // Os mapas por enum são preenchidos aqui e nunca mais alterados, então podem ser lidos sem lock
+        for (StatusOcorrencia status : StatusOcorrencia.values()) {
+            porStatus.put(status, new LongAdder());
+        }
+        for (TipoOcorrencia tipo : TipoOcorrencia.values()) {
+            porTipo.put(tipo, new LongAdder());
+        }
+    }
+
+    public EstatisticasResponse consultar() {
+        Map<StatusOcorrencia, Long> status = new EnumMap<>(StatusOcorrencia.class);
+        porStatus.forEach((chave, contador) -> status.put(chave, contador.sum()));
+        Map<TipoOcorrencia, Long> tipos = new EnumMap<>(TipoOcorrencia.class);
+        porTipo.forEach((chave, contador) -> tipos.put(chave, contador.sum()));
+
+        Map<LocalDate, Long> dias = new TreeMap<>();
+        LocalDate hoje = LocalDate.now();
+        for (LocalDate dia = primeiroDia(hoje); !dia.isAfter(hoje); dia = dia.plusDays(1)) {
+            LongAdder contador = porDia.get(dia);
+            dias.put(dia, contador == null ? 0 : contador.sum());
+        }
+
+        return EstatisticasResponse.builder()
+                .total(status.values().stream().mapToLong(Long::longValue).sum())
+                .porStatus(status)
+                .porTipo(tipos)
+                .porDia(dias)
+                .reconciliadoEm(reconciliadoEm)
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void registrar(OcorrenciaEvento evento) {
+        for (OcorrenciaResponse ocorrencia : evento.getOcorrencias()) {
+            switch (evento.getTipo()) {
+                case CRIADA -> contar(ocorrencia, 1);
+                case REMOVIDA -> contar(ocorrencia, -1);
+                case STATUS_ALTERADO -> {
+                    porStatus.get(evento.getStatusAnterior()).decrement();
+                    porStatus.get(ocorrencia.getStatus()).increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Substitui os contadores pelas contagens do banco. Executada na inicialização e depois
+     * a cada {@code conectapg.estatisticas.intervalo-reconciliacao}.
+     */
+    @Scheduled(fixedDelayString = "#{@conectaPgProperties.estatisticas.intervaloReconciliacao.toMillis()}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        Map<StatusOcorrencia, Long> status = new EnumMap<>(StatusOcorrencia.class);
+        Map<TipoOcorrencia, Long> tipos = new EnumMap<>(TipoOcorrencia.class);
+        for (OcorrenciaRepository.ContagemPorStatusETipo contagem : ocorrenciaRepository.contarPorStatusETipo()) {
+            status.merge(contagem.getStatus(), contagem.getTotal(), Long::sum);
+            tipos.merge(contagem.getTipo(), contagem.getTotal(), Long::sum);
+        }
+        LocalDate inicio = primeiroDia(LocalDate.now());
+        Map<LocalDate, Long> dias = new TreeMap<>();
+        ocorrenciaRepository.contarPorDiaDesde(inicio.atStartOfDay())
+                .forEach(contagem -> dias.put(contagem.getDia(), contagem.getTotal()));
+
+        porStatus.forEach((chave, contador) -> redefinir(contador, status.getOrDefault(chave, 0L)));
+        porTipo.forEach((chave, contador) -> redefinir(contador, tipos.getOrDefault(chave, 0L)));
+        porDia.keySet().removeIf(dia -> dia.isBefore(inicio));
+        porDia.forEach((dia, contador) -> redefinir(contador, dias.getOrDefault(dia, 0L)));
+        dias.forEach((dia, total) -> porDia.computeIfAbsent(dia, d -> {
+            LongAdder contador = new LongAdder();
+            contador.add(total);
+            return contador;
+        }));
+
+        reconciliadoEm = LocalDateTime.now();
+        log.debug("Estatísticas de ocorrências reconciliadas: {}", status);
+    }
+
+    private void contar(OcorrenciaResponse ocorrencia, int delta) {
+        porStatus.get(ocorrencia.getStatus()).add(delta);
+        porTipo.get(ocorrencia.getTipo()).add(delta);
+        if (ocorrencia.getDataCriacao() != null) {
+            porDia.computeIfAbsent(ocorrencia.getDataCriacao().toLocalDate(), dia -> new LongAdder()).add(delta);
+        }
+    }
+
+    private LocalDate primeiroDia(LocalDate hoje) {
+        return hoje.minusDays(config.getDias() - 1L);
+    }
+
+    private static void redefinir(LongAdder contador, long valor) {
+        contador.reset();
+        contador.add(valor);
+    }
+}
@@ -0,0 +1,187 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.FiltroOcorrencias;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.OcorrenciaSpecifications;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Exporta ocorrências linha a linha direto na saída da resposta.
+ *
+ * As linhas vêm de um cursor do banco e o contexto de persistência é limpo a cada
+ * {@value #LINHAS_POR_LOTE} linhas, então o uso de memória não depende do tamanho da tabela.
+ *
+ * O cursor mantém uma conexão do pool durante todo o download, no ritmo do cliente. Por isso o
+ * número de exportações simultâneas é limitado ({@code conectapg.exportacao.maximo-simultaneas}):
+ * o controller reserva uma vaga com {@link #reservarVaga()} antes de abrir a resposta e, sem
+ * vaga, responde 503. Métrica: {@code exportacao.rejeitadas}.
+ */
+@Service
+public class ExportacaoService {
+
+    static final int LINHAS_POR_LOTE = 500;
+
+    static final String CABECALHO_CSV =
+            "id,titulo,descricao,localizacao,status,tipo,usuario_id,usuario_nome,data_criacao,data_atualizacao";
+
+    private final OcorrenciaRepository ocorrenciaRepository;
+    private final OcorrenciaMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final Semaphore vagas;
+    private final Counter rejeicoes;
+
+    public ExportacaoService(OcorrenciaRepository ocorrenciaRepository, OcorrenciaMapper mapper,
+                             ObjectMapper objectMapper, EntityManager entityManager,
+                             ConectaPgProperties properties, MeterRegistry meterRegistry) {
+        this.ocorrenciaRepository = ocorrenciaRepository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.vagas = new Semaphore(properties.getExportacao().getMaximoSimultaneas());
+        this.rejeicoes = Counter.builder("exportacao.rejeitadas")
+                .description("Exportações recusadas por já haver o máximo em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva uma vaga de exportação, a ser devolvida com {@link Vaga#close()} ao fim do envio.
+     *
+     * @throws ServicoSobrecarregadoException se todas as vagas estiverem em uso
+     */
+    public Vaga reservarVaga() {
+        if (!vagas.tryAcquire()) {
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Muitas exportações em andamento, tente novamente em instantes");
+        }
+        return new Vaga(vagas);
+    }
+
+    /**
+     * @param dataInicio primeiro dia incluído (pela data de criação), ou {@code null}
+     * @param dataFim    último dia incluído (pela data de criação), ou {@code null}
+     */
+    @Transactional(readOnly = true)
+    public void exportar(StatusOcorrencia status, TipoOcorrencia tipo, LocalDate dataInicio, LocalDate dataFim,
+                         FormatoExportacao formato, OutputStream saida) throws IOException {
+        validarPeriodo(dataInicio, dataFim);
+        FiltroOcorrencias filtro = FiltroOcorrencias.builder()
+                .status(status)
+                .tipo(tipo)
+                .dataInicio(dataInicio)
+                .dataFim(dataFim)
+                .build();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<Ocorrencia> ocorrencias = ocorrenciaRepository.streamParaExportacao(
+                OcorrenciaSpecifications.de(filtro))) {
+            Iterator<Ocorrencia> iterator = ocorrencias.iterator();
+            long linhas = 0;
+            while (iterator.hasNext()) {
+                Ocorrencia ocorrencia = iterator.next();
+                if (formato == FormatoExportacao.CSV) {
+                    escreverCsv(ocorrencia, writer);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(mapper.toResponse(ocorrencia)));
+                    writer.write('\n');
+                }
+                if (++linhas % LINHAS_POR_LOTE == 0) {
+                    // Entidades já escritas não são mais necessárias; o cliente recebe o bloco
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Chamado também pelo controller antes de abrir a resposta, já que depois que o
+     * streaming começa não é mais possível devolver um erro com status adequado.
+     */
+    public void validarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new IllegalArgumentException("dataInicio deve ser anterior ou igual a dataFim");
+        }
+    }
+
+    private void escreverCsv(Ocorrencia ocorrencia, Writer writer) throws IOException {
+        writer.write(String.valueOf(ocorrencia.getId()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getTitulo()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getDescricao()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getLocalizacao()));
+        writer.write(',');
+        writer.write(ocorrencia.getStatus().name());
+        writer.write(',');
+        writer.write(ocorrencia.getTipo().name());
+        writer.write(',');
+        writer.write(String.valueOf(ocorrencia.getUsuario().getId()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getUsuario().getNome()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getDataCriacao()));
+        writer.write(',');
+        writer.write(campoCsv(ocorrencia.getDataAtualizacao()));
+        writer.write('\n');
+    }
+
+    /** Escapa conforme a RFC 4180: aspas em volta quando há vírgula, aspas ou quebra de linha. */
+    static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    /** Vaga de exportação reservada; devolvê-la mais de uma vez não tem efeito. */
+    public static final class Vaga implements AutoCloseable {
+
+        private final Semaphore vagas;
+        private final AtomicBoolean devolvida = new AtomicBoolean();
+
+        private Vaga(Semaphore vagas) {
+            this.vagas = vagas;
+        }
+
+        @Override
+        public void close() {
+            if (devolvida.compareAndSet(false, true)) {
+                vagas.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.ExpurgoResponse;
+import com.conectapg.api.dto.ExpurgoResponse.SituacaoExpurgo;
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remove em segundo plano usuários com históricos grandes demais para {@link UsuarioService#deletar}.
+ *
+ * As ocorrências são apagadas em blocos de {@code conectapg.expurgo.tamanho-bloco}, cada um em
+ * uma transação curta, de modo que nenhum bloqueio dura mais que um bloco. Cada bloco continua
+ * do último id removido pelo índice (usuario_id, id) da migração V12, sem percorrer de novo as
+ * entradas já apagadas. O usuário só é removido depois da última ocorrência.
+ *
+ * O progresso fica em memória nesta instância e se perde em um reinício. Como cada bloco é
+ * confirmado ao terminar e o usuário só sai no fim, o expurgo interrompido é retomado
+ * repetindo {@code POST /usuarios/{id}/expurgo}, que conta e remove apenas as ocorrências
+ * restantes. Ao encerrar, a instância registra no log os usuários com expurgo pendente.
+ * Acima de {@code conectapg.expurgo.fila-maxima} expurgos aguardando, novos pedidos recebem 503.
+ */
+@Slf4j
+@Service
+public class ExpurgoUsuarioService {
+
+    private final Map<Long, Expurgo> expurgos = new ConcurrentHashMap<>();
+    private final UsuarioRepository usuarioRepository;
+    private final OcorrenciaRepository ocorrenciaRepository;
+    private final TransactionTemplate transacao;
+    private final CacheManager cacheManager;
+    private final FiltroEmails filtroEmails;
+    private final ConectaPgProperties.Expurgo config;
+    private final ExecutorService executor;
+
+    public ExpurgoUsuarioService(UsuarioRepository usuarioRepository, OcorrenciaRepository ocorrenciaRepository,
+                                 TransactionTemplate transacao, CacheManager cacheManager,
+                                 FiltroEmails filtroEmails, ConectaPgProperties properties) {
+        this.usuarioRepository = usuarioRepository;
+        this.ocorrenciaRepository = ocorrenciaRepository;
+        this.transacao = transacao;
+        this.cacheManager = cacheManager;
+        this.filtroEmails = filtroEmails;
+        this.config = properties.getExpurgo();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(config.getFilaMaxima()), new CustomizableThreadFactory("expurgo-"));
+    }
+
+    /**
+     * Agenda o expurgo do usuário e retorna imediatamente. Se já houver um em andamento para
+     * o mesmo usuário, retorna o progresso dele em vez de iniciar outro.
+     *
+     * @throws ServicoSobrecarregadoException se a fila de expurgos estiver cheia
+     */
+    public ExpurgoResponse iniciar(Long usuarioId) {
+        removerEncerrados();
+
+        Expurgo emAndamento = expurgos.get(usuarioId);
+        if (emAndamento != null && emAndamento.situacao == SituacaoExpurgo.EM_ANDAMENTO) {
+            return emAndamento.paraResponse();
+        }
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new RuntimeException("Usuário não encontrado com id: " + usuarioId);
+        }
+
+        Expurgo novo = new Expurgo(usuarioId, ocorrenciaRepository.countByUsuarioId(usuarioId));
+        Expurgo vigente = expurgos.compute(usuarioId, (id, atual) ->
+                atual != null && atual.situacao == SituacaoExpurgo.EM_ANDAMENTO ? atual : novo);
+        if (vigente == novo) {
+            try {
+                executor.execute(() -> executar(novo));
+            } catch (RejectedExecutionException e) {
+                expurgos.remove(usuarioId, novo);
+                throw new ServicoSobrecarregadoException("Muitos expurgos na fila, tente novamente mais tarde");
+            }
+        }
+        return vigente.paraResponse();
+    }
+
+    public ExpurgoResponse consultar(Long usuarioId) {
+        return Optional.ofNullable(expurgos.get(usuarioId))
+                .map(Expurgo::paraResponse)
+                .orElseThrow(() -> new RuntimeException("Nenhum expurgo encontrado para o usuário: " + usuarioId));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        List<Long> pendentes = expurgos.values().stream()
+                .filter(expurgo -> expurgo.situacao == SituacaoExpurgo.EM_ANDAMENTO)
+                .map(expurgo -> expurgo.usuarioId)
+                .toList();
+        if (!pendentes.isEmpty()) {
+            log.warn("Expurgos interrompidos pelo encerramento, a reiniciar com POST /usuarios/{id}/expurgo: {}",
+                    pendentes);
+        }
+    }
+
+    private void executar(Expurgo expurgo) {
+        try {
+            int bloco = config.getTamanhoBloco();
+            long aposId = 0;
+            List<Long> removidas;
+            do {
+                long inicio = aposId;
+                removidas = transacao.execute(status -> removerBloco(expurgo.usuarioId, inicio, bloco));
+                expurgo.removidas.addAndGet(removidas.size());
+                if (removidas.size() == bloco) {
+                    aposId = removidas.get(removidas.size() - 1);
+                    Thread.sleep(config.getIntervaloEntreBlocos().toMillis());
+                }
+            } while (removidas.size() == bloco);
+
+            // Ocorrências criadas durante o expurgo saem junto com o usuário, pelo ON DELETE CASCADE
+            transacao.executeWithoutResult(status -> usuarioRepository.excluir(expurgo.usuarioId));
+            filtroEmails.registrarRemocao();
+            invalidarCaches(expurgo.usuarioId);
+            expurgo.encerrar(SituacaoExpurgo.CONCLUIDO, null);
+            log.info("Expurgo do usuário {} concluído: {} ocorrências removidas",
+                    expurgo.usuarioId, expurgo.removidas.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            expurgo.encerrar(SituacaoExpurgo.FALHOU, "Expurgo interrompido");
+        } catch (RuntimeException e) {
+            log.error("Falha no expurgo do usuário {}", expurgo.usuarioId, e);
+            expurgo.encerrar(SituacaoExpurgo.FALHOU, e.getMessage());
+        }
+    }
+
+    private List<Long> removerBloco(Long usuarioId, long aposId, int bloco) {
+        List<Long> ids = ocorrenciaRepository.findIdsByUsuarioIdApos(usuarioId, aposId, Limit.of(bloco));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        ocorrenciaRepository.excluirPorIds(ids);
+        usuarioRepository.incrementarTotalOcorrencias(usuarioId, -ids.size());
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.OCORRENCIAS))
+                .ifPresent(cache -> ids.forEach(cache::evict));
+        return ids;
+    }
+
+    private void invalidarCaches(Long usuarioId) {
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.USUARIOS))
+                .ifPresent(cache -> cache.evict(usuarioId));
+        // O email do usuário removido não é conhecido aqui
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.USUARIOS_POR_EMAIL))
+                .ifPresent(Cache::clear);
+    }
+
+    private void removerEncerrados() {
+        LocalDateTime limite = LocalDateTime.now().minus(config.getRetencao());
+        expurgos.values().removeIf(expurgo -> expurgo.concluidoEm != null && expurgo.concluidoEm.isBefore(limite));
+    }
+
+    private static final class Expurgo {
+
+        final Long usuarioId;
+        final long totalOcorrencias;
+        final LocalDateTime iniciadoEm = LocalDateTime.now();
+        final AtomicLong removidas = new AtomicLong();
+        volatile SituacaoExpurgo situacao = SituacaoExpurgo.EM_ANDAMENTO;
+        volatile LocalDateTime concluidoEm;
+        volatile String erro;
+
+        Expurgo(Long usuarioId, long totalOcorrencias) {
+            this.usuarioId = usuarioId;
+            this.totalOcorrencias = totalOcorrencias;
+        }
+
+        void encerrar(SituacaoExpurgo situacao, String erro) {
+            this.erro = erro;
+            this.concluidoEm = LocalDateTime.now();
+            this.situacao = situacao;
+        }
+
+        ExpurgoResponse paraResponse() {
+            return ExpurgoResponse.builder()
+                    .usuarioId(usuarioId)
+                    .situacao(situacao)
+                    .totalOcorrencias(totalOcorrencias)
+                    .ocorrenciasRemovidas(removidas.get())
+                    .iniciadoEm(iniciadoEm)
+                    .concluidoEm(concluidoEm)
+                    .erro(erro)
+                    .build();
+        }
+    }
+}
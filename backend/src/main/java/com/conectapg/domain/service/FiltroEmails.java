@@ -0,0 +1,240 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom com os emails cadastrados, consultado antes do {@code existsByEmail} no
+ * cadastro de usuários.
+ *
+ * O filtro é local à instância: enxerga os emails da tabela na última reconstrução e os
+ * gravados por esta instância, mas não os cadastrados nas demais desde então. No cadastro a
+ * restrição de unicidade da coluna confirma a resposta ({@link #podeExistir}). Na consulta de
+ * disponibilidade o filtro só responde enquanto tiver menos de {@code idade-maxima}
+ * ({@link #podeExistirDesde}): um email cadastrado em outra instância pode aparecer como
+ * disponível por no máximo esse tempo. Uma resposta positiva pode ser falsa (na taxa
+ * configurada) e é confirmada no banco.
+ *
+ * O filtro é carregado da tabela na inicialização; até lá, toda consulta vai ao banco.
+ * Emails removidos ou substituídos não podem ser retirados de um filtro de Bloom e continuam
+ * como falsos positivos até a próxima reconstrução, feita periodicamente quando houve remoções,
+ * quando as inclusões passaram da capacidade para a qual o filtro foi dimensionado ou quando
+ * ele ficou mais velho que {@code idade-maxima}, para incluir os cadastros das outras instâncias.
+ */
+@Slf4j
+@Component
+public class FiltroEmails {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transacao;
+    private final ConectaPgProperties.FiltroEmails config;
+    private final AtomicLong removidos = new AtomicLong();
+    private final Counter descartados;
+    private final Counter consultados;
+
+    private volatile FiltroBloom atual;
+    private volatile FiltroBloom emConstrucao;
+
+    public FiltroEmails(UsuarioRepository usuarioRepository, TransactionTemplate transacao,
+                        ConectaPgProperties properties, MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.transacao = transacao;
+        this.config = properties.getFiltroEmails();
+        this.descartados = Counter.builder("conectapg.usuarios.filtro_email")
+                .tag("resultado", "ausente")
+                .description("Verificações de email respondidas pelo filtro, sem consulta ao banco")
+                .register(meterRegistry);
+        this.consultados = Counter.builder("conectapg.usuarios.filtro_email")
+                .tag("resultado", "talvez")
+                .description("Verificações de email confirmadas no banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} somente quando o email certamente não está cadastrado
+     */
+    public boolean podeExistir(String email) {
+        FiltroBloom filtro = atual;
+        if (filtro == null || !config.isHabilitado()) {
+            return true;
+        }
+        boolean talvez = filtro.contem(email);
+        (talvez ? consultados : descartados).increment();
+        return talvez;
+    }
+
+    /**
+     * Como {@link #podeExistir}, mas só usa um filtro construído há menos de {@code idade-maxima}.
+     * Uma resposta {@code false} vale para a tabela no início da última reconstrução e para o
+     * que esta instância gravou desde então; cadastros de outras instâncias nesse intervalo
+     * não são vistos.
+     */
+    public boolean podeExistirDesde(String email) {
+        FiltroBloom filtro = atual;
+        if (filtro == null || !recente(filtro)) {
+            return true;
+        }
+        return podeExistir(email);
+    }
+
+    /** Deve ser chamado para todo email gravado, antes ou depois do commit. */
+    public void registrar(String email) {
+        FiltroBloom filtro = atual;
+        if (filtro != null) {
+            filtro.adicionar(email);
+        }
+        // Uma reconstrução em andamento pode ter lido a tabela antes desta gravação
+        FiltroBloom novo = emConstrucao;
+        if (novo != null) {
+            novo.adicionar(email);
+        }
+    }
+
+    /** Registra que um email deixou de existir; será descartado na próxima reconstrução. */
+    public void registrarRemocao() {
+        removidos.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (config.isHabilitado()) {
+            reconstruir();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@conectaPgProperties.filtroEmails.intervaloReconstrucao.toMillis()}",
+               initialDelayString = "#{@conectaPgProperties.filtroEmails.intervaloReconstrucao.toMillis()}")
+    public void reconstruirSeNecessario() {
+        FiltroBloom filtro = atual;
+        if (config.isHabilitado() && (filtro == null || removidos.get() > 0 || filtro.saturado()
+                || !recente(filtro))) {
+            reconstruir();
+        }
+    }
+
+    private boolean recente(FiltroBloom filtro) {
+        return filtro.construidoEm.plus(config.getIdadeMaxima()).isAfter(Instant.now());
+    }
+
+    public synchronized void reconstruir() {
+        long removidosAntes = removidos.get();
+        Instant inicio = Instant.now();
+        long total = usuarioRepository.count();
+        FiltroBloom novo = new FiltroBloom(Math.max(config.getCapacidadeInicial(), total * 2),
+                config.getTaxaFalsosPositivos());
+        // Publicado antes da leitura, para receber as gravações concorrentes
+        emConstrucao = novo;
+        try {
+            transacao.executeWithoutResult(status -> {
+                try (Stream<String> emails = usuarioRepository.streamEmails()) {
+                    emails.forEach(novo::adicionar);
+                }
+            });
+            novo.construidoEm = inicio;
+            atual = novo;
+            removidos.addAndGet(-removidosAntes);
+            log.info("Filtro de emails carregado: {} usuários, {} bits, {} funções de hash",
+                    total, novo.totalBits(), novo.funcoes);
+        } catch (RuntimeException e) {
+            // O filtro anterior continua válido (no pior caso, com mais falsos positivos)
+            log.error("Falha ao carregar o filtro de emails", e);
+        } finally {
+            emConstrucao = null;
+        }
+    }
+
+    /**
+     * Vetor de bits compartilhado entre threads, sem locks: cada inclusão liga bits com CAS e
+     * bits nunca são desligados, então uma leitura concorrente no pior caso ainda não enxerga
+     * o email que está sendo incluído.
+     */
+    static final class FiltroBloom {
+
+        private final AtomicLongArray bits;
+        private final long totalBits;
+        private final int funcoes;
+        private final long capacidade;
+        private final AtomicLong incluidos = new AtomicLong();
+
+        /** Início da leitura da tabela; definido antes da publicação em {@code atual}. */
+        private Instant construidoEm = Instant.EPOCH;
+
+        FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+            // Dimensionamento ótimo: m = -n ln p / (ln 2)^2 e k = (m / n) ln 2
+            long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.totalBits = bits.length() * 64L;
+            this.funcoes = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+            this.capacidade = capacidade;
+        }
+
+        void adicionar(String valor) {
+            long[] hash = hash(valor);
+            for (int i = 0; i < funcoes; i++) {
+                long posicao = Math.floorMod(hash[0] + i * hash[1], totalBits);
+                int indice = (int) (posicao >>> 6);
+                long mascara = 1L << posicao;
+                long palavra;
+                do {
+                    palavra = bits.get(indice);
+                } while ((palavra & mascara) == 0 && !bits.compareAndSet(indice, palavra, palavra | mascara));
+            }
+            incluidos.incrementAndGet();
+        }
+
+        boolean contem(String valor) {
+            long[] hash = hash(valor);
+            for (int i = 0; i < funcoes; i++) {
+                long posicao = Math.floorMod(hash[0] + i * hash[1], totalBits);
+                if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean saturado() {
+            return incluidos.get() > capacidade;
+        }
+
+        long totalBits() {
+            return totalBits;
+        }
+
+        // FNV-1a de 64 bits seguido do finalizador do MurmurHash3; as posições vêm de
+        // h1 + i * h2 (double hashing), com h2 ímpar para nunca ser múltiplo do tamanho do vetor
+        private static long[] hash(String valor) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            long h1 = misturar(h);
+            long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+            return new long[]{h1, h2};
+        }
+
+        private static long misturar(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mantém as partições mensais de {@code ocorrencias}: cria as dos próximos meses e arquiva as
+ * antigas que só contêm ocorrências FECHADAS. Um advisory lock garante que apenas uma instância
+ * execute a manutenção por vez.
+ *
+ * A criação é a função {@code criar_particoes_ocorrencias} (migrações V7 e V13). O arquivamento
+ * (V13) desanexa cada partição com {@code DETACH PARTITION ... CONCURRENTLY}, que não bloqueia
+ * leituras nem escritas em {@code ocorrencias} mas não pode rodar em transação: os comandos são
+ * executados aqui, em autocommit, todos na mesma conexão, que segura o advisory lock do início
+ * ao fim. Um DETACH interrompido é finalizado na execução seguinte.
+ *
+ * Para a API, as ocorrências arquivadas passam a ser removidas: depois do DETACH,
+ * {@code concluir_arquivamento_ocorrencias} grava os registros de remoção da sincronização e
+ * desconta os totais dos usuários, e aqui são descartados os caches de ocorrências e usuários
+ * desta instância.
+ *
+ * Também roda na inicialização, para recuperar meses perdidos enquanto a aplicação esteve parada.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "conectapg.particionamento.habilitado", havingValue = "true")
+public class ManutencaoParticoes {
+
+    // Mesma chave do advisory lock de criar_particoes_ocorrencias(), mas no nível da sessão
+    private static final String BLOQUEAR = "SELECT pg_try_advisory_lock(hashtext('particoes_ocorrencias'))";
+    private static final String DESBLOQUEAR = "SELECT pg_advisory_unlock(hashtext('particoes_ocorrencias'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ConectaPgProperties.Particionamento config;
+
+    public ManutencaoParticoes(JdbcTemplate jdbcTemplate, CacheManager cacheManager, ConectaPgProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.config = properties.getParticionamento();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${conectapg.particionamento.agendamento:0 30 3 * * *}")
+    public void executar() {
+        // Uma falha na criação não deve impedir o arquivamento, e vice-versa
+        try {
+            criarParticoes();
+        } catch (RuntimeException e) {
+            log.error("Falha ao criar partições de ocorrências", e);
+        }
+        try {
+            arquivarParticoes();
+        } catch (RuntimeException e) {
+            log.error("Falha ao arquivar partições de ocorrências", e);
+        }
+    }
+
+    public int criarParticoes() {
+        Integer criadas = jdbcTemplate.queryForObject(
+                "SELECT criar_particoes_ocorrencias(?)", Integer.class, config.getMesesAFrente());
+        log.info("Partições de ocorrências criadas: {}", criadas);
+        return criadas == null ? 0 : criadas;
+    }
+
+    public int arquivarParticoes() {
+        Integer arquivadas = jdbcTemplate.execute((ConnectionCallback<Integer>) conexao -> {
+            if (!conexao.getAutoCommit()) {
+                throw new IllegalStateException("O arquivamento de partições não pode rodar dentro de uma transação");
+            }
+            return arquivarParticoes(new JdbcTemplate(new SingleConnectionDataSource(conexao, true)));
+        });
+        log.info("Partições de ocorrências arquivadas: {}", arquivadas);
+        if (arquivadas == null || arquivadas == 0) {
+            return 0;
+        }
+        // Os ids arquivados não são conhecidos aqui
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.OCORRENCIAS)).ifPresent(Cache::clear);
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.USUARIOS)).ifPresent(Cache::clear);
+        return arquivadas;
+    }
+
+    /** Executado em uma única conexão, em autocommit. */
+    private int arquivarParticoes(JdbcTemplate conexao) {
+        if (!Boolean.TRUE.equals(conexao.queryForObject(BLOQUEAR, Boolean.class))) {
+            return 0;
+        }
+        try {
+            List<Map<String, Object>> particoes = conexao.queryForList(
+                    "SELECT nome, desanexacao_pendente FROM particoes_para_arquivar(make_interval(months => ?))",
+                    config.getRetencaoMeses());
+            int arquivadas = 0;
+            for (Map<String, Object> particao : particoes) {
+                String nome = (String) particao.get("nome");
+                boolean pendente = Boolean.TRUE.equals(particao.get("desanexacao_pendente"));
+                // O nome vem de pg_class e segue ocorrencias_AAAAMM
+                conexao.execute("ALTER TABLE ocorrencias DETACH PARTITION public.\"" + nome + "\" "
+                        + (pendente ? "FINALIZE" : "CONCURRENTLY"));
+                if (Boolean.TRUE.equals(conexao.queryForObject(
+                        "SELECT concluir_arquivamento_ocorrencias(?)", Boolean.class, nome))) {
+                    arquivadas++;
+                }
+            }
+            return arquivadas;
+        } finally {
+            conexao.queryForObject(DESBLOQUEAR, Boolean.class);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Alteração em ocorrências publicada por {@link OcorrenciaService} e entregue aos
+ * assinantes do feed apenas após o commit da transação.
+ *
+ * Um lote gera um único evento com todas as ocorrências criadas. Nas mudanças de status o
+ * evento leva também o status de origem, comum a todas as ocorrências (cada transição
+ * parte de um único status), para quem acompanha um status saber que ela saiu dele.
+ */
+@Value
+@AllArgsConstructor
+public class OcorrenciaEvento {
+
+    TipoEvento tipo;
+    List<OcorrenciaResponse> ocorrencias;
+    /** Status anterior das ocorrências; {@code null} fora de {@link TipoEvento#STATUS_ALTERADO}. */
+    StatusOcorrencia statusAnterior;
+
+    public OcorrenciaEvento(TipoEvento tipo, List<OcorrenciaResponse> ocorrencias) {
+        this(tipo, ocorrencias, null);
+    }
+
+    public static OcorrenciaEvento de(TipoEvento tipo, OcorrenciaResponse ocorrencia) {
+        return new OcorrenciaEvento(tipo, List.of(ocorrencia));
+    }
+
+    public static OcorrenciaEvento statusAlterado(StatusOcorrencia statusAnterior, List<OcorrenciaResponse> ocorrencias) {
+        return new OcorrenciaEvento(TipoEvento.STATUS_ALTERADO, ocorrencias, statusAnterior);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum TipoEvento {
+        CRIADA("ocorrencia-criada"),
+        STATUS_ALTERADO("ocorrencia-status-alterado"),
+        REMOVIDA("ocorrencia-removida");
+
+        /** Valor do campo {@code event:} no SSE. */
+        private final String nome;
+    }
+}
@@ -1,64 +1,221 @@
 package com.conectapg.domain.service;
 
+import com.conectapg.api.dto.AlteracaoStatusLoteRequest;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse.ResultadoAlteracao;
+import com.conectapg.api.dto.LoteOcorrenciaResponse;
+import com.conectapg.api.dto.LoteOcorrenciaResponse.ResultadoItem;
+import com.conectapg.api.dto.LoteOcorrenciaResponse.StatusItem;
 import com.conectapg.api.dto.OcorrenciaRequest;
 import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.PaginaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
 import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
 import com.conectapg.domain.model.Ocorrencia;
 import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
 import com.conectapg.domain.model.Usuario;
+import com.conectapg.domain.repository.FiltroOcorrencias;
 import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.OcorrenciaSpecifications;
 import com.conectapg.domain.repository.UsuarioRepository;
+import com.conectapg.domain.service.OcorrenciaEvento.TipoEvento;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Cada método público é medido pelo timer {@code conectapg.servico} (tags {@code class} e
+ * {@code method}), o que separa o tempo gasto no serviço do restante da requisição HTTP.
+ */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "conectapg.servico", description = "Tempo de execução dos métodos de OcorrenciaService")
 public class OcorrenciaService {
 
     private final OcorrenciaRepository ocorrenciaRepository;
     private final UsuarioRepository usuarioRepository;
     private final OcorrenciaMapper mapper;
+    private final ConectaPgProperties properties;
+    private final CacheManager cacheManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventos;
 
     @Transactional(readOnly = true)
     public List<OcorrenciaResponse> listarTodas() {
-        return ocorrenciaRepository.findAllOrderByDataCriacaoDesc()
-                .stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+        return ocorrenciaRepository.findAllOrderByDataCriacaoDesc();
+    }
+
+    /**
+     * Listagem com os filtros de {@code GET /ocorrencias} aplicados no banco; sem filtros,
+     * equivale a {@link #listarTodas()}.
+     */
+    @Transactional(readOnly = true)
+    public List<OcorrenciaResponse> listar(FiltroOcorrencias filtro) {
+        validarFiltro(filtro);
+        return ocorrenciaRepository.findResponses(OcorrenciaSpecifications.de(filtro));
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<OcorrenciaResponse> listarPaginado(StatusOcorrencia status, Long usuarioId,
+                                                             String cursor, Integer tamanho) {
+        int limite = properties.getPaginacao().limitar(tamanho);
+        // Busca um registro a mais para saber se existe próxima página
+        Limit limiteConsulta = Limit.of(limite + 1);
+
+        // Só os filtros informados entram no WHERE: com "(:status IS NULL OR ...)" o plano
+        // genérico do PostgreSQL não usaria os índices de status e de usuário
+        Specification<Ocorrencia> spec = OcorrenciaSpecifications.de(FiltroOcorrencias.builder()
+                .status(status)
+                .usuarioId(usuarioId)
+                .build());
+        if (cursor != null && !cursor.isBlank()) {
+            CursorOcorrencia posicao = CursorOcorrencia.decodificar(cursor);
+            // Páginas profundas custam o mesmo que a primeira: a posição vira range scan no índice
+            spec = spec.and(OcorrenciaSpecifications.apos(posicao.getDataCriacao(), posicao.getId()));
+        }
+        List<OcorrenciaResponse> ocorrencias = ocorrenciaRepository.findResponses(spec, limiteConsulta);
+
+        boolean temProxima = ocorrencias.size() > limite;
+        List<OcorrenciaResponse> pagina = temProxima ? ocorrencias.subList(0, limite) : ocorrencias;
+
+        return PaginaResponse.<OcorrenciaResponse>builder()
+                .itens(new ArrayList<>(pagina))
+                .next(temProxima ? CursorOcorrencia.de(pagina.get(limite - 1)).codificar() : null)
+                .build();
     }
 
+    @Cacheable(cacheNames = CacheConfig.OCORRENCIAS, key = "#id")
     @Transactional(readOnly = true)
     public OcorrenciaResponse buscarPorId(Long id) {
-        Ocorrencia ocorrencia = ocorrenciaRepository.findById(id)
+        return ocorrenciaRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
+    }
+
+    /**
+     * Versão atual da ocorrência, lida do banco pela chave primária sem carregar a entidade;
+     * vazio se ela não existir.
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersaoRecurso> buscarVersao(Long id) {
+        return ocorrenciaRepository.findVersaoById(id)
+                .map(v -> VersaoRecurso.daOcorrencia(id, v.getDataAtualizacao(), v.getUsuarioId(),
+                        v.getUsuarioNome(), v.getUsuarioEmail()));
+    }
+
+    /**
+     * Como {@link #buscarPorId(Long)}, mas só aceita a cópia em cache se ela estiver na
+     * {@code versao} lida do banco. O cache é local a cada instância e não vê as alterações
+     * feitas nas demais; nesse caso a ocorrência é relida e o cache, atualizado.
+     */
+    @Transactional(readOnly = true)
+    public OcorrenciaResponse buscarPorId(Long id, VersaoRecurso versao) {
+        Optional<Cache> cache = Optional.ofNullable(cacheManager.getCache(CacheConfig.OCORRENCIAS));
+        OcorrenciaResponse emCache = cache.map(c -> c.get(id, OcorrenciaResponse.class)).orElse(null);
+        if (emCache != null && VersaoRecurso.daOcorrencia(emCache).equals(versao)) {
+            return emCache;
+        }
+        OcorrenciaResponse atual = ocorrenciaRepository.findResponseById(id)
                 .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
-        return mapper.toResponse(ocorrencia);
+        cache.ifPresent(c -> c.put(id, atual));
+        return atual;
+    }
+
+    /**
+     * Várias ocorrências em uma consulta, na ordem dos ids pedidos; as inexistentes são
+     * informadas à parte em vez de interromper a busca.
+     */
+    @Transactional(readOnly = true)
+    public ResultadoPorIdsResponse<OcorrenciaResponse> buscarPorIds(List<Long> ids) {
+        List<Long> pedidos = BuscaPorIds.normalizar(ids, properties.getLote().getTamanhoMaximo());
+        List<OcorrenciaResponse> encontradas = pedidos.isEmpty()
+                ? List.of()
+                : ocorrenciaRepository.findComUsuarioByIdIn(pedidos);
+        return BuscaPorIds.montar(pedidos, encontradas, OcorrenciaResponse::getId);
+    }
+
+    /**
+     * Versão da listagem filtrada por status e/ou usuário ({@code null} para todas),
+     * derivada da contagem e da última atualização.
+     */
+    @Transactional(readOnly = true)
+    public VersaoRecurso buscarVersaoListagem(StatusOcorrencia status, Long usuarioId) {
+        OcorrenciaRepository.VersaoListagem versao = ocorrenciaRepository.findVersaoListagem(status, usuarioId);
+        return VersaoRecurso.daListagem(versao.getTotal(), versao.getUltimaAtualizacao(),
+                versao.getUltimaAtualizacaoUsuario());
+    }
+
+    /**
+     * Versão da listagem de {@link #listar(FiltroOcorrencias)}, com os mesmos filtros.
+     */
+    @Transactional(readOnly = true)
+    public VersaoRecurso buscarVersaoListagem(FiltroOcorrencias filtro) {
+        validarFiltro(filtro);
+        OcorrenciaRepository.VersaoListagem versao =
+                ocorrenciaRepository.buscarVersaoListagem(OcorrenciaSpecifications.de(filtro));
+        return VersaoRecurso.daListagem(versao.getTotal(), versao.getUltimaAtualizacao(),
+                versao.getUltimaAtualizacaoUsuario());
     }
 
     @Transactional(readOnly = true)
     public List<OcorrenciaResponse> buscarPorStatus(StatusOcorrencia status) {
-        return ocorrenciaRepository.findByStatus(status)
-                .stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+        return ocorrenciaRepository.findByStatus(status);
     }
 
     @Transactional(readOnly = true)
     public List<OcorrenciaResponse> buscarPorUsuario(Long usuarioId) {
-        return ocorrenciaRepository.findByUsuarioId(usuarioId)
-                .stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+        return ocorrenciaRepository.findByUsuarioId(usuarioId);
     }
 
     @Transactional(readOnly = true)
     public List<OcorrenciaResponse> buscarPorLocalizacao(String localizacao) {
-        return ocorrenciaRepository.findByLocalizacaoContaining(localizacao)
+        return ocorrenciaRepository.findByLocalizacaoContaining(localizacao);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OcorrenciaResponse> buscarPorLocalizacaoSimilar(String termo, Pageable pageable) {
+        // A ordenação é sempre por relevância; apenas página e tamanho são considerados
+        Pageable pagina = PageRequest.of(pageable.getPageNumber(),
+                properties.getPaginacao().limitar(pageable.getPageSize()));
+        // Curingas do LIKE digitados pelo usuário são tratados como texto comum
+        String termoNormalizado = termo.replaceAll("[%_\\\\]", " ").trim();
+
+        if (properties.getBusca().getLocalizacao() != ConectaPgProperties.ModoBuscaLocalizacao.TRIGRAM) {
+            return ocorrenciaRepository.findByLocalizacaoIgnorandoCaixa(termoNormalizado, pagina);
+        }
+
+        List<Long> ids = ocorrenciaRepository.findIdsByLocalizacaoSimilar(termoNormalizado, pagina);
+        Map<Long, OcorrenciaResponse> porId = ocorrenciaRepository.findComUsuarioByIdIn(ids)
                 .stream()
-                .map(mapper::toResponse)
+                .collect(Collectors.toMap(OcorrenciaResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -69,32 +226,273 @@ public class OcorrenciaService {
         
         Ocorrencia ocorrencia = mapper.toEntity(request, usuario);
         Ocorrencia salva = ocorrenciaRepository.save(ocorrencia);
-        return mapper.toResponse(salva);
+        usuarioRepository.incrementarTotalOcorrencias(usuario.getId(), 1);
+        invalidarUsuario(usuario);
+
+        OcorrenciaResponse response = mapper.toResponse(salva);
+        eventos.publishEvent(OcorrenciaEvento.de(TipoEvento.CRIADA, response));
+        return response;
+    }
+
+    /**
+     * Cria várias ocorrências em uma única transação. Itens inválidos ou de usuários
+     * inexistentes são rejeitados individualmente, sem impedir a criação dos demais.
+     */
+    @Transactional
+    public LoteOcorrenciaResponse criarEmLote(List<OcorrenciaRequest> requests) {
+        int limite = properties.getLote().getTamanhoMaximo();
+        if (requests.size() > limite) {
+            throw new IllegalArgumentException("Lote excede o limite de " + limite + " ocorrências");
+        }
+
+        // Todos os usuários referenciados são carregados em uma única consulta
+        Set<Long> usuarioIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(OcorrenciaRequest::getUsuarioId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Usuario> usuarios = usuarioRepository.findAllById(usuarioIds)
+                .stream()
+                .collect(Collectors.toMap(Usuario::getId, Function.identity()));
+
+        Map<Integer, Ocorrencia> aceitas = new LinkedHashMap<>();
+        List<ResultadoItem> itens = new ArrayList<>(requests.size());
+        for (int indice = 0; indice < requests.size(); indice++) {
+            OcorrenciaRequest request = requests.get(indice);
+            String erro = validarItemDoLote(request, usuarios);
+            if (erro == null) {
+                aceitas.put(indice, mapper.toEntity(request, usuarios.get(request.getUsuarioId())));
+            } else {
+                itens.add(ResultadoItem.builder()
+                        .indice(indice)
+                        .status(StatusItem.REJEITADA)
+                        .erro(erro)
+                        .build());
+            }
+        }
+
+        // Os ids vêm em blocos da sequência, então os INSERTs são agrupados pelo
+        // hibernate.jdbc.batch_size no flush em vez de executados um a um
+        ocorrenciaRepository.saveAll(aceitas.values());
+
+        aceitas.values().stream()
+                .collect(Collectors.groupingBy(o -> o.getUsuario().getId(), Collectors.counting()))
+                .forEach((usuarioId, quantidade) -> {
+                    usuarioRepository.incrementarTotalOcorrencias(usuarioId, quantidade.intValue());
+                    invalidarUsuario(usuarios.get(usuarioId));
+                });
+        if (!aceitas.isEmpty()) {
+            eventos.publishEvent(new OcorrenciaEvento(TipoEvento.CRIADA,
+                    aceitas.values().stream().map(mapper::toResponse).toList()));
+        }
+
+        aceitas.forEach((indice, ocorrencia) -> itens.add(ResultadoItem.builder()
+                .indice(indice)
+                .status(StatusItem.CRIADA)
+                .id(ocorrencia.getId())
+                .build()));
+        itens.sort((a, b) -> Integer.compare(a.getIndice(), b.getIndice()));
+
+        return LoteOcorrenciaResponse.builder()
+                .criadas(aceitas.size())
+                .rejeitadas(requests.size() - aceitas.size())
+                .itens(itens)
+                .build();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.OCORRENCIAS, key = "#id")
     @Transactional
     public OcorrenciaResponse atualizar(Long id, OcorrenciaRequest request) {
-        Ocorrencia ocorrencia = ocorrenciaRepository.findById(id)
+        Ocorrencia ocorrencia = ocorrenciaRepository.findComUsuarioById(id)
                 .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
         
+        StatusOcorrencia statusAnterior = ocorrencia.getStatus();
+        if (request.getStatus() != null && request.getStatus() != statusAnterior
+                && !statusAnterior.permiteTransicaoPara(request.getStatus())) {
+            throw new TransicaoStatusInvalidaException(id, statusAnterior, request.getStatus());
+        }
         mapper.updateEntity(ocorrencia, request);
         Ocorrencia atualizada = ocorrenciaRepository.save(ocorrencia);
-        return mapper.toResponse(atualizada);
+
+        OcorrenciaResponse response = mapper.toResponse(atualizada);
+        if (atualizada.getStatus() != statusAnterior) {
+            eventos.publishEvent(OcorrenciaEvento.statusAlterado(statusAnterior, List.of(response)));
+        }
+        return response;
     }
 
+    /**
+     * Avança a ocorrência para {@code novoStatus} com um único UPDATE condicionado ao status
+     * anterior da sequência. Se ela não estiver nesse status (transição não permitida ou
+     * alteração concorrente), nada é gravado e é lançada {@link TransicaoStatusInvalidaException}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.OCORRENCIAS, key = "#id")
     @Transactional
     public OcorrenciaResponse atualizarStatus(Long id, StatusOcorrencia novoStatus) {
-        Ocorrencia ocorrencia = ocorrenciaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
-        ocorrencia.setStatus(novoStatus);
-        Ocorrencia atualizada = ocorrenciaRepository.save(ocorrencia);
-        return mapper.toResponse(atualizada);
+        Optional<OcorrenciaResponse> atualizada = novoStatus.anterior()
+                .flatMap(esperado -> ocorrenciaRepository.transicionarStatus(id, esperado, novoStatus));
+
+        if (atualizada.isEmpty()) {
+            // Só no caminho de erro: descobre se a ocorrência não existe ou em que status está
+            StatusOcorrencia atual = ocorrenciaRepository.findStatusById(id)
+                    .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
+            throw new TransicaoStatusInvalidaException(id, atual, novoStatus);
+        }
+
+        OcorrenciaResponse response = atualizada.get();
+        eventos.publishEvent(OcorrenciaEvento.statusAlterado(novoStatus.anterior().get(), List.of(response)));
+        return response;
     }
 
+    /**
+     * Aplica a mesma transição de {@link #atualizarStatus} a várias ocorrências, indicadas por
+     * ids ou por filtro. Os UPDATEs são feitos em blocos de {@code conectapg.lote.tamanho-bloco}
+     * ids e uma única consulta final explica as que não foram alteradas, então o número de
+     * comandos depende do tamanho do bloco e não da quantidade de ocorrências.
+     */
+    @Transactional
+    public AlteracaoStatusLoteResponse atualizarStatusEmLote(AlteracaoStatusLoteRequest request) {
+        StatusOcorrencia novoStatus = request.getStatus();
+        Optional<StatusOcorrencia> esperado = novoStatus.anterior();
+        List<Long> ids = selecionarIdsDoLote(request, esperado);
+
+        Map<Long, OcorrenciaResponse> atualizadas = new HashMap<>();
+        if (esperado.isPresent()) {
+            int bloco = properties.getLote().getTamanhoBloco();
+            for (int inicio = 0; inicio < ids.size(); inicio += bloco) {
+                List<Long> idsDoBloco = ids.subList(inicio, Math.min(inicio + bloco, ids.size()));
+                ocorrenciaRepository.transicionarStatus(idsDoBloco, esperado.get(), novoStatus)
+                        .forEach(ocorrencia -> atualizadas.put(ocorrencia.getId(), ocorrencia));
+            }
+        }
+
+        List<Long> naoAtualizadas = ids.stream()
+                .filter(id -> !atualizadas.containsKey(id))
+                .toList();
+        Map<Long, StatusOcorrencia> statusAtuais = naoAtualizadas.isEmpty()
+                ? Map.of()
+                : ocorrenciaRepository.findStatusByIdIn(naoAtualizadas)
+                        .stream()
+                        .collect(Collectors.toMap(OcorrenciaRepository.StatusPorId::getId,
+                                OcorrenciaRepository.StatusPorId::getStatus));
+
+        List<AlteracaoStatusLoteResponse.ResultadoItem> itens = new ArrayList<>(ids.size());
+        List<OcorrenciaResponse> alteradas = new ArrayList<>(atualizadas.size());
+        for (Long id : ids) {
+            OcorrenciaResponse atualizada = atualizadas.get(id);
+            if (atualizada != null) {
+                alteradas.add(atualizada);
+                Optional.ofNullable(cacheManager.getCache(CacheConfig.OCORRENCIAS))
+                        .ifPresent(cache -> cache.evict(id));
+            }
+            StatusOcorrencia atual = atualizada != null ? novoStatus : statusAtuais.get(id);
+            itens.add(AlteracaoStatusLoteResponse.ResultadoItem.builder()
+                    .id(id)
+                    .resultado(atualizada != null ? ResultadoAlteracao.ATUALIZADA
+                            : atual != null ? ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA
+                            : ResultadoAlteracao.NAO_ENCONTRADA)
+                    .status(atual)
+                    .build());
+        }
+        if (!alteradas.isEmpty()) {
+            eventos.publishEvent(OcorrenciaEvento.statusAlterado(esperado.get(), alteradas));
+        }
+
+        return AlteracaoStatusLoteResponse.builder()
+                .atualizadas(alteradas.size())
+                .rejeitadas(ids.size() - alteradas.size())
+                .itens(itens)
+                .build();
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.OCORRENCIAS, key = "#id")
     @Transactional
     public void deletar(Long id) {
-        Ocorrencia ocorrencia = ocorrenciaRepository.findById(id)
+        Ocorrencia ocorrencia = ocorrenciaRepository.findComUsuarioById(id)
                 .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada com id: " + id));
         ocorrenciaRepository.delete(ocorrencia);
+        usuarioRepository.incrementarTotalOcorrencias(ocorrencia.getUsuario().getId(), -1);
+        invalidarUsuario(ocorrencia.getUsuario());
+
+        // Os assinantes só precisam saber qual ocorrência saiu e em quais filtros e contagens ela aparecia
+        eventos.publishEvent(OcorrenciaEvento.de(TipoEvento.REMOVIDA, OcorrenciaResponse.builder()
+                .id(ocorrencia.getId())
+                .status(ocorrencia.getStatus())
+                .tipo(ocorrencia.getTipo())
+                .dataCriacao(ocorrencia.getDataCriacao())
+                .build()));
+    }
+
+    /**
+     * Ids enviados (sem repetições, na ordem original) ou, com filtro, os que estão no status
+     * anterior ao solicitado. Nos dois casos o total é limitado por {@code conectapg.lote.tamanho-maximo}.
+     */
+    private List<Long> selecionarIdsDoLote(AlteracaoStatusLoteRequest request, Optional<StatusOcorrencia> esperado) {
+        int limite = properties.getLote().getTamanhoMaximo();
+        boolean temIds = request.getIds() != null && !request.getIds().isEmpty();
+
+        if (temIds && request.temFiltro()) {
+            throw new IllegalArgumentException("Informe ids ou filtro, não ambos");
+        }
+        if (temIds) {
+            if (request.getIds().size() > limite) {
+                throw new IllegalArgumentException("Lote excede o limite de " + limite + " ocorrências");
+            }
+            if (request.getIds().stream().anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("Lista de ids contém valor nulo");
+            }
+            return new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        }
+        if (!request.temFiltro()) {
+            throw new IllegalArgumentException("Informe ids ou ao menos um filtro (tipo, usuarioId, localizacao)");
+        }
+        if (esperado.isEmpty()) {
+            return List.of();
+        }
+
+        String localizacao = request.getLocalizacao() == null || request.getLocalizacao().isBlank()
+                ? null
+                : request.getLocalizacao();
+        List<Long> ids = ocorrenciaRepository.findIdsParaAlteracaoDeStatus(esperado.get(), request.getTipo(),
+                request.getUsuarioId(), localizacao, Limit.of(limite + 1));
+        if (ids.size() > limite) {
+            throw new IllegalArgumentException("Filtro seleciona mais de " + limite + " ocorrências; refine o filtro");
+        }
+        return ids;
+    }
+
+    private void validarFiltro(FiltroOcorrencias filtro) {
+        if (filtro.getDataInicio() != null && filtro.getDataFim() != null
+                && filtro.getDataInicio().isAfter(filtro.getDataFim())) {
+            throw new IllegalArgumentException("dataInicio deve ser anterior ou igual a dataFim");
+        }
+    }
+
+    private String validarItemDoLote(OcorrenciaRequest request, Map<Long, Usuario> usuarios) {
+        if (request == null) {
+            return "Ocorrência não informada";
+        }
+        Set<ConstraintViolation<OcorrenciaRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!usuarios.containsKey(request.getUsuarioId())) {
+            return "Usuário não encontrado com id: " + request.getUsuarioId();
+        }
+        return null;
+    }
+
+    /**
+     * Remove o usuário dos caches após mudança no total de ocorrências. Com o cache
+     * transacional a remoção só é aplicada depois do commit.
+     */
+    private void invalidarUsuario(Usuario usuario) {
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.USUARIOS))
+                .ifPresent(cache -> cache.evict(usuario.getId()));
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.USUARIOS_POR_EMAIL))
+                .ifPresent(cache -> cache.evict(usuario.getEmail()));
     }
 }
@@ -0,0 +1,106 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.ConectaPgProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gera hashes de senha em um pool de threads dedicado e limitado.
+ *
+ * O BCrypt consome ~100ms de CPU por hash; executado direto nas threads do Tomcat, uma
+ * rajada de cadastros ocupa todos os núcleos e degrada os demais endpoints. Aqui o número
+ * de hashes simultâneos é limitado e, com a fila cheia, a requisição é rejeitada na hora.
+ *
+ * Métricas: {@code executor.queued}, {@code executor.active} e {@code executor} (tag
+ * {@code name=senha.hash}), além de {@code senha.hash.rejeitadas}.
+ */
+@Component
+public class SenhaHasher {
+
+    static final String NOME_EXECUTOR = "senha.hash";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final Duration tempoMaximoEspera;
+    private final Counter rejeicoes;
+
+    /**
+     * O encoder é criado aqui, e não exposto como bean: um {@link PasswordEncoder} global
+     * substituiria o encoder padrão do Spring Security e a senha {noop} do usuário do actuator
+     * deixaria de ser aceita.
+     */
+    @Autowired
+    public SenhaHasher(ConectaPgProperties properties, MeterRegistry meterRegistry) {
+        this(criarEncoder(properties.getSenha()), properties, meterRegistry);
+    }
+
+    SenhaHasher(PasswordEncoder passwordEncoder, ConectaPgProperties properties, MeterRegistry meterRegistry) {
+        ConectaPgProperties.Senha config = properties.getSenha();
+        this.passwordEncoder = passwordEncoder;
+        this.tempoMaximoEspera = config.getTempoMaximoEspera();
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                config.getThreads(), config.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getCapacidadeFila()),
+                new CustomizableThreadFactory("senha-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NOME_EXECUTOR);
+        this.rejeicoes = Counter.builder("senha.hash.rejeitadas")
+                .description("Hashes de senha recusados por saturação do pool")
+                .register(meterRegistry);
+    }
+
+    private static PasswordEncoder criarEncoder(ConectaPgProperties.Senha config) {
+        int custo = config.isCalibrar()
+                ? CalibradorBcrypt.calibrar(config.getCusto(), config.getLatenciaAlvo())
+                : config.getCusto();
+        return new BCryptPasswordEncoder(custo);
+    }
+
+    public String gerarHash(String senha) {
+        Future<String> futuro;
+        try {
+            futuro = executor.submit(() -> passwordEncoder.encode(senha));
+        } catch (RejectedExecutionException e) {
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Muitos cadastros em andamento, tente novamente em instantes");
+        }
+
+        try {
+            return futuro.get(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Tempo esgotado aguardando o processamento da senha");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o processamento da senha", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar hash da senha", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,16 @@
+package com.conectapg.domain.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando um recurso limitado (como o pool de hash de senhas) está saturado.
+ * O cliente recebe 503 e pode tentar novamente.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,180 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.AlteracoesResponse;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.OcorrenciaRepository.VersaoPorId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sincronização incremental para os aplicativos que guardam as ocorrências localmente: em vez
+ * de baixar a lista inteira, o cliente envia o token da última sincronização e recebe apenas
+ * o que foi criado, alterado ou removido desde então.
+ *
+ * As versões são ids de transação gravados pelos gatilhos da migração V9, não datas, então
+ * diferenças de relógio entre instâncias e commits fora de ordem não fazem alterações se
+ * perderem. Uma alteração pode ser entregue mais de uma vez; aplicá-la de novo não muda nada
+ * no cliente.
+ *
+ * As duas sincronizações são entregues em páginas de {@code conectapg.sincronizacao.tamanho-pagina}
+ * itens, e a validade de um token é decidida pela versão expurgada guardada no banco.
+ */
+@Slf4j
+@Service
+public class SincronizacaoService {
+
+    // Tolerância para transações longas e relógios diferentes entre as instâncias
+    private static final Duration FOLGA_EXPURGO = Duration.ofDays(1);
+
+    private static final Comparator<VersaoPorId> ORDEM_ALTERACOES =
+            Comparator.comparingLong(VersaoPorId::getVersao).thenComparing(VersaoPorId::getId);
+
+    private final OcorrenciaRepository ocorrenciaRepository;
+    private final ConectaPgProperties.Sincronizacao config;
+
+    public SincronizacaoService(OcorrenciaRepository ocorrenciaRepository, ConectaPgProperties properties) {
+        this.ocorrenciaRepository = ocorrenciaRepository;
+        this.config = properties.getSincronizacao();
+    }
+
+    /**
+     * @param token token da resposta anterior; {@code null} ou vazio para a primeira sincronização
+     * @throws IllegalArgumentException se o token não tiver sido emitido por este endpoint
+     */
+    @Transactional(readOnly = true)
+    public AlteracoesResponse alteracoesDesde(String token) {
+        TokenSincronizacao anterior = token == null || token.isBlank() ? null : TokenSincronizacao.decodificar(token);
+
+        // Remoções até a versão expurgada já foram descartadas: o cliente recomeça do zero.
+        // Decidido só pelo estado do servidor, nunca por dados do token
+        long versaoExpurgada = ocorrenciaRepository.buscarVersaoExpurgada().orElse(0L);
+        if (anterior == null || anterior.getVersao() <= versaoExpurgada) {
+            // Lido antes da primeira página: o que mudar durante a paginação vem na sincronização seguinte
+            return paginaCompleta(ocorrenciaRepository.buscarHorizonteAlteracoes(), null);
+        }
+        if (anterior.isIncremental()) {
+            return paginaIncremental(anterior.getVersao(), anterior.getUltimoId(), anterior.getHorizonte());
+        }
+        if (anterior.getUltimoId() != null) {
+            return paginaCompleta(anterior.getVersao(), anterior.getUltimoId());
+        }
+
+        // Lido antes da primeira página: o que for confirmado depois fica para a próxima sincronização
+        return paginaIncremental(anterior.getVersao(), 0, ocorrenciaRepository.buscarHorizonteAlteracoes());
+    }
+
+    /**
+     * Uma página das alterações e remoções com versão entre {@code versao} e {@code horizonte},
+     * intercaladas na ordem {@code (versao_alteracao, id)} e continuando depois de
+     * {@code (versao, aposId)}. Cada consulta traz no máximo uma página, então um cliente que
+     * ficou muito tempo sem sincronizar não carrega o histórico inteiro numa resposta.
+     */
+    private AlteracoesResponse paginaIncremental(long versao, long aposId, long horizonte) {
+        int tamanho = config.getTamanhoPagina();
+        // Um item a mais indica se há próxima página; ids da sequência são positivos
+        Limit limite = Limit.of(tamanho + 1);
+        List<VersaoPorId> alteradas = ocorrenciaRepository.findAlteradasApos(versao, aposId, horizonte, limite);
+        List<VersaoPorId> removidas = ocorrenciaRepository.findRemovidasApos(versao, aposId, horizonte, limite);
+
+        List<VersaoPorId> pagina = Stream.concat(alteradas.stream(), removidas.stream())
+                .sorted(ORDEM_ALTERACOES)
+                .limit(tamanho + 1L)
+                .toList();
+        boolean temMais = pagina.size() > tamanho;
+        if (temMais) {
+            pagina = pagina.subList(0, tamanho);
+        }
+
+        // Uma ocorrência existente não aparece entre as removidas (NOT EXISTS na consulta)
+        Set<Long> idsAlterados = alteradas.stream().map(VersaoPorId::getId).collect(Collectors.toSet());
+        List<Long> idsAlteradosNaPagina = new ArrayList<>();
+        List<Long> idsRemovidosNaPagina = new ArrayList<>();
+        for (VersaoPorId item : pagina) {
+            if (idsAlterados.contains(item.getId())) {
+                idsAlteradosNaPagina.add(item.getId());
+            } else {
+                idsRemovidosNaPagina.add(item.getId());
+            }
+        }
+
+        TokenSincronizacao proximo;
+        if (temMais) {
+            VersaoPorId ultimo = pagina.get(pagina.size() - 1);
+            proximo = TokenSincronizacao.paginaIncremental(ultimo.getVersao(), ultimo.getId(), horizonte);
+        } else {
+            proximo = TokenSincronizacao.inicio(horizonte);
+        }
+        return AlteracoesResponse.builder()
+                .alteradas(carregarNaOrdem(idsAlteradosNaPagina))
+                .removidas(idsRemovidosNaPagina)
+                .completa(false)
+                .temMais(temMais)
+                .token(proximo.codificar())
+                .build();
+    }
+
+    // Uma ocorrência removida entre as duas leituras sai da página e chega como remoção na próxima
+    private List<OcorrenciaResponse> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, OcorrenciaResponse> porId = ocorrenciaRepository.findComUsuarioByIdIn(ids).stream()
+                .collect(Collectors.toMap(OcorrenciaResponse::getId, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Uma página da listagem completa em ordem de id. O token carrega a versão lida no início,
+     * que vira o ponto de partida incremental quando a última página for entregue.
+     */
+    private AlteracoesResponse paginaCompleta(long versao, Long aposId) {
+        int tamanho = config.getTamanhoPagina();
+        // Um item a mais indica se há próxima página; ids da sequência são positivos
+        List<OcorrenciaResponse> pagina = ocorrenciaRepository.findPaginaSincronizacao(
+                aposId == null ? 0 : aposId, Limit.of(tamanho + 1));
+        boolean temMais = pagina.size() > tamanho;
+        if (temMais) {
+            pagina = pagina.subList(0, tamanho);
+        }
+        Long ultimoId = temMais ? pagina.get(pagina.size() - 1).getId() : null;
+        return AlteracoesResponse.builder()
+                .alteradas(pagina)
+                .removidas(List.of())
+                .completa(aposId == null)
+                .temMais(temMais)
+                .token(TokenSincronizacao.paginaCompleta(versao, ultimoId).codificar())
+                .build();
+    }
+
+    /**
+     * Descarta os registros de remoção fora da retenção, guardando antes a maior versão
+     * descartada: tokens até ela deixam de ser aceitos para sincronização incremental.
+     */
+    @Scheduled(cron = "${conectapg.sincronizacao.agendamento-expurgo:0 0 4 * * *}")
+    @Transactional
+    public int expurgarRemocoes() {
+        LocalDateTime limite = LocalDateTime.now().minus(config.getRetencaoRemocoes()).minus(FOLGA_EXPURGO);
+        ocorrenciaRepository.findMaiorVersaoRemovidaAntesDe(limite)
+                .ifPresent(ocorrenciaRepository::avancarVersaoExpurgada);
+        int removidas = ocorrenciaRepository.excluirRemocoesAnterioresA(limite);
+        log.info("Registros de remoção de ocorrências expurgados: {}", removidas);
+        return removidas;
+    }
+}
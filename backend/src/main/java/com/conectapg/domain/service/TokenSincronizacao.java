@@ -0,0 +1,73 @@
+package com.conectapg.domain.service;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Ponto de partida da próxima sincronização: alterações gravadas por transações com id maior
+ * ou igual a {@code versao}. Durante uma sincronização completa, {@code ultimoId} é o último
+ * id já entregue e a próxima chamada continua a partir dele.
+ *
+ * Durante uma sincronização incremental paginada, {@code (versao, ultimoId)} é a posição do
+ * último item entregue na ordem {@code (versao_alteracao, id)} e {@code horizonte} é o limite
+ * lido na primeira página, que vira o token seguinte quando a última página for entregue.
+ *
+ * Exposto aos clientes como um token opaco em Base64 URL-safe. Nada nele decide se as
+ * remoções desde {@code versao} ainda estão registradas; isso é verificado no servidor.
+ */
+@Value
+public class TokenSincronizacao {
+
+    private static final String SEPARADOR = "|";
+
+    long versao;
+    Long ultimoId;
+    Long horizonte;
+
+    public static TokenSincronizacao inicio(long versao) {
+        return new TokenSincronizacao(versao, null, null);
+    }
+
+    public static TokenSincronizacao paginaCompleta(long versao, Long ultimoId) {
+        return new TokenSincronizacao(versao, ultimoId, null);
+    }
+
+    public static TokenSincronizacao paginaIncremental(long versao, long ultimoId, long horizonte) {
+        return new TokenSincronizacao(versao, ultimoId, horizonte);
+    }
+
+    public boolean isIncremental() {
+        return horizonte != null;
+    }
+
+    public String codificar() {
+        StringBuilder valor = new StringBuilder().append(versao);
+        if (ultimoId != null) {
+            valor.append(SEPARADOR).append(ultimoId);
+        }
+        if (horizonte != null) {
+            valor.append(SEPARADOR).append(horizonte);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TokenSincronizacao decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split(Pattern.quote(SEPARADOR), -1);
+            return switch (partes.length) {
+                case 1 -> inicio(Long.parseLong(partes[0]));
+                case 2 -> paginaCompleta(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+                case 3 -> paginaIncremental(Long.parseLong(partes[0]), Long.parseLong(partes[1]),
+                        Long.parseLong(partes[2]));
+                default -> throw new IllegalArgumentException("Partes demais: " + partes.length);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token de sincronização inválido: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando a ocorrência não está no status que antecede o solicitado, seja por uma
+ * transição não permitida ou porque outra requisição a alterou antes. O cliente recebe 409.
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TransicaoStatusInvalidaException extends RuntimeException {
+
+    private final Long id;
+    private final StatusOcorrencia statusAtual;
+    private final StatusOcorrencia statusSolicitado;
+
+    public TransicaoStatusInvalidaException(Long id, StatusOcorrencia statusAtual, StatusOcorrencia statusSolicitado) {
+        super("Ocorrência " + id + " está em " + statusAtual + "; transição para " + statusSolicitado + " não permitida");
+        this.id = id;
+        this.statusAtual = statusAtual;
+        this.statusSolicitado = statusSolicitado;
+    }
+}
@@ -1,17 +1,25 @@
 package com.conectapg.domain.service;
 
+import com.conectapg.api.dto.PaginaNumeradaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
 import com.conectapg.api.dto.UsuarioRequest;
 import com.conectapg.api.dto.UsuarioResponse;
 import com.conectapg.api.mapper.UsuarioMapper;
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
 import com.conectapg.domain.model.Usuario;
 import com.conectapg.domain.model.Usuario.TipoUsuario;
 import com.conectapg.domain.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,15 +27,16 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final UsuarioMapper mapper;
+    private final SenhaHasher senhaHasher;
+    private final FiltroEmails filtroEmails;
+    private final ConectaPgProperties properties;
 
     @Transactional(readOnly = true)
-    public List<UsuarioResponse> listarTodos() {
-        return usuarioRepository.findAll()
-                .stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    public PaginaNumeradaResponse<UsuarioResponse> listarTodos(Pageable pageable) {
+        return PaginaNumeradaResponse.de(usuarioRepository.findAllBy(pageable), mapper::toResponse);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USUARIOS, key = "#id")
     @Transactional(readOnly = true)
     public UsuarioResponse buscarPorId(Long id) {
         Usuario usuario = usuarioRepository.findById(id)
@@ -35,6 +44,17 @@ public class UsuarioService {
         return mapper.toResponse(usuario);
     }
 
+    /** Vários usuários em uma consulta, na ordem dos ids pedidos; os inexistentes vêm à parte. */
+    @Transactional(readOnly = true)
+    public ResultadoPorIdsResponse<UsuarioResponse> buscarPorIds(List<Long> ids) {
+        List<Long> pedidos = BuscaPorIds.normalizar(ids, properties.getLote().getTamanhoMaximo());
+        List<UsuarioResponse> encontrados = pedidos.isEmpty()
+                ? List.of()
+                : usuarioRepository.findAllById(pedidos).stream().map(mapper::toResponse).toList();
+        return BuscaPorIds.montar(pedidos, encontrados, UsuarioResponse::getId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, key = "#email")
     @Transactional(readOnly = true)
     public UsuarioResponse buscarPorEmail(String email) {
         Usuario usuario = usuarioRepository.findByEmail(email)
@@ -43,57 +63,86 @@ public class UsuarioService {
     }
 
     @Transactional(readOnly = true)
-    public List<UsuarioResponse> buscarPorTipo(TipoUsuario tipo) {
-        return usuarioRepository.findAll()
-                .stream()
-                .filter(u -> u.getTipo().equals(tipo))
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    public PaginaNumeradaResponse<UsuarioResponse> buscarPorTipo(TipoUsuario tipo, Pageable pageable) {
+        return PaginaNumeradaResponse.de(usuarioRepository.findByTipo(tipo, pageable), mapper::toResponse);
     }
 
     @Transactional(readOnly = true)
-    public List<UsuarioResponse> buscarAtivos() {
-        return usuarioRepository.findAll()
-                .stream()
-                .filter(Usuario::getAtivo)
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    public PaginaNumeradaResponse<UsuarioResponse> buscarAtivos(Pageable pageable) {
+        return PaginaNumeradaResponse.de(usuarioRepository.findByAtivoTrue(pageable), mapper::toResponse);
     }
 
-    @Transactional
+    // O filtro de emails é local à instância: um email cadastrado em outra pode aparecer como
+    // disponível por até conectapg.filtro-emails.idade-maxima. O cadastro não depende desta
+    // resposta, a restrição de unicidade recusa o email de qualquer forma
+    @Transactional(readOnly = true)
+    public boolean emailDisponivel(String email) {
+        return !(filtroEmails.podeExistirDesde(email) && usuarioRepository.existsByEmail(email));
+    }
+
+    // Sem @Transactional: o hash é calculado antes de qualquer acesso ao banco, para que
+    // a espera pelo BCrypt não retenha uma conexão do pool
     public UsuarioResponse criar(UsuarioRequest request) {
-        if (usuarioRepository.existsByEmail(request.getEmail())) {
+        String senhaHash = senhaHasher.gerarHash(request.getSenha());
+
+        if (emailCadastrado(request.getEmail())) {
             throw new RuntimeException("Email já cadastrado: " + request.getEmail());
         }
 
-        Usuario usuario = mapper.toEntity(request);
-        Usuario salvo = usuarioRepository.save(usuario);
+        Usuario usuario = mapper.toEntity(request, senhaHash);
+        Usuario salvo = salvar(usuario);
         return mapper.toResponse(salvo);
     }
 
-    @Transactional
+    // O email anterior não é conhecido aqui, e as ocorrências em cache exibem nome e email do usuário
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.OCORRENCIAS, allEntries = true)
+    })
     public UsuarioResponse atualizar(Long id, UsuarioRequest request) {
+        // Só gera novo hash se a senha foi fornecida; calculado antes de acessar o banco, como em criar
+        String senhaHash = request.getSenha() != null && !request.getSenha().isBlank()
+                ? senhaHasher.gerarHash(request.getSenha())
+                : null;
+
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado com id: " + id));
 
         // Verifica se o email já está em uso por outro usuário
         if (!usuario.getEmail().equals(request.getEmail()) && 
-            usuarioRepository.existsByEmail(request.getEmail())) {
+            emailCadastrado(request.getEmail())) {
             throw new RuntimeException("Email já cadastrado: " + request.getEmail());
         }
 
-        mapper.updateEntity(usuario, request);
-        Usuario atualizado = usuarioRepository.save(usuario);
+        // O email anterior continua no filtro até a próxima reconstrução
+        if (!usuario.getEmail().equals(request.getEmail())) {
+            filtroEmails.registrarRemocao();
+        }
+        mapper.updateEntity(usuario, request, senhaHash);
+        Usuario atualizado = salvar(usuario);
         return mapper.toResponse(atualizado);
     }
 
+    // A remoção do usuário remove também as suas ocorrências (ON DELETE CASCADE). Para
+    // usuários com histórico muito grande, prefira o expurgo em blocos de ExpurgoUsuarioService
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.OCORRENCIAS, allEntries = true)
+    })
     @Transactional
     public void deletar(Long id) {
-        Usuario usuario = usuarioRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com id: " + id));
-        usuarioRepository.delete(usuario);
+        if (usuarioRepository.excluir(id) == 0) {
+            throw new RuntimeException("Usuário não encontrado com id: " + id);
+        }
+        filtroEmails.registrarRemocao();
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, key = "#result.email")
+    })
     @Transactional
     public UsuarioResponse ativarDesativar(Long id, Boolean ativo) {
         Usuario usuario = usuarioRepository.findById(id)
@@ -102,4 +151,25 @@ public class UsuarioService {
         Usuario atualizado = usuarioRepository.save(usuario);
         return mapper.toResponse(atualizado);
     }
+
+    // Só para evitar a consulta no cadastro: se o filtro estiver desatualizado, a restrição de
+    // unicidade recusa o email em salvar, com a mesma mensagem
+    private boolean emailCadastrado(String email) {
+        return filtroEmails.podeExistir(email) && usuarioRepository.existsByEmail(email);
+    }
+
+    // A restrição de unicidade é a garantia final: um cadastro concorrente com o mesmo email
+    // (ou uma resposta desatualizada do filtro) termina aqui com a mesma mensagem da verificação
+    private Usuario salvar(Usuario usuario) {
+        filtroEmails.registrar(usuario.getEmail());
+        try {
+            // Com flush, a violação aparece aqui mesmo quando há uma transação externa
+            return usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException e) {
+            if (usuarioRepository.existsByEmail(usuario.getEmail())) {
+                throw new RuntimeException("Email já cadastrado: " + usuario.getEmail(), e);
+            }
+            throw e;
+        }
+    }
 }
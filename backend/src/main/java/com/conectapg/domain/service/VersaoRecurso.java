@@ -0,0 +1,74 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.OcorrenciaResponse.UsuarioResumo;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Versão de uma ocorrência ou de uma listagem, usada para responder GETs condicionais.
+ *
+ * A ETag de uma ocorrência combina a data de atualização com os dados do autor que aparecem
+ * no corpo; é lida do banco pela chave primária e comparada com a cópia em cache, que pode ter
+ * ficado para trás de uma alteração feita em outra instância. A das listagens combina a quantidade de
+ * itens com as últimas datas de atualização; como o máximo das datas não muda quando
+ * uma linha é removida, as listagens respondem só pela ETag, sem Last-Modified.
+ */
+@Value
+public class VersaoRecurso {
+
+    String etag;
+    LocalDateTime ultimaAlteracao;
+
+    public static VersaoRecurso daOcorrencia(Long id, LocalDateTime dataAtualizacao, Long usuarioId,
+                                             String usuarioNome, String usuarioEmail) {
+        int autor = Objects.hash(usuarioId, usuarioNome, usuarioEmail);
+        return new VersaoRecurso(
+                id + "-" + marca(dataAtualizacao) + "-" + Integer.toUnsignedString(autor, Character.MAX_RADIX),
+                dataAtualizacao);
+    }
+
+    /** A versão que a resposta representa, no mesmo formato da versão lida do banco. */
+    public static VersaoRecurso daOcorrencia(OcorrenciaResponse ocorrencia) {
+        UsuarioResumo usuario = ocorrencia.getUsuario();
+        return usuario == null
+                ? daOcorrencia(ocorrencia.getId(), ocorrencia.getDataAtualizacao(), null, null, null)
+                : daOcorrencia(ocorrencia.getId(), ocorrencia.getDataAtualizacao(),
+                        usuario.getId(), usuario.getNome(), usuario.getEmail());
+    }
+
+    public static VersaoRecurso daListagem(long total, LocalDateTime ultimaAtualizacao,
+                                           LocalDateTime ultimaAtualizacaoUsuario) {
+        return new VersaoRecurso(
+                "n" + total + "-" + marca(ultimaAtualizacao) + "-" + marca(ultimaAtualizacaoUsuario),
+                maisRecente(ultimaAtualizacao, ultimaAtualizacaoUsuario));
+    }
+
+    /** Valor para o cabeçalho Last-Modified, ou -1 quando não há data. */
+    public long getUltimaAlteracaoEmMillis() {
+        if (ultimaAlteracao == null) {
+            return -1;
+        }
+        return ultimaAlteracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Microssegundos em base 36: mesma precisão da coluna TIMESTAMP do PostgreSQL
+    private static String marca(LocalDateTime data) {
+        if (data == null) {
+            return "0";
+        }
+        long micros = data.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + data.getNano() / 1_000;
+        return Long.toString(micros, Character.MAX_RADIX);
+    }
+
+    private static LocalDateTime maisRecente(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,102 @@
+-- Unicidade de ocorrencias.id e efeitos do arquivamento de partições.
+--
+-- Desde V7 a chave primária é (id, data_criacao), exigência do particionamento, e nada no
+-- banco impedia duas ocorrências com o mesmo id em meses diferentes (um INSERT com id
+-- explícito, uma importação, a sequência reiniciada). ocorrencias_ids guarda cada id já usado
+-- e o gatilho abaixo a alimenta; um id repetido falha com violação de chave, como antes de V7.
+--
+-- Os ids não são liberados na remoção: a sequência nunca os reutiliza e, mantidos, também
+-- valem para as ocorrências já arquivadas e deixam os registros de remoção sem ambiguidade.
+-- O custo é uma inserção em índice por ocorrência criada e cerca de 40 bytes por id.
+
+CREATE TABLE ocorrencias_ids (
+    id BIGINT PRIMARY KEY
+);
+
+INSERT INTO ocorrencias_ids (id)
+SELECT id FROM ocorrencias;
+
+CREATE OR REPLACE FUNCTION registrar_id_ocorrencia()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        RAISE EXCEPTION 'O id de uma ocorrência não pode ser alterado (% para %)', OLD.id, NEW.id
+            USING ERRCODE = 'integrity_constraint_violation';
+    END IF;
+    INSERT INTO ocorrencias_ids (id) VALUES (NEW.id);
+    RETURN NULL;
+END
+$$;
+
+-- AFTER INSERT não dispara quando criar_particoes_ocorrencias() move linhas da partição
+-- padrão (a cópia vai para a tabela ainda não anexada), e o id já está registrado.
+CREATE TRIGGER trg_ocorrencias_id
+    AFTER INSERT ON ocorrencias
+    FOR EACH ROW EXECUTE FUNCTION registrar_id_ocorrencia();
+
+CREATE TRIGGER trg_ocorrencias_id_imutavel
+    AFTER UPDATE OF id ON ocorrencias
+    FOR EACH ROW WHEN (OLD.id IS DISTINCT FROM NEW.id) EXECUTE FUNCTION registrar_id_ocorrencia();
+
+-- Mesma seleção de partições de V7. Antes de desanexar, a partição é bloqueada para escrita e
+-- suas ocorrências passam a ser tratadas como removidas: ganham registro em
+-- ocorrencias_removidas, para que GET /ocorrencias/changes as retire dos clientes, e deixam de
+-- contar em usuarios.total_ocorrencias. O DETACH não dispara os gatilhos de remoção.
+CREATE OR REPLACE FUNCTION arquivar_particoes_ocorrencias(idade INTERVAL)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    particao RECORD;
+    limite DATE := date_trunc('month', CURRENT_DATE - idade);
+    pendentes BOOLEAN;
+    arquivadas INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('particoes_ocorrencias')) THEN
+        RETURN 0;
+    END IF;
+
+    FOR particao IN
+        SELECT c.relname AS nome
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.ocorrencias'::regclass
+          AND c.relname ~ '^ocorrencias_[0-9]{6}$'
+        ORDER BY c.relname
+    LOOP
+        -- O nome segue ocorrencias_AAAAMM; o mês precisa ter terminado antes do limite
+        CONTINUE WHEN to_date(right(particao.nome, 6), 'YYYYMM') + INTERVAL '1 month' > limite;
+
+        -- Leituras continuam; escritas esperam o fim da transação, então a verificação, os
+        -- registros de remoção e os totais valem para as mesmas linhas que serão desanexadas
+        EXECUTE format('LOCK TABLE public.%I IN EXCLUSIVE MODE', particao.nome);
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM public.%I WHERE status <> %L)', particao.nome, 'FECHADA')
+        INTO pendentes;
+        IF pendentes THEN
+            RAISE NOTICE 'Partição % mantida: possui ocorrências não fechadas', particao.nome;
+            CONTINUE;
+        END IF;
+
+        EXECUTE format(
+            'INSERT INTO ocorrencias_removidas (id, versao_alteracao, data_remocao) '
+            'SELECT id, pg_current_xact_id()::text::BIGINT, CURRENT_TIMESTAMP FROM public.%I '
+            'ON CONFLICT (id) DO UPDATE '
+            '    SET versao_alteracao = EXCLUDED.versao_alteracao, data_remocao = EXCLUDED.data_remocao',
+            particao.nome);
+        EXECUTE format(
+            'UPDATE usuarios u SET total_ocorrencias = u.total_ocorrencias - a.total '
+            'FROM (SELECT usuario_id, COUNT(*) AS total FROM public.%I GROUP BY usuario_id) a '
+            'WHERE u.id = a.usuario_id',
+            particao.nome);
+
+        EXECUTE format('ALTER TABLE ocorrencias DETACH PARTITION public.%I', particao.nome);
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA arquivo', particao.nome);
+        arquivadas := arquivadas + 1;
+    END LOOP;
+
+    RETURN arquivadas;
+END
+$$;
@@ -0,0 +1,15 @@
+-- Validade dos tokens de GET /ocorrencias/changes decidida pelo servidor.
+--
+-- O expurgo dos registros de remoção guarda aqui a maior versão descartada; um token com
+-- versão até esse valor pode ter perdido remoções e o cliente recebe a listagem completa.
+-- Antes, a decisão usava a data de emissão gravada no próprio token, que o cliente controla.
+
+CREATE TABLE controle_sincronizacao (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    versao_expurgada BIGINT NOT NULL
+);
+
+-- Não se sabe quais versões os expurgos anteriores descartaram: os tokens emitidos até aqui
+-- recebem uma sincronização completa, uma única vez
+INSERT INTO controle_sincronizacao (id, versao_expurgada)
+VALUES (1, horizonte_alteracoes());
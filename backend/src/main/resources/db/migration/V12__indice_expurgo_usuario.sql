@@ -0,0 +1,6 @@
+-- Expurgo de usuários (ExpurgoUsuarioService): os ids de um usuário em ordem, em blocos que
+-- continuam do último id removido. Sem um índice iniciado por (usuario_id, id) cada bloco lia
+-- as ocorrências do usuário e as ordenava por id, e o expurgo de um histórico grande ficava
+-- quadrático. Também atende o ON DELETE CASCADE vindo de usuarios.
+-- Em ocorrencias particionada (V7) o índice é criado em todas as partições.
+CREATE INDEX idx_ocorrencias_usuario_id_id ON ocorrencias(usuario_id, id);
@@ -0,0 +1,168 @@
+-- Arquivamento de partições sem bloquear a tabela ocorrencias.
+--
+-- Até aqui arquivar_particoes_ocorrencias() desanexava com DETACH PARTITION comum, que toma
+-- ACCESS EXCLUSIVE em ocorrencias: leituras e escritas da API inteira esperavam o fim da
+-- função. DETACH PARTITION ... CONCURRENTLY toma apenas SHARE UPDATE EXCLUSIVE, mas não pode
+-- rodar dentro de uma transação (logo, nem de uma função) nem com partição padrão. Por isso:
+--
+--   1. a partição padrão sai; criar_particoes_ocorrencias() já cria os meses com antecedência
+--      e roda também na inicialização. Um INSERT em mês sem partição passa a falhar em vez de
+--      cair na partição padrão, de onde as linhas de meses arquivados nunca saíam;
+--   2. o arquivamento é conduzido por ManutencaoParticoes, que para cada partição listada por
+--      particoes_para_arquivar() executa o DETACH ... CONCURRENTLY em autocommit e depois
+--      concluir_arquivamento_ocorrencias(), que grava os registros de remoção, desconta os
+--      totais e move a tabela para o schema arquivo.
+--
+-- Os registros de remoção passam a ser gravados depois do DETACH, em outra transação: por
+-- esse intervalo as ocorrências já sumiram das consultas, e GET /ocorrencias/changes as retira
+-- dos clientes na sincronização seguinte. Desanexadas, as linhas não são mais alcançadas por
+-- ocorrencias, então uma remoção pela API não pode descontá-las de novo.
+
+-- Linhas que tenham caído na partição padrão vão para a partição do seu mês
+SELECT criar_particoes_ocorrencias(0, (SELECT MIN(data_criacao)::date FROM ocorrencias_padrao));
+
+-- Grava os registros de remoção e desconta dos totais as ocorrências de uma tabela já
+-- desanexada de ocorrencias, e a move para o schema arquivo.
+CREATE OR REPLACE FUNCTION registrar_arquivamento_ocorrencias(nome TEXT)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    EXECUTE format(
+        'INSERT INTO ocorrencias_removidas (id, versao_alteracao, data_remocao) '
+        'SELECT id, pg_current_xact_id()::text::BIGINT, CURRENT_TIMESTAMP FROM public.%I '
+        'ON CONFLICT (id) DO UPDATE '
+        '    SET versao_alteracao = EXCLUDED.versao_alteracao, data_remocao = EXCLUDED.data_remocao',
+        nome);
+    EXECUTE format(
+        'UPDATE usuarios u SET total_ocorrencias = u.total_ocorrencias - a.total '
+        'FROM (SELECT usuario_id, COUNT(*) AS total FROM public.%I GROUP BY usuario_id) a '
+        'WHERE u.id = a.usuario_id',
+        nome);
+    EXECUTE format('ALTER TABLE public.%I SET SCHEMA arquivo', nome);
+END
+$$;
+
+-- O que restou na partição padrão é de meses já arquivados: é arquivado junto com eles
+ALTER TABLE ocorrencias DETACH PARTITION ocorrencias_padrao;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM ocorrencias_padrao) THEN
+        RAISE NOTICE 'Ocorrências da partição padrão em meses arquivados movidas para arquivo.ocorrencias_padrao';
+        PERFORM registrar_arquivamento_ocorrencias('ocorrencias_padrao');
+    ELSE
+        DROP TABLE ocorrencias_padrao;
+    END IF;
+END
+$$;
+
+-- Mesma criação de V7, sem a partição padrão
+CREATE OR REPLACE FUNCTION criar_particoes_ocorrencias(meses_a_frente INT, desde DATE DEFAULT NULL)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    mes DATE := LEAST(date_trunc('month', CURRENT_DATE), date_trunc('month', desde));
+    ultimo DATE := date_trunc('month', CURRENT_DATE) + make_interval(months => meses_a_frente);
+    proximo DATE;
+    nome TEXT;
+    criadas INT := 0;
+BEGIN
+    -- Evita DDL concorrente quando várias instâncias executam a manutenção ao mesmo tempo
+    IF NOT pg_try_advisory_xact_lock(hashtext('particoes_ocorrencias')) THEN
+        RETURN 0;
+    END IF;
+
+    WHILE mes <= ultimo LOOP
+        proximo := mes + INTERVAL '1 month';
+        nome := 'ocorrencias_' || to_char(mes, 'YYYYMM');
+
+        IF to_regclass('public.' || nome) IS NULL AND to_regclass('arquivo.' || nome) IS NULL THEN
+            -- Criada à parte e anexada depois: ATTACH toma SHARE UPDATE EXCLUSIVE em ocorrencias,
+            -- CREATE TABLE ... PARTITION OF tomaria ACCESS EXCLUSIVE
+            EXECUTE format('CREATE TABLE public.%I (LIKE ocorrencias INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nome);
+            EXECUTE format('ALTER TABLE ocorrencias ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                nome, mes, proximo);
+            criadas := criadas + 1;
+        END IF;
+
+        mes := proximo;
+    END LOOP;
+
+    RETURN criadas;
+END
+$$;
+
+DROP FUNCTION arquivar_particoes_ocorrencias(INTERVAL);
+
+-- Partições a desanexar: as de meses encerrados há mais de "idade" só com ocorrências
+-- FECHADAS (mesma seleção de V7) e as que ficaram com um DETACH ... CONCURRENTLY pela metade,
+-- que precisam de DETACH ... FINALIZE. Não bloqueia nada; a condição é conferida de novo por
+-- concluir_arquivamento_ocorrencias() depois do DETACH.
+CREATE OR REPLACE FUNCTION particoes_para_arquivar(idade INTERVAL)
+RETURNS TABLE (nome TEXT, desanexacao_pendente BOOLEAN)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    particao RECORD;
+    limite DATE := date_trunc('month', CURRENT_DATE - idade);
+    pendentes BOOLEAN;
+BEGIN
+    FOR particao IN
+        SELECT c.relname::TEXT AS relname, i.inhdetachpending
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.ocorrencias'::regclass
+          AND c.relname ~ '^ocorrencias_[0-9]{6}$'
+        ORDER BY c.relname
+    LOOP
+        IF particao.inhdetachpending THEN
+            nome := particao.relname;
+            desanexacao_pendente := true;
+            RETURN NEXT;
+            CONTINUE;
+        END IF;
+
+        -- O nome segue ocorrencias_AAAAMM; o mês precisa ter terminado antes do limite
+        CONTINUE WHEN to_date(right(particao.relname, 6), 'YYYYMM') + INTERVAL '1 month' > limite;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM public.%I WHERE status <> %L)', particao.relname, 'FECHADA')
+        INTO pendentes;
+        IF pendentes THEN
+            RAISE NOTICE 'Partição % mantida: possui ocorrências não fechadas', particao.relname;
+            CONTINUE;
+        END IF;
+
+        nome := particao.relname;
+        desanexacao_pendente := false;
+        RETURN NEXT;
+    END LOOP;
+END
+$$;
+
+-- Depois do DETACH: bloqueia a tabela para escrita e confere de novo se todas as ocorrências
+-- estão FECHADAS, porque entre a seleção e o DETACH alguma pode ter sido alterada ou inserida.
+-- Se não estiverem, a partição volta para ocorrencias e o retorno é false.
+CREATE OR REPLACE FUNCTION concluir_arquivamento_ocorrencias(nome TEXT)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    mes DATE := to_date(right(nome, 6), 'YYYYMM');
+    pendentes BOOLEAN;
+BEGIN
+    EXECUTE format('LOCK TABLE public.%I IN EXCLUSIVE MODE', nome);
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM public.%I WHERE status <> %L)', nome, 'FECHADA')
+    INTO pendentes;
+    IF pendentes THEN
+        RAISE NOTICE 'Partição % anexada de volta: recebeu ocorrências não fechadas', nome;
+        EXECUTE format('ALTER TABLE ocorrencias ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+            nome, mes, mes + INTERVAL '1 month');
+        RETURN false;
+    END IF;
+
+    PERFORM registrar_arquivamento_ocorrencias(nome);
+    RETURN true;
+END
+$$;
@@ -0,0 +1,10 @@
+-- Sincronização incremental paginada (SincronizacaoService): cada página continua depois da
+-- última posição entregue na ordem (versao_alteracao, id), em ocorrencias e em
+-- ocorrencias_removidas. Com os índices só de versao_alteracao (V9), as linhas de uma mesma
+-- versão, que pode ser uma transação grande, eram lidas e ordenadas por id a cada página.
+-- Em ocorrencias particionada (V7) o índice é criado em todas as partições.
+DROP INDEX idx_ocorrencias_versao_alteracao;
+CREATE INDEX idx_ocorrencias_versao_alteracao_id ON ocorrencias(versao_alteracao, id);
+
+DROP INDEX idx_ocorrencias_removidas_versao;
+CREATE INDEX idx_ocorrencias_removidas_versao_id ON ocorrencias_removidas(versao_alteracao, id);
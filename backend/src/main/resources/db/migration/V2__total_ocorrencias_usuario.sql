@@ -0,0 +1,12 @@
+-- Contador desnormalizado de ocorrências por usuário.
+-- Evita carregar a coleção de ocorrências apenas para calcular o total.
+ALTER TABLE usuarios ADD COLUMN total_ocorrencias INTEGER NOT NULL DEFAULT 0;
+
+UPDATE usuarios u
+SET total_ocorrencias = c.total
+FROM (
+    SELECT usuario_id, COUNT(*) AS total
+    FROM ocorrencias
+    GROUP BY usuario_id
+) c
+WHERE u.id = c.usuario_id;
@@ -0,0 +1,5 @@
+-- Índices para as listagens paginadas de usuários (ordenadas por id)
+CREATE INDEX idx_usuarios_tipo_id ON usuarios(tipo, id);
+
+-- Índice parcial: cobre apenas usuários ativos, já na ordem de paginação
+CREATE INDEX idx_usuarios_ativos_id ON usuarios(id) WHERE ativo = true;
@@ -0,0 +1,25 @@
+-- Busca por trecho de localização servida por índice GIN de trigramas,
+-- sem diferenciar maiúsculas, acentos ("São"/"Sao") e abreviações ("Av."/"Avenida").
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; com o dicionário explícito o wrapper pode ser IMMUTABLE
+-- e, portanto, usado na expressão do índice.
+CREATE OR REPLACE FUNCTION normalizar_localizacao(texto TEXT)
+RETURNS TEXT
+LANGUAGE sql
+IMMUTABLE STRICT PARALLEL SAFE
+AS $$
+    SELECT btrim(regexp_replace(
+        regexp_replace(regexp_replace(regexp_replace(regexp_replace(regexp_replace(
+            lower(public.unaccent('public.unaccent'::regdictionary, texto)),
+            '\mav\M\.?', 'avenida', 'g'),
+            '\mr\M\.?', 'rua', 'g'),
+            '\mal\M\.?', 'alameda', 'g'),
+            '\mtrav\M\.?', 'travessa', 'g'),
+            '\mpca\M\.?', 'praca', 'g'),
+        '\s+', ' ', 'g'))
+$$;
+
+CREATE INDEX idx_ocorrencias_localizacao_trgm
+    ON ocorrencias USING gin (normalizar_localizacao(localizacao) gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- Ids gerados pelo Hibernate via sequência com otimizador pooled (allocationSize = 50).
+-- Cada nextval reserva um bloco de 50 ids, permitindo INSERTs em lote via JDBC,
+-- o que não é possível com GenerationType.IDENTITY.
+ALTER SEQUENCE usuarios_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ocorrencias_id_seq INCREMENT BY 50;
@@ -0,0 +1,17 @@
+-- Data da última alteração do usuário. Ocorrências expõem nome e e-mail do autor,
+-- então a versão (ETag) de uma ocorrência também depende desta coluna.
+ALTER TABLE usuarios ADD COLUMN data_atualizacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+UPDATE usuarios SET data_atualizacao = data_criacao;
+
+-- Versão de uma ocorrência (id -> data_atualizacao, usuario_id) resolvida por index-only scan
+CREATE INDEX idx_ocorrencias_id_versao ON ocorrencias(id) INCLUDE (data_atualizacao, usuario_id);
+
+-- MAX(data_atualizacao) + COUNT(*) das listagens. Os índices compostos substituem os de
+-- coluna única em status e usuario_id, que continuam servindo os filtros existentes.
+CREATE INDEX idx_ocorrencias_data_atualizacao ON ocorrencias(data_atualizacao);
+CREATE INDEX idx_ocorrencias_status_data_atualizacao ON ocorrencias(status, data_atualizacao);
+CREATE INDEX idx_ocorrencias_usuario_data_atualizacao ON ocorrencias(usuario_id, data_atualizacao);
+DROP INDEX idx_ocorrencias_status;
+DROP INDEX idx_ocorrencias_usuario_id;
+
+CREATE INDEX idx_usuarios_data_atualizacao ON usuarios(data_atualizacao);
@@ -0,0 +1,156 @@
+-- Ocorrências particionadas por mês de data_criacao.
+--
+-- Consultas filtradas ou ordenadas por data_criacao (paginação, exportação por período) leem
+-- apenas as partições do intervalo; com ORDER BY data_criacao + LIMIT o PostgreSQL percorre as
+-- partições em ordem (ordered append) e para nas mais recentes. Partições antigas em que todas
+-- as ocorrências estão FECHADAS são desanexadas para o schema arquivo, então a tabela ativa
+-- não cresce com os anos.
+--
+-- Em tabelas particionadas a chave primária precisa conter a chave de partição, por isso passa
+-- a ser (id, data_criacao). A unicidade de id continua garantida pela sequência.
+
+CREATE SCHEMA IF NOT EXISTS arquivo;
+
+-- A sequência pertence à coluna id da tabela antiga e seria removida junto com ela
+ALTER SEQUENCE ocorrencias_id_seq OWNED BY NONE;
+ALTER TABLE ocorrencias RENAME TO ocorrencias_legado;
+ALTER TABLE ocorrencias_legado RENAME CONSTRAINT ocorrencias_pkey TO ocorrencias_legado_pkey;
+
+CREATE TABLE ocorrencias (
+    id BIGINT NOT NULL DEFAULT nextval('ocorrencias_id_seq'),
+    titulo VARCHAR(255) NOT NULL,
+    descricao TEXT NOT NULL,
+    localizacao VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'ABERTA',
+    tipo VARCHAR(50) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    data_atualizacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT ocorrencias_pkey PRIMARY KEY (id, data_criacao),
+    CONSTRAINT fk_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+    CONSTRAINT chk_status CHECK (status IN ('ABERTA', 'EM_ANDAMENTO', 'RESOLVIDA', 'FECHADA')),
+    CONSTRAINT chk_tipo CHECK (tipo IN ('ILUMINACAO', 'BURACO', 'LIXO', 'VANDALISMO', 'OUTROS'))
+) PARTITION BY RANGE (data_criacao);
+
+ALTER SEQUENCE ocorrencias_id_seq OWNED BY ocorrencias.id;
+
+-- Recebe linhas fora dos meses já criados, para que um INSERT nunca falhe por falta de partição.
+-- Normalmente fica vazia: criar_particoes_ocorrencias() cria os meses com antecedência.
+CREATE TABLE ocorrencias_padrao PARTITION OF ocorrencias DEFAULT;
+
+-- Cria as partições mensais de "desde" (ou do mês atual) até "meses_a_frente" meses no futuro.
+-- Linhas que tenham caído na partição padrão são movidas para a partição do seu mês.
+-- Idempotente; meses já arquivados não são recriados. Retorna a quantidade de partições criadas.
+CREATE OR REPLACE FUNCTION criar_particoes_ocorrencias(meses_a_frente INT, desde DATE DEFAULT NULL)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    mes DATE;
+    ultimo DATE := date_trunc('month', CURRENT_DATE) + make_interval(months => meses_a_frente);
+    proximo DATE;
+    nome TEXT;
+    criadas INT := 0;
+BEGIN
+    -- Evita DDL concorrente quando várias instâncias executam a manutenção ao mesmo tempo
+    IF NOT pg_try_advisory_xact_lock(hashtext('particoes_ocorrencias')) THEN
+        RETURN 0;
+    END IF;
+
+    SELECT LEAST(date_trunc('month', CURRENT_DATE),
+                 date_trunc('month', desde),
+                 date_trunc('month', MIN(data_criacao)))
+    INTO mes
+    FROM ocorrencias_padrao;
+
+    WHILE mes <= ultimo LOOP
+        proximo := mes + INTERVAL '1 month';
+        nome := 'ocorrencias_' || to_char(mes, 'YYYYMM');
+
+        IF to_regclass('public.' || nome) IS NULL AND to_regclass('arquivo.' || nome) IS NULL THEN
+            -- Criada à parte e anexada depois, para poder receber as linhas da partição padrão
+            EXECUTE format('CREATE TABLE public.%I (LIKE ocorrencias INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nome);
+            EXECUTE format(
+                'WITH movidas AS (DELETE FROM ocorrencias_padrao WHERE data_criacao >= %L AND data_criacao < %L RETURNING *) '
+                'INSERT INTO public.%I SELECT * FROM movidas',
+                mes, proximo, nome);
+            EXECUTE format('ALTER TABLE ocorrencias ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                nome, mes, proximo);
+            criadas := criadas + 1;
+        END IF;
+
+        mes := proximo;
+    END LOOP;
+
+    RETURN criadas;
+END
+$$;
+
+-- Move para o schema arquivo as partições de meses encerrados há mais de "idade" cujas
+-- ocorrências estejam todas FECHADAS. Partições com alguma ocorrência em aberto continuam
+-- anexadas até serem fechadas. Retorna a quantidade de partições arquivadas.
+CREATE OR REPLACE FUNCTION arquivar_particoes_ocorrencias(idade INTERVAL)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    particao RECORD;
+    limite DATE := date_trunc('month', CURRENT_DATE - idade);
+    pendentes BOOLEAN;
+    arquivadas INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('particoes_ocorrencias')) THEN
+        RETURN 0;
+    END IF;
+
+    FOR particao IN
+        SELECT c.relname AS nome
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.ocorrencias'::regclass
+          AND c.relname ~ '^ocorrencias_[0-9]{6}$'
+        ORDER BY c.relname
+    LOOP
+        -- O nome segue ocorrencias_AAAAMM; o mês precisa ter terminado antes do limite
+        CONTINUE WHEN to_date(right(particao.nome, 6), 'YYYYMM') + INTERVAL '1 month' > limite;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM public.%I WHERE status <> %L)', particao.nome, 'FECHADA')
+        INTO pendentes;
+        IF pendentes THEN
+            RAISE NOTICE 'Partição % mantida: possui ocorrências não fechadas', particao.nome;
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('ALTER TABLE ocorrencias DETACH PARTITION public.%I', particao.nome);
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA arquivo', particao.nome);
+        arquivadas := arquivadas + 1;
+    END LOOP;
+
+    RETURN arquivadas;
+END
+$$;
+
+-- Partições desde o mês mais antigo já registrado; as linhas são copiadas direto para elas
+SELECT criar_particoes_ocorrencias(3, (SELECT MIN(data_criacao)::date FROM ocorrencias_legado));
+
+INSERT INTO ocorrencias (id, titulo, descricao, localizacao, status, tipo, usuario_id, data_criacao, data_atualizacao)
+SELECT id, titulo, descricao, localizacao, status, tipo, usuario_id, data_criacao, data_atualizacao
+FROM ocorrencias_legado;
+
+DROP TABLE ocorrencias_legado;
+
+-- Índices das migrações anteriores, agora criados em cada partição
+CREATE INDEX idx_ocorrencias_data_criacao ON ocorrencias(data_criacao DESC);
+CREATE INDEX idx_ocorrencias_localizacao_trgm
+    ON ocorrencias USING gin (normalizar_localizacao(localizacao) gin_trgm_ops);
+CREATE INDEX idx_ocorrencias_id_versao ON ocorrencias(id) INCLUDE (data_atualizacao, usuario_id);
+CREATE INDEX idx_ocorrencias_data_atualizacao ON ocorrencias(data_atualizacao);
+CREATE INDEX idx_ocorrencias_status_data_atualizacao ON ocorrencias(status, data_atualizacao);
+CREATE INDEX idx_ocorrencias_usuario_data_atualizacao ON ocorrencias(usuario_id, data_atualizacao);
+
+-- Listagens de ocorrências em aberto, na ordem da paginação por cursor. Nas partições antigas,
+-- em que quase tudo está FECHADA, o índice parcial fica praticamente vazio e a consulta não
+-- chega a ler a tabela.
+CREATE INDEX idx_ocorrencias_nao_fechadas
+    ON ocorrencias(status, data_criacao DESC, id DESC)
+    WHERE status <> 'FECHADA';
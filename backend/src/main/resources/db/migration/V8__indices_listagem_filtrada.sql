@@ -0,0 +1,17 @@
+-- Listagem filtrada de GET /ocorrencias: igualdade nas colunas filtradas seguida de
+-- data_criacao DESC, a ordem da resposta. Com o filtro e a ordenação cobertos pelo mesmo
+-- índice a consulta vira uma varredura de intervalo, já na ordem, sem ordenação posterior.
+-- Em ocorrencias particionada (V7) cada índice é criado em todas as partições.
+
+-- status + tipo, a combinação usada pelo frontend. Só status já é atendido, para os status
+-- em aberto, pelo índice parcial idx_ocorrencias_nao_fechadas (V7)
+CREATE INDEX idx_ocorrencias_status_tipo_data_criacao
+    ON ocorrencias(status, tipo, data_criacao DESC, id DESC);
+
+-- Só tipo
+CREATE INDEX idx_ocorrencias_tipo_data_criacao
+    ON ocorrencias(tipo, data_criacao DESC, id DESC);
+
+-- Ocorrências de um usuário, com ou sem período
+CREATE INDEX idx_ocorrencias_usuario_data_criacao
+    ON ocorrencias(usuario_id, data_criacao DESC, id DESC);
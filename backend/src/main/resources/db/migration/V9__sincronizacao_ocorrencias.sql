@@ -0,0 +1,62 @@
+-- Sincronização incremental (GET /ocorrencias/changes).
+--
+-- Cada inserção ou alteração grava em versao_alteracao o id da transação (xid8, 64 bits,
+-- crescente e sem reinício). Remoções deixam um registro em ocorrencias_removidas com o id da
+-- transação que removeu. O token devolvido ao cliente é o xmin do snapshot da leitura: todas
+-- as transações com id menor já terminaram, então as que ainda vão confirmar alterações têm
+-- id maior ou igual e aparecem na próxima sincronização. Diferente de data_atualizacao, não
+-- depende do relógio de nenhuma instância nem da ordem de commit.
+
+-- O DEFAULT constante não reescreve a tabela; linhas existentes ficam com 0 e chegam aos
+-- clientes pela primeira sincronização, que é sempre completa.
+ALTER TABLE ocorrencias ADD COLUMN versao_alteracao BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_ocorrencias_versao_alteracao ON ocorrencias(versao_alteracao);
+
+CREATE TABLE ocorrencias_removidas (
+    id BIGINT PRIMARY KEY,
+    versao_alteracao BIGINT NOT NULL,
+    data_remocao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ocorrencias_removidas_versao ON ocorrencias_removidas(versao_alteracao);
+CREATE INDEX idx_ocorrencias_removidas_data ON ocorrencias_removidas(data_remocao);
+
+CREATE OR REPLACE FUNCTION registrar_alteracao_ocorrencia()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO ocorrencias_removidas (id, versao_alteracao, data_remocao)
+        VALUES (OLD.id, pg_current_xact_id()::text::BIGINT, CURRENT_TIMESTAMP)
+        ON CONFLICT (id) DO UPDATE
+            SET versao_alteracao = EXCLUDED.versao_alteracao, data_remocao = EXCLUDED.data_remocao;
+        RETURN OLD;
+    END IF;
+    NEW.versao_alteracao := pg_current_xact_id()::text::BIGINT;
+    RETURN NEW;
+END
+$$;
+
+-- Criados na tabela particionada, os gatilhos valem para todas as partições, inclusive as
+-- anexadas depois por criar_particoes_ocorrencias(). A remoção em cascata dos usuários
+-- também passa por eles. Linhas que criar_particoes_ocorrencias() move da partição padrão
+-- também deixam registro de remoção; a consulta de sincronização ignora ids que ainda existem.
+CREATE TRIGGER trg_ocorrencias_alteracao
+    BEFORE INSERT OR UPDATE ON ocorrencias
+    FOR EACH ROW EXECUTE FUNCTION registrar_alteracao_ocorrencia();
+
+CREATE TRIGGER trg_ocorrencias_remocao
+    AFTER DELETE ON ocorrencias
+    FOR EACH ROW EXECUTE FUNCTION registrar_alteracao_ocorrencia();
+
+-- Token da próxima sincronização: transações com id abaixo deste valor já terminaram.
+-- Deve ser lido antes das alterações, para que nada confirmado entre as duas leituras se perca.
+CREATE OR REPLACE FUNCTION horizonte_alteracoes()
+RETURNS BIGINT
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT pg_snapshot_xmin(pg_current_snapshot())::text::BIGINT
+$$;
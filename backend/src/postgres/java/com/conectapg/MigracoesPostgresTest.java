@@ -0,0 +1,48 @@
+package com.conectapg;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As migrações Flyway aplicadas em um banco vazio. O contexto só sobe se o schema resultante
+ * também passar pela validação do Hibernate ({@code ddl-auto: validate}).
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MigracoesPostgresTest extends PostgresTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void todas_as_migracoes_devem_estar_aplicadas() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied())
+                .extracting(MigrationInfo::getState)
+                .containsOnly(MigrationState.SUCCESS);
+    }
+
+    @Test
+    void ocorrencias_nao_deve_ter_particao_padrao() {
+        // DETACH PARTITION ... CONCURRENTLY não é permitido com partição padrão (V13)
+        Integer padrao = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = 'public.ocorrencias'::regclass "
+                        + "AND partdefid <> 0", Integer.class);
+        assertThat(padrao).isZero();
+    }
+
+    @Test
+    void deve_haver_particoes_para_os_proximos_meses() {
+        Integer criadas = jdbcTemplate.queryForObject(
+                "SELECT criar_particoes_ocorrencias(3)", Integer.class);
+        assertThat(criadas).isZero();
+    }
+}
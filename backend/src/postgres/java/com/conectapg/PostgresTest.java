@@ -0,0 +1,35 @@
+package com.conectapg;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Classe base para testes contra o PostgreSQL real, para o que o H2 de {@link ServerTest} não
+ * reproduz: as migrações Flyway, o particionamento e os comandos específicos do PostgreSQL.
+ *
+ * Só compilada e executada no perfil {@code postgres} (requer Docker):
+ * <pre>
+ * mvn -Ppostgres test -Dtest='*PostgresTest'
+ * </pre>
+ *
+ * Sem o perfil {@code test}: o schema vem das migrações e o Hibernate apenas o valida, como
+ * em produção. O contêiner é único para todas as subclasses e encerrado junto com a JVM.
+ */
+@SpringBootTest
+public abstract class PostgresTest {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
@@ -0,0 +1,105 @@
+package com.conectapg.domain.repository;
+
+import com.conectapg.PostgresTest;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.service.OcorrenciaService;
+import com.conectapg.domain.service.UsuarioService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O {@code UPDATE ... FROM usuarios ... RETURNING} de {@link ComandoTransicaoStatus}, que nos
+ * testes com H2 é substituído por {@code ComandoTransicaoStatusH2}.
+ */
+@Transactional
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class OcorrenciaRepositoryPostgresTest extends PostgresTest {
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    Long usuarioId;
+    Long aberta;
+    Long emAndamento;
+
+    @BeforeEach
+    void setup() {
+        usuarioId = criarUsuario("transicao@example.com");
+        aberta = criarOcorrencia("Aberta");
+        emAndamento = criarOcorrencia("Em andamento");
+        ocorrenciaService.atualizarStatus(emAndamento, StatusOcorrencia.EM_ANDAMENTO);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Long criarUsuario(String email) {
+        UsuarioRequest request = new UsuarioRequest();
+        request.setNome("Maria Souza");
+        request.setEmail(email);
+        request.setSenha("senha123");
+        return usuarioService.criar(request).getId();
+    }
+
+    private Long criarOcorrencia(String titulo) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(TipoOcorrencia.BURACO);
+        request.setUsuarioId(usuarioId);
+        return ocorrenciaService.criar(request).getId();
+    }
+
+    @Nested
+    class Quando_transicionar_o_status {
+
+        @Test
+        void deve_alterar_apenas_as_que_estao_no_status_esperado() {
+            List<OcorrenciaResponse> alteradas = ocorrenciaRepository.transicionarStatus(
+                    List.of(aberta, emAndamento), StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO);
+
+            assertThat(alteradas).extracting(OcorrenciaResponse::getId).containsExactly(aberta);
+            assertThat(ocorrenciaRepository.findStatusById(aberta)).contains(StatusOcorrencia.EM_ANDAMENTO);
+        }
+
+        @Test
+        void deve_devolver_as_colunas_da_ocorrencia_e_do_autor() {
+            OcorrenciaResponse alterada = ocorrenciaRepository.transicionarStatus(
+                    aberta, StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO).orElseThrow();
+
+            assertThat(alterada.getTitulo()).isEqualTo("Aberta");
+            assertThat(alterada.getLocalizacao()).isEqualTo("Rua das Flores, 123");
+            assertThat(alterada.getStatus()).isEqualTo(StatusOcorrencia.EM_ANDAMENTO);
+            assertThat(alterada.getTipo()).isEqualTo(TipoOcorrencia.BURACO);
+            assertThat(alterada.getDataAtualizacao()).isAfterOrEqualTo(alterada.getDataCriacao());
+            assertThat(alterada.getUsuario().getId()).isEqualTo(usuarioId);
+            assertThat(alterada.getUsuario().getNome()).isEqualTo("Maria Souza");
+            assertThat(alterada.getUsuario().getEmail()).isEqualTo("transicao@example.com");
+        }
+
+        @Test
+        void deve_devolver_vazio_quando_o_status_ja_mudou() {
+            assertThat(ocorrenciaRepository.transicionarStatus(
+                    emAndamento, StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.PostgresTest;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arquivamento de partições (migração V13) contra o PostgreSQL: DETACH ... CONCURRENTLY em
+ * autocommit, registros de remoção e totais. Sem @Transactional, como na execução agendada.
+ *
+ * Cada teste usa o seu próprio mês, além da retenção de 24 meses, porque partições arquivadas
+ * não voltam a ser criadas.
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ManutencaoParticoesPostgresTest extends PostgresTest {
+
+    @Autowired
+    private ManutencaoParticoes manutencao;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long criarUsuario(String email) {
+        UsuarioRequest request = new UsuarioRequest();
+        request.setNome("Usuário " + email);
+        request.setEmail(email);
+        request.setSenha("senha123");
+        return usuarioService.criar(request).getId();
+    }
+
+    private Long criarNoMes(LocalDate mes, StatusOcorrencia status, Long usuarioId) {
+        jdbcTemplate.queryForObject("SELECT criar_particoes_ocorrencias(0, ?)", Integer.class, mes);
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO ocorrencias (titulo, descricao, localizacao, status, tipo, usuario_id, data_criacao) "
+                        + "VALUES ('Antiga', 'Descrição', 'Rua das Flores, 1', ?, 'BURACO', ?, ?) RETURNING id",
+                Long.class, status.name(), usuarioId, mes.atStartOfDay().plusDays(10));
+        jdbcTemplate.update("UPDATE usuarios SET total_ocorrencias = total_ocorrencias + 1 WHERE id = ?", usuarioId);
+        return id;
+    }
+
+    private static LocalDate mesesAtras(int meses) {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(meses);
+    }
+
+    private static String particao(LocalDate mes) {
+        return "ocorrencias_" + mes.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    private boolean anexada(String nome) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'public.ocorrencias'::regclass AND c.relname = ?)",
+                Boolean.class, nome));
+    }
+
+    private boolean arquivada(String nome) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, "arquivo." + nome) != null;
+    }
+
+    private int total(Long usuarioId) {
+        return jdbcTemplate.queryForObject("SELECT total_ocorrencias FROM usuarios WHERE id = ?", Integer.class,
+                usuarioId);
+    }
+
+    @Nested
+    class Dado_uma_particao_antiga_so_com_ocorrencias_fechadas {
+
+        @Test
+        void deve_desanexar_e_mover_para_o_schema_arquivo() {
+            LocalDate mes = mesesAtras(30);
+            criarNoMes(mes, StatusOcorrencia.FECHADA, criarUsuario("arquivo1@example.com"));
+
+            assertThat(manutencao.arquivarParticoes()).isPositive();
+
+            assertThat(anexada(particao(mes))).isFalse();
+            assertThat(arquivada(particao(mes))).isTrue();
+        }
+
+        @Test
+        void deve_registrar_as_remocoes_e_descontar_os_totais() {
+            LocalDate mes = mesesAtras(31);
+            Long usuarioId = criarUsuario("arquivo2@example.com");
+            Long primeira = criarNoMes(mes, StatusOcorrencia.FECHADA, usuarioId);
+            Long segunda = criarNoMes(mes, StatusOcorrencia.FECHADA, usuarioId);
+
+            manutencao.arquivarParticoes();
+
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM ocorrencias_removidas WHERE id IN (?, ?)", Integer.class, primeira, segunda))
+                    .isEqualTo(2);
+            assertThat(total(usuarioId)).isZero();
+        }
+    }
+
+    @Nested
+    class Dado_uma_particao_antiga_com_ocorrencia_em_aberto {
+
+        @Test
+        void deve_continuar_anexada_sem_registrar_remocoes() {
+            LocalDate mes = mesesAtras(32);
+            Long usuarioId = criarUsuario("arquivo3@example.com");
+            Long aberta = criarNoMes(mes, StatusOcorrencia.ABERTA, usuarioId);
+
+            manutencao.arquivarParticoes();
+
+            assertThat(anexada(particao(mes))).isTrue();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM ocorrencias_removidas WHERE id = ?", Integer.class, aberta)).isZero();
+            assertThat(total(usuarioId)).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.conectapg;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Equivalente, no H2 dos testes, aos gatilhos e a horizonte_alteracoes() da migração V9, que
+ * usam ids de transação do PostgreSQL. Aqui a versão é um contador: os testes não têm
+ * transações concorrentes, então tudo que já recebeu versão está confirmado ou desfeito.
+ *
+ * Registrado por {@code import.sql} depois que o Hibernate cria o schema.
+ */
+public class GatilhoAlteracoesH2 implements Trigger {
+
+    private static final AtomicLong VERSAO = new AtomicLong();
+
+    private int colunaId;
+    private int colunaVersao;
+
+    public static long horizonte() {
+        return VERSAO.get() + 1;
+    }
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        try (ResultSet colunas = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (colunas.next()) {
+                int indice = colunas.getInt("ORDINAL_POSITION") - 1;
+                switch (colunas.getString("COLUMN_NAME").toLowerCase()) {
+                    case "id" -> colunaId = indice;
+                    case "versao_alteracao" -> colunaVersao = indice;
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] antiga, Object[] nova) throws SQLException {
+        if (nova != null) {
+            nova[colunaVersao] = VERSAO.incrementAndGet();
+            return;
+        }
+        try (PreparedStatement remocao = conn.prepareStatement(
+                "MERGE INTO ocorrencias_removidas (id, versao_alteracao, data_remocao) KEY (id) VALUES (?, ?, ?)")) {
+            remocao.setLong(1, ((Number) antiga[colunaId]).longValue());
+            remocao.setLong(2, VERSAO.incrementAndGet());
+            remocao.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            remocao.executeUpdate();
+        }
+    }
+}
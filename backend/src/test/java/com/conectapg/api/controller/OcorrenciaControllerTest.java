@@ -1,25 +1,52 @@
 package com.conectapg.api.controller;
 
+import com.conectapg.api.dto.AlteracaoStatusLoteRequest;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse;
+import com.conectapg.api.dto.AlteracoesResponse;
+import com.conectapg.api.dto.EstatisticasResponse;
+import com.conectapg.api.dto.LoteOcorrenciaResponse;
 import com.conectapg.api.dto.OcorrenciaRequest;
 import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.PaginaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
+import com.conectapg.api.sse.TransmissorOcorrencias;
 import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.repository.FiltroOcorrencias;
+import com.conectapg.domain.service.EstatisticasOcorrencias;
+import com.conectapg.domain.service.ExportacaoService;
+import com.conectapg.domain.service.FormatoExportacao;
 import com.conectapg.domain.service.OcorrenciaService;
+import com.conectapg.domain.service.ServicoSobrecarregadoException;
+import com.conectapg.domain.service.SincronizacaoService;
+import com.conectapg.domain.service.TransicaoStatusInvalidaException;
+import com.conectapg.domain.service.VersaoRecurso;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,14 +65,30 @@ class OcorrenciaControllerTest {
     @MockBean
     private OcorrenciaService ocorrenciaService;
 
+    @MockBean
+    private ExportacaoService exportacaoService;
+
+    @MockBean
+    private TransmissorOcorrencias transmissorOcorrencias;
+
+    @MockBean
+    private EstatisticasOcorrencias estatisticasOcorrencias;
+
+    @MockBean
+    private SincronizacaoService sincronizacaoService;
+
     @Nested
     class Dado_uma_ocorrencia_valida {
 
         OcorrenciaRequest ocorrenciaRequest;
         OcorrenciaResponse ocorrenciaResponse;
+        VersaoRecurso versaoListagem = VersaoRecurso.daListagem(1, LocalDateTime.of(2024, 5, 1, 10, 0),
+                LocalDateTime.of(2024, 4, 1, 9, 0));
 
         @BeforeEach
         void setup() {
+            when(ocorrenciaService.buscarVersaoListagem(any(), any())).thenReturn(versaoListagem);
+
             ocorrenciaRequest = new OcorrenciaRequest();
             ocorrenciaRequest.setTitulo("Teste Ocorrência");
             ocorrenciaRequest.setDescricao("Descrição de teste");
@@ -98,6 +141,70 @@ class OcorrenciaControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_listar_com_filtros {
+
+            @Test
+            void deve_repassar_os_filtros_ao_servico() throws Exception {
+                FiltroOcorrencias esperado = FiltroOcorrencias.builder()
+                        .status(Ocorrencia.StatusOcorrencia.ABERTA)
+                        .tipo(Ocorrencia.TipoOcorrencia.ILUMINACAO)
+                        .dataInicio(LocalDate.of(2024, 1, 1))
+                        .build();
+                when(ocorrenciaService.buscarVersaoListagem(esperado)).thenReturn(versaoListagem);
+                when(ocorrenciaService.listar(esperado)).thenReturn(List.of(ocorrenciaResponse));
+
+                mockMvc.perform(get("/ocorrencias")
+                                .param("status", "ABERTA")
+                                .param("tipo", "ILUMINACAO")
+                                .param("dataInicio", "2024-01-01"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"" + versaoListagem.getEtag() + "\""))
+                        .andExpect(header().doesNotExist("Last-Modified"))
+                        .andExpect(jsonPath("$[0].tipo").value("ILUMINACAO"));
+
+                verify(ocorrenciaService, never()).listarTodas();
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_listar_paginado {
+
+            ResultActions resultado;
+
+            @BeforeEach
+            void setup() throws Exception {
+                PaginaResponse<OcorrenciaResponse> pagina = PaginaResponse.<OcorrenciaResponse>builder()
+                        .itens(Arrays.asList(ocorrenciaResponse))
+                        .next("cHJveGltYQ")
+                        .build();
+                when(ocorrenciaService.listarPaginado(Ocorrencia.StatusOcorrencia.ABERTA, null, "YXR1YWw", 1))
+                        .thenReturn(pagina);
+
+                resultado = mockMvc.perform(get("/ocorrencias/pagina")
+                        .param("status", "ABERTA")
+                        .param("cursor", "YXR1YWw")
+                        .param("tamanho", "1"));
+            }
+
+            @Test
+            void deve_retornar_status_ok() throws Exception {
+                resultado.andExpect(status().isOk());
+            }
+
+            @Test
+            void deve_retornar_itens_da_pagina() throws Exception {
+                resultado.andExpect(jsonPath("$.itens[0].titulo").value("Teste Ocorrência"));
+            }
+
+            @Test
+            void deve_retornar_cursor_da_proxima_pagina() throws Exception {
+                resultado.andExpect(jsonPath("$.next").value("cHJveGltYQ"));
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_buscar_por_id {
@@ -121,6 +228,81 @@ class OcorrenciaControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_buscar_por_id_com_versao_conhecida {
+
+            VersaoRecurso versao;
+
+            @BeforeEach
+            void setup() {
+                versao = VersaoRecurso.daOcorrencia(ocorrenciaResponse);
+                when(ocorrenciaService.buscarVersao(1L)).thenReturn(Optional.of(versao));
+                when(ocorrenciaService.buscarPorId(1L, versao)).thenReturn(ocorrenciaResponse);
+            }
+
+            @Test
+            void deve_retornar_etag_e_last_modified() throws Exception {
+                mockMvc.perform(get("/ocorrencias/1"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"" + versao.getEtag() + "\""))
+                        .andExpect(header().exists("Last-Modified"))
+                        .andExpect(jsonPath("$.titulo").value("Teste Ocorrência"));
+            }
+
+            @Test
+            void deve_responder_not_modified_sem_carregar_a_ocorrencia() throws Exception {
+                mockMvc.perform(get("/ocorrencias/1").header("If-None-Match", "\"" + versao.getEtag() + "\""))
+                        .andExpect(status().isNotModified())
+                        .andExpect(content().string(""));
+
+                verify(ocorrenciaService).buscarVersao(1L);
+                verifyNoMoreInteractions(ocorrenciaService);
+            }
+
+            @Test
+            void deve_mudar_a_etag_quando_o_autor_for_renomeado() {
+                ocorrenciaResponse.getUsuario().setNome("Outro Nome");
+
+                assertThat(VersaoRecurso.daOcorrencia(ocorrenciaResponse).getEtag()).isNotEqualTo(versao.getEtag());
+            }
+
+            @Test
+            void deve_retornar_o_corpo_quando_a_etag_for_antiga() throws Exception {
+                mockMvc.perform(get("/ocorrencias/1").header("If-None-Match", "\"1-antiga\""))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id").value(1));
+
+                verify(ocorrenciaService).buscarPorId(1L, versao);
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_listar_com_if_none_match {
+
+            @Test
+            void deve_responder_not_modified_para_a_listagem_inalterada() throws Exception {
+                mockMvc.perform(get("/ocorrencias/status/ABERTA")
+                                .header("If-None-Match", "\"" + versaoListagem.getEtag() + "\""))
+                        .andExpect(status().isNotModified());
+
+                verify(ocorrenciaService).buscarVersaoListagem(Ocorrencia.StatusOcorrencia.ABERTA, null);
+                verify(ocorrenciaService, never()).buscarPorStatus(any());
+            }
+
+            @Test
+            void deve_ignorar_if_modified_since_sem_etag() throws Exception {
+                when(ocorrenciaService.buscarPorStatus(Ocorrencia.StatusOcorrencia.ABERTA))
+                        .thenReturn(List.of(ocorrenciaResponse));
+
+                mockMvc.perform(get("/ocorrencias/status/ABERTA")
+                                .header("If-Modified-Since", "Wed, 01 Jan 2031 00:00:00 GMT"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().doesNotExist("Last-Modified"));
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_buscar_por_status {
@@ -207,6 +389,166 @@ class OcorrenciaControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_buscar_por_localizacao_similar {
+
+            ResultActions resultado;
+
+            @BeforeEach
+            void setup() throws Exception {
+                when(ocorrenciaService.buscarPorLocalizacaoSimilar("av teste", PageRequest.of(1, 5)))
+                        .thenReturn(Arrays.asList(ocorrenciaResponse));
+
+                resultado = mockMvc.perform(get("/ocorrencias/localizacao/busca")
+                        .param("termo", "av teste")
+                        .param("page", "1")
+                        .param("size", "5"));
+            }
+
+            @Test
+            void deve_retornar_status_ok() throws Exception {
+                resultado.andExpect(status().isOk());
+            }
+
+            @Test
+            void deve_repassar_termo_e_pagina_para_o_servico() throws Exception {
+                resultado.andExpect(jsonPath("$[0].localizacao").value("Local de teste"));
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_exportar_ocorrencias {
+
+            @Test
+            void deve_enviar_csv_como_anexo_com_os_filtros_informados() throws Exception {
+                MvcResult iniciado = mockMvc.perform(get("/ocorrencias/export")
+                                .param("format", "csv")
+                                .param("status", "ABERTA")
+                                .param("tipo", "BURACO")
+                                .param("dataInicio", "2024-01-01")
+                                .param("dataFim", "2024-01-31"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(iniciado))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                        .andExpect(header().string("Content-Disposition", "attachment; filename=\"ocorrencias.csv\""));
+
+                verify(exportacaoService).exportar(eq(Ocorrencia.StatusOcorrencia.ABERTA),
+                        eq(Ocorrencia.TipoOcorrencia.BURACO), eq(LocalDate.of(2024, 1, 1)),
+                        eq(LocalDate.of(2024, 1, 31)), eq(FormatoExportacao.CSV), any());
+            }
+
+            @Test
+            void deve_usar_ndjson_quando_o_formato_nao_for_informado() throws Exception {
+                MvcResult iniciado = mockMvc.perform(get("/ocorrencias/export"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(iniciado))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+
+                verify(exportacaoService).exportar(eq(null), eq(null), eq(null), eq(null),
+                        eq(FormatoExportacao.NDJSON), any());
+            }
+
+            @Test
+            void deve_responder_503_sem_vaga_de_exportacao() throws Exception {
+                when(exportacaoService.reservarVaga())
+                        .thenThrow(new ServicoSobrecarregadoException("Muitas exportações em andamento"));
+
+                mockMvc.perform(get("/ocorrencias/export"))
+                        .andExpect(status().isServiceUnavailable());
+
+                verify(exportacaoService, never()).exportar(any(), any(), any(), any(), any(), any());
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_acompanhar_o_feed_de_alteracoes {
+
+            @Test
+            void deve_abrir_conexao_sse_com_os_filtros_informados() throws Exception {
+                when(transmissorOcorrencias.assinar(any(), any())).thenReturn(new SseEmitter());
+
+                mockMvc.perform(get("/ocorrencias/stream")
+                                .param("status", "ABERTA", "EM_ANDAMENTO")
+                                .param("tipo", "LIXO"))
+                        .andExpect(request().asyncStarted());
+
+                verify(transmissorOcorrencias).assinar(
+                        Set.of(Ocorrencia.StatusOcorrencia.ABERTA, Ocorrencia.StatusOcorrencia.EM_ANDAMENTO),
+                        Set.of(Ocorrencia.TipoOcorrencia.LIXO));
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_consultar_as_estatisticas {
+
+            @Test
+            void deve_retornar_as_contagens_do_painel() throws Exception {
+                when(estatisticasOcorrencias.consultar()).thenReturn(EstatisticasResponse.builder()
+                        .total(3)
+                        .porStatus(Map.of(Ocorrencia.StatusOcorrencia.ABERTA, 2L,
+                                Ocorrencia.StatusOcorrencia.FECHADA, 1L))
+                        .porTipo(Map.of(Ocorrencia.TipoOcorrencia.BURACO, 3L))
+                        .porDia(Map.of(LocalDate.of(2024, 1, 15), 3L))
+                        .build());
+
+                mockMvc.perform(get("/ocorrencias/stats"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.total").value(3))
+                        .andExpect(jsonPath("$.porStatus.ABERTA").value(2))
+                        .andExpect(jsonPath("$.porTipo.BURACO").value(3))
+                        .andExpect(jsonPath("$.porDia['2024-01-15']").value(3));
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_sincronizar_desde_um_token {
+
+            @Test
+            void deve_retornar_alteracoes_remocoes_e_o_proximo_token() throws Exception {
+                when(sincronizacaoService.alteracoesDesde("abc")).thenReturn(AlteracoesResponse.builder()
+                        .alteradas(List.of(ocorrenciaResponse))
+                        .removidas(List.of(7L))
+                        .token("def")
+                        .build());
+
+                mockMvc.perform(get("/ocorrencias/changes").param("since", "abc"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.alteradas[0].id").value(1))
+                        .andExpect(jsonPath("$.removidas[0]").value(7))
+                        .andExpect(jsonPath("$.completa").value(false))
+                        .andExpect(jsonPath("$.temMais").value(false))
+                        .andExpect(jsonPath("$.token").value("def"));
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_buscar_por_lista_de_ids {
+
+            @Test
+            void deve_retornar_os_itens_e_os_ids_nao_encontrados() throws Exception {
+                when(ocorrenciaService.buscarPorIds(List.of(1L, 9L)))
+                        .thenReturn(new ResultadoPorIdsResponse<>(List.of(ocorrenciaResponse), List.of(9L)));
+
+                mockMvc.perform(get("/ocorrencias").param("ids", "1,9"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.itens[0].id").value(1))
+                        .andExpect(jsonPath("$.naoEncontrados[0]").value(9));
+                verify(ocorrenciaService, never()).listar(any());
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_criar_ocorrencia {
@@ -234,6 +576,46 @@ class OcorrenciaControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_criar_em_lote {
+
+            ResultActions resultado;
+
+            @BeforeEach
+            void setup() throws Exception {
+                LoteOcorrenciaResponse lote = LoteOcorrenciaResponse.builder()
+                        .criadas(1)
+                        .rejeitadas(1)
+                        .itens(Arrays.asList(
+                                LoteOcorrenciaResponse.ResultadoItem.builder()
+                                        .indice(0).status(LoteOcorrenciaResponse.StatusItem.CRIADA).id(1L).build(),
+                                LoteOcorrenciaResponse.ResultadoItem.builder()
+                                        .indice(1).status(LoteOcorrenciaResponse.StatusItem.REJEITADA)
+                                        .erro("Usuário não encontrado com id: 2").build()))
+                        .build();
+                when(ocorrenciaService.criarEmLote(any())).thenReturn(lote);
+
+                resultado = mockMvc.perform(post("/ocorrencias/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(ocorrenciaRequest, ocorrenciaRequest))));
+            }
+
+            @Test
+            void deve_retornar_status_ok() throws Exception {
+                resultado.andExpect(status().isOk());
+            }
+
+            @Test
+            void deve_retornar_resultado_de_cada_item() throws Exception {
+                resultado.andExpect(jsonPath("$.criadas").value(1))
+                        .andExpect(jsonPath("$.itens[0].id").value(1))
+                        .andExpect(jsonPath("$.itens[1].status").value("REJEITADA"))
+                        .andExpect(jsonPath("$.itens[1].erro").value("Usuário não encontrado com id: 2"));
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_atualizar_ocorrencia {
@@ -300,6 +682,79 @@ class OcorrenciaControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_a_transicao_de_status_for_recusada {
+
+            @Test
+            void deve_retornar_status_conflict() throws Exception {
+                when(ocorrenciaService.atualizarStatus(1L, Ocorrencia.StatusOcorrencia.FECHADA))
+                        .thenThrow(new TransicaoStatusInvalidaException(1L, Ocorrencia.StatusOcorrencia.ABERTA,
+                                Ocorrencia.StatusOcorrencia.FECHADA));
+
+                mockMvc.perform(patch("/ocorrencias/1/status")
+                                .with(csrf())
+                                .param("status", "FECHADA"))
+                        .andExpect(status().isConflict());
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_atualizar_status_em_lote {
+
+            ResultActions resultado;
+
+            @BeforeEach
+            void setup() throws Exception {
+                AlteracaoStatusLoteResponse lote = AlteracaoStatusLoteResponse.builder()
+                        .atualizadas(1)
+                        .rejeitadas(1)
+                        .itens(Arrays.asList(
+                                AlteracaoStatusLoteResponse.ResultadoItem.builder()
+                                        .id(1L)
+                                        .resultado(AlteracaoStatusLoteResponse.ResultadoAlteracao.ATUALIZADA)
+                                        .status(Ocorrencia.StatusOcorrencia.FECHADA).build(),
+                                AlteracaoStatusLoteResponse.ResultadoItem.builder()
+                                        .id(2L)
+                                        .resultado(AlteracaoStatusLoteResponse.ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA)
+                                        .status(Ocorrencia.StatusOcorrencia.ABERTA).build()))
+                        .build();
+                when(ocorrenciaService.atualizarStatusEmLote(any())).thenReturn(lote);
+
+                resultado = mockMvc.perform(patch("/ocorrencias/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(AlteracaoStatusLoteRequest.builder()
+                                .status(Ocorrencia.StatusOcorrencia.FECHADA)
+                                .ids(List.of(1L, 2L))
+                                .build())));
+            }
+
+            @Test
+            void deve_retornar_status_ok() throws Exception {
+                resultado.andExpect(status().isOk());
+            }
+
+            @Test
+            void deve_retornar_resultado_de_cada_ocorrencia() throws Exception {
+                resultado.andExpect(jsonPath("$.atualizadas").value(1))
+                        .andExpect(jsonPath("$.itens[0].resultado").value("ATUALIZADA"))
+                        .andExpect(jsonPath("$.itens[1].id").value(2))
+                        .andExpect(jsonPath("$.itens[1].resultado").value("TRANSICAO_NAO_PERMITIDA"))
+                        .andExpect(jsonPath("$.itens[1].status").value("ABERTA"));
+            }
+
+            @Test
+            void deve_rejeitar_requisicao_sem_status_de_destino() throws Exception {
+                mockMvc.perform(patch("/ocorrencias/status")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"ids\":[1,2]}"))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_deletar_ocorrencia {
@@ -0,0 +1,155 @@
+package com.conectapg.api.controller;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import com.conectapg.domain.service.OcorrenciaService;
+import com.conectapg.domain.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Com {@code spring.jpa.open-in-view: false} não há sessão do Hibernate fora das transações
+ * dos serviços: qualquer inicialização lazy durante a serialização da resposta falharia com
+ * {@link LazyInitializationException}. Estes testes percorrem os endpoints de ocorrências e
+ * conferem que todos os dados chegam carregados pelo plano de busca de cada consulta.
+ *
+ * Sem @Transactional, para que cada requisição use apenas as transações do serviço.
+ */
+@AutoConfigureMockMvc
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SessaoRequisicaoIntegrationTest extends ServerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    Long usuarioId;
+    Long ocorrenciaId;
+    Statistics estatisticas;
+
+    @BeforeEach
+    void setup() {
+        limparBanco();
+        UsuarioRequest usuarioRequest = new UsuarioRequest();
+        usuarioRequest.setNome("João Silva");
+        usuarioRequest.setEmail("joao@example.com");
+        usuarioRequest.setSenha("senha123");
+        usuarioId = usuarioService.criar(usuarioRequest).getId();
+        ocorrenciaId = ocorrenciaService.criar(novaOcorrencia("Poste queimado")).getId();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void limparBanco() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private OcorrenciaRequest novaOcorrencia(String titulo) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(TipoOcorrencia.ILUMINACAO);
+        request.setUsuarioId(usuarioId);
+        return request;
+    }
+
+    @Test
+    void nao_deve_registrar_a_sessao_por_requisicao() {
+        assertThat(applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void acesso_lazy_fora_de_transacao_deve_falhar() {
+        Ocorrencia ocorrencia = ocorrenciaRepository.findById(ocorrenciaId).orElseThrow();
+
+        assertThatThrownBy(() -> ocorrencia.getUsuario().getNome())
+                .isInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    void leituras_devem_responder_com_o_autor_sem_inicializacao_lazy() throws Exception {
+        mockMvc.perform(get("/ocorrencias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].usuario.nome").value("João Silva"));
+        mockMvc.perform(get("/ocorrencias").param("tipo", "ILUMINACAO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].usuario.nome").value("João Silva"));
+        mockMvc.perform(get("/ocorrencias/pagina"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].usuario.nome").value("João Silva"));
+        mockMvc.perform(get("/ocorrencias/{id}", ocorrenciaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario.email").value("joao@example.com"));
+        mockMvc.perform(get("/ocorrencias/usuario/{usuarioId}", usuarioId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].usuario.nome").value("João Silva"));
+
+        assertThat(estatisticas.getEntityFetchCount()).as("inicializações lazy").isZero();
+    }
+
+    @Test
+    void alteracoes_devem_responder_com_o_autor_sem_inicializacao_lazy() throws Exception {
+        mockMvc.perform(post("/ocorrencias")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(novaOcorrencia("Buraco na via"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.usuario.nome").value("João Silva"));
+        mockMvc.perform(put("/ocorrencias/{id}", ocorrenciaId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(novaOcorrencia("Poste trocado"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario.nome").value("João Silva"));
+        mockMvc.perform(patch("/ocorrencias/{id}/status", ocorrenciaId).param("status", "EM_ANDAMENTO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario.nome").value("João Silva"));
+        mockMvc.perform(delete("/ocorrencias/{id}", ocorrenciaId))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(estatisticas.getEntityFetchCount()).as("inicializações lazy").isZero();
+    }
+}
@@ -1,14 +1,19 @@
 package com.conectapg.api.controller;
 
+import com.conectapg.api.dto.ExpurgoResponse;
+import com.conectapg.api.dto.PaginaNumeradaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
 import com.conectapg.api.dto.UsuarioRequest;
 import com.conectapg.api.dto.UsuarioResponse;
 import com.conectapg.domain.model.Usuario;
+import com.conectapg.domain.service.ExpurgoUsuarioService;
 import com.conectapg.domain.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,7 +24,9 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +45,13 @@ class UsuarioControllerTest {
     @MockBean
     private UsuarioService usuarioService;
 
+    @MockBean
+    private ExpurgoUsuarioService expurgoUsuarioService;
+
+    private static PaginaNumeradaResponse<UsuarioResponse> pagina(UsuarioResponse... usuarios) {
+        return new PaginaNumeradaResponse<>(Arrays.asList(usuarios), 0, 50, false);
+    }
+
     @Nested
     class Dado_um_usuario_valido {
 
@@ -72,8 +86,7 @@ class UsuarioControllerTest {
 
             @BeforeEach
             void setup() throws Exception {
-                List<UsuarioResponse> usuarios = Arrays.asList(usuarioResponse);
-                when(usuarioService.listarTodos()).thenReturn(usuarios);
+                when(usuarioService.listarTodos(any(Pageable.class))).thenReturn(pagina(usuarioResponse));
                 
                 resultado = mockMvc.perform(get("/usuarios"));
             }
@@ -85,12 +98,23 @@ class UsuarioControllerTest {
 
             @Test
             void deve_retornar_lista_com_nome_correto() throws Exception {
-                resultado.andExpect(jsonPath("$[0].nome").value("João Silva"));
+                resultado.andExpect(jsonPath("$.itens[0].nome").value("João Silva"));
             }
 
             @Test
             void deve_retornar_lista_com_email_correto() throws Exception {
-                resultado.andExpect(jsonPath("$[0].email").value("joao@example.com"));
+                resultado.andExpect(jsonPath("$.itens[0].email").value("joao@example.com"));
+            }
+
+            @Test
+            void deve_informar_se_ha_proxima_pagina() throws Exception {
+                resultado.andExpect(jsonPath("$.temProxima").value(false))
+                        .andExpect(jsonPath("$.pagina").value(0));
+            }
+
+            @Test
+            void deve_paginar_com_tamanho_padrao() {
+                verify(usuarioService).listarTodos(argThat(p -> p.getPageNumber() == 0 && p.getPageSize() == 50));
             }
         }
 
@@ -122,6 +146,22 @@ class UsuarioControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_buscar_por_lista_de_ids {
+
+            @Test
+            void deve_retornar_os_itens_e_os_ids_nao_encontrados() throws Exception {
+                when(usuarioService.buscarPorIds(List.of(1L, 9L)))
+                        .thenReturn(new ResultadoPorIdsResponse<>(List.of(usuarioResponse), List.of(9L)));
+
+                mockMvc.perform(get("/usuarios").param("ids", "1,9"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                        .andExpect(jsonPath("$.naoEncontrados[0]").value(9));
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_buscar_por_email {
@@ -145,6 +185,21 @@ class UsuarioControllerTest {
             }
         }
 
+        @Nested
+        @WithMockUser
+        class Quando_verificar_disponibilidade_do_email {
+
+            @Test
+            void deve_informar_se_o_email_esta_livre() throws Exception {
+                when(usuarioService.emailDisponivel("novo@example.com")).thenReturn(true);
+
+                mockMvc.perform(get("/usuarios/email/disponivel").param("email", "novo@example.com"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.email").value("novo@example.com"))
+                        .andExpect(jsonPath("$.disponivel").value(true));
+            }
+        }
+
         @Nested
         @WithMockUser
         class Quando_buscar_por_tipo {
@@ -163,8 +218,8 @@ class UsuarioControllerTest {
                         .totalOcorrencias(0)
                         .build();
 
-                List<UsuarioResponse> usuarios = Arrays.asList(usuarioAdmin);
-                when(usuarioService.buscarPorTipo(Usuario.TipoUsuario.ADMIN)).thenReturn(usuarios);
+                when(usuarioService.buscarPorTipo(eq(Usuario.TipoUsuario.ADMIN), any(Pageable.class)))
+                        .thenReturn(pagina(usuarioAdmin));
                 
                 resultado = mockMvc.perform(get("/usuarios/tipo/ADMIN"));
             }
@@ -176,12 +231,30 @@ class UsuarioControllerTest {
 
             @Test
             void deve_retornar_usuarios_do_tipo_especificado() throws Exception {
-                resultado.andExpect(jsonPath("$[0].tipo").value("ADMIN"));
+                resultado.andExpect(jsonPath("$.itens[0].tipo").value("ADMIN"));
             }
 
             @Test
             void deve_retornar_nome_do_usuario() throws Exception {
-                resultado.andExpect(jsonPath("$[0].nome").value("Admin Sistema"));
+                resultado.andExpect(jsonPath("$.itens[0].nome").value("Admin Sistema"));
+            }
+        }
+
+        @Nested
+        @WithMockUser
+        class Quando_buscar_por_tipo_com_paginacao {
+
+            @BeforeEach
+            void setup() throws Exception {
+                mockMvc.perform(get("/usuarios/tipo/CIDADAO")
+                        .param("page", "2")
+                        .param("size", "10"));
+            }
+
+            @Test
+            void deve_repassar_pagina_solicitada_ao_servico() {
+                verify(usuarioService).buscarPorTipo(eq(Usuario.TipoUsuario.CIDADAO),
+                        argThat(p -> p.getPageNumber() == 2 && p.getPageSize() == 10));
             }
         }
 
@@ -193,8 +266,7 @@ class UsuarioControllerTest {
 
             @BeforeEach
             void setup() throws Exception {
-                List<UsuarioResponse> usuarios = Arrays.asList(usuarioResponse);
-                when(usuarioService.buscarAtivos()).thenReturn(usuarios);
+                when(usuarioService.buscarAtivos(any(Pageable.class))).thenReturn(pagina(usuarioResponse));
                 
                 resultado = mockMvc.perform(get("/usuarios/ativos"));
             }
@@ -206,12 +278,12 @@ class UsuarioControllerTest {
 
             @Test
             void deve_retornar_apenas_usuarios_ativos() throws Exception {
-                resultado.andExpect(jsonPath("$[0].ativo").value(true));
+                resultado.andExpect(jsonPath("$.itens[0].ativo").value(true));
             }
 
             @Test
             void deve_retornar_nome_do_usuario() throws Exception {
-                resultado.andExpect(jsonPath("$[0].nome").value("João Silva"));
+                resultado.andExpect(jsonPath("$.itens[0].nome").value("João Silva"));
             }
         }
 
@@ -326,6 +398,36 @@ class UsuarioControllerTest {
                 resultado.andExpect(status().isNoContent());
             }
         }
+
+        @Nested
+        @WithMockUser
+        class Quando_expurgar_usuario {
+
+            ResultActions resultado;
+
+            @BeforeEach
+            void setup() throws Exception {
+                when(expurgoUsuarioService.iniciar(1L)).thenReturn(ExpurgoResponse.builder()
+                        .usuarioId(1L)
+                        .situacao(ExpurgoResponse.SituacaoExpurgo.EM_ANDAMENTO)
+                        .totalOcorrencias(50_000)
+                        .build());
+
+                resultado = mockMvc.perform(post("/usuarios/1/expurgo").with(csrf()));
+            }
+
+            @Test
+            void deve_retornar_status_accepted_com_a_url_do_progresso() throws Exception {
+                resultado.andExpect(status().isAccepted())
+                        .andExpect(header().string("Location", "http://localhost/usuarios/1/expurgo"));
+            }
+
+            @Test
+            void deve_retornar_o_progresso_inicial() throws Exception {
+                resultado.andExpect(jsonPath("$.situacao").value("EM_ANDAMENTO"))
+                        .andExpect(jsonPath("$.totalOcorrencias").value(50_000));
+            }
+        }
     }
 
     @Nested
@@ -0,0 +1,116 @@
+package com.conectapg.api.sse;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import com.conectapg.domain.service.OcorrenciaService;
+import com.conectapg.domain.service.UsuarioService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Testes de integração do feed SSE: os eventos só chegam aos assinantes depois do commit.
+ *
+ * Sem @Transactional, para que as transações do serviço sejam de fato confirmadas.
+ */
+@AutoConfigureMockMvc
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TransmissorOcorrenciasIntegrationTest extends ServerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    Long usuarioId;
+
+    @BeforeEach
+    void setup() {
+        limparBanco();
+        UsuarioRequest usuarioRequest = new UsuarioRequest();
+        usuarioRequest.setNome("João Silva");
+        usuarioRequest.setEmail("joao@example.com");
+        usuarioRequest.setSenha("senha123");
+        usuarioId = usuarioService.criar(usuarioRequest).getId();
+    }
+
+    @AfterEach
+    void limparBanco() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private OcorrenciaRequest novaOcorrencia(String titulo, TipoOcorrencia tipo) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(tipo);
+        request.setUsuarioId(usuarioId);
+        return request;
+    }
+
+    private MockHttpServletResponse assinar(String tipo) throws Exception {
+        return mockMvc.perform(get("/ocorrencias/stream").param("tipo", tipo))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    @Test
+    void deve_transmitir_criacao_mudanca_de_status_e_remocao() throws Exception {
+        MockHttpServletResponse feed = assinar("BURACO");
+
+        Long id = ocorrenciaService.criar(novaOcorrencia("Buraco na rua", TipoOcorrencia.BURACO)).getId();
+        ocorrenciaService.atualizarStatus(id, StatusOcorrencia.EM_ANDAMENTO);
+        ocorrenciaService.deletar(id);
+
+        await().untilAsserted(() -> assertThat(feed.getContentAsString())
+                .containsSubsequence("event:ocorrencia-criada", "\"id\":" + id,
+                        "event:ocorrencia-status-alterado", "EM_ANDAMENTO",
+                        "event:ocorrencia-removida", "\"id\":" + id));
+    }
+
+    @Test
+    void nao_deve_transmitir_alteracoes_revertidas_nem_fora_do_filtro() throws Exception {
+        MockHttpServletResponse feed = assinar("LIXO");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ocorrenciaService.criar(novaOcorrencia("Lixo revertido", TipoOcorrencia.LIXO));
+            status.setRollbackOnly();
+        });
+        ocorrenciaService.criar(novaOcorrencia("Buraco fora do filtro", TipoOcorrencia.BURACO));
+        ocorrenciaService.criar(novaOcorrencia("Lixo confirmado", TipoOcorrencia.LIXO));
+
+        await().untilAsserted(() -> assertThat(feed.getContentAsString()).contains("Lixo confirmado"));
+        assertThat(feed.getContentAsString())
+                .doesNotContain("Lixo revertido")
+                .doesNotContain("Buraco fora do filtro");
+    }
+}
@@ -0,0 +1,281 @@
+package com.conectapg.api.sse;
+
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.service.OcorrenciaEvento;
+import com.conectapg.domain.service.OcorrenciaEvento.TipoEvento;
+import com.conectapg.domain.service.ServicoSobrecarregadoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TransmissorOcorrenciasTest {
+
+    ConectaPgProperties properties;
+    SimpleMeterRegistry meterRegistry;
+    List<EmitterDeTeste> emitters;
+    TransmissorOcorrencias transmissor;
+
+    /** Registra o que seria escrito na conexão; opcionalmente trava no envio, como um cliente lento. */
+    static class EmitterDeTeste extends SseEmitter {
+
+        final List<String> enviados = new CopyOnWriteArrayList<>();
+        final CountDownLatch liberar;
+        volatile boolean concluido;
+
+        EmitterDeTeste(boolean lento) {
+            this.liberar = new CountDownLatch(lento ? 1 : 0);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            enviados.add(items.stream().map(d -> d.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            concluido = true;
+        }
+
+        boolean recebeu(String trecho) {
+            return enviados.stream().anyMatch(e -> e.contains(trecho));
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        properties = new ConectaPgProperties();
+        properties.getEventos().setCapacidadeFila(3);
+        properties.getEventos().setMaximoAssinantes(2);
+        properties.getEventos().setIntervaloHeartbeat(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        emitters = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void encerrar() {
+        transmissor.encerrar();
+    }
+
+    private void criarTransmissor(boolean lento) {
+        criarTransmissor(() -> lento);
+    }
+
+    /** Cada assinatura pergunta a {@code lentos} se o seu emitter trava no envio. */
+    private void criarTransmissor(BooleanSupplier lentos) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        transmissor = new TransmissorOcorrencias(properties, objectMapper, meterRegistry) {
+            @Override
+            SseEmitter criarEmitter(long tempoMaximo) {
+                EmitterDeTeste emitter = new EmitterDeTeste(lentos.getAsBoolean());
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private OcorrenciaEvento evento(long id, StatusOcorrencia status, TipoOcorrencia tipo) {
+        return OcorrenciaEvento.de(TipoEvento.CRIADA, OcorrenciaResponse.builder()
+                .id(id)
+                .status(status)
+                .tipo(tipo)
+                .build());
+    }
+
+    @Nested
+    class Dado_assinantes_com_filtros_diferentes {
+
+        EmitterDeTeste todos;
+        EmitterDeTeste soLixo;
+
+        @BeforeEach
+        void setup() {
+            criarTransmissor(false);
+            transmissor.assinar(null, null);
+            transmissor.assinar(Set.of(StatusOcorrencia.ABERTA), Set.of(TipoOcorrencia.LIXO));
+            todos = emitters.get(0);
+            soLixo = emitters.get(1);
+        }
+
+        @Test
+        void deve_entregar_a_cada_assinante_apenas_o_que_passa_no_filtro() {
+            transmissor.publicar(evento(1L, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+            transmissor.publicar(evento(2L, StatusOcorrencia.ABERTA, TipoOcorrencia.LIXO));
+
+            await().untilAsserted(() -> {
+                assertThat(todos.recebeu("\"id\":1")).isTrue();
+                assertThat(todos.recebeu("\"id\":2")).isTrue();
+                assertThat(soLixo.recebeu("\"id\":2")).isTrue();
+            });
+            assertThat(soLixo.recebeu("\"id\":1")).isFalse();
+        }
+
+        @Test
+        void deve_avisar_quem_acompanha_o_status_de_origem_quando_a_ocorrencia_sai_dele() {
+            transmissor.publicar(OcorrenciaEvento.statusAlterado(StatusOcorrencia.ABERTA, List.of(
+                    OcorrenciaResponse.builder()
+                            .id(3L)
+                            .status(StatusOcorrencia.EM_ANDAMENTO)
+                            .tipo(TipoOcorrencia.LIXO)
+                            .build())));
+
+            await().untilAsserted(() -> assertThat(soLixo.recebeu("\"id\":3")).isTrue());
+            assertThat(soLixo.recebeu("event:ocorrencia-status-alterado")).isTrue();
+        }
+
+        @Test
+        void nao_deve_entregar_mudancas_de_status_fora_do_filtro() {
+            transmissor.publicar(OcorrenciaEvento.statusAlterado(StatusOcorrencia.EM_ANDAMENTO, List.of(
+                    OcorrenciaResponse.builder()
+                            .id(4L)
+                            .status(StatusOcorrencia.RESOLVIDA)
+                            .tipo(TipoOcorrencia.LIXO)
+                            .build())));
+
+            await().untilAsserted(() -> assertThat(todos.recebeu("\"id\":4")).isTrue());
+            assertThat(soLixo.recebeu("\"id\":4")).isFalse();
+        }
+
+        @Test
+        void deve_nomear_o_evento_pelo_tipo_de_alteracao() {
+            transmissor.publicar(evento(1L, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+
+            await().untilAsserted(() -> assertThat(todos.recebeu("event:ocorrencia-criada")).isTrue());
+        }
+
+        @Test
+        void deve_recusar_assinantes_acima_do_limite() {
+            assertThatThrownBy(() -> transmissor.assinar(null, null))
+                    .isInstanceOf(ServicoSobrecarregadoException.class);
+        }
+    }
+
+    @Nested
+    class Dado_um_assinante_que_nao_consome_os_eventos {
+
+        EmitterDeTeste lento;
+
+        @BeforeEach
+        void setup() {
+            criarTransmissor(true);
+            transmissor.assinar(null, null);
+            lento = emitters.get(0);
+        }
+
+        @Test
+        void deve_desconectar_o_assinante_quando_a_fila_encher() {
+            for (long id = 1; id <= 10; id++) {
+                transmissor.publicar(evento(id, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+            }
+
+            // A escrita travada é interrompida e o próprio envio conclui o emitter
+            await().untilAsserted(() -> assertThat(lento.concluido).isTrue());
+            assertThat(transmissor.totalAssinantes()).isZero();
+            assertThat(meterRegistry.get("conectapg.eventos.descartados").counter().count()).isEqualTo(1);
+            lento.liberar.countDown();
+        }
+
+        @Test
+        void nao_deve_bloquear_quem_publica() {
+            long inicio = System.nanoTime();
+            for (long id = 1; id <= 1000; id++) {
+                transmissor.publicar(evento(id, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+            }
+
+            assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(1));
+            lento.liberar.countDown();
+        }
+    }
+
+    @Nested
+    class Dado_um_assinante_que_trava_na_escrita {
+
+        EmitterDeTeste travado;
+        EmitterDeTeste rapido;
+
+        private void assinarTravadoERapido() {
+            AtomicInteger assinaturas = new AtomicInteger();
+            criarTransmissor(() -> assinaturas.getAndIncrement() == 0);
+            transmissor.assinar(null, null);
+            transmissor.assinar(null, null);
+            travado = emitters.get(0);
+            rapido = emitters.get(1);
+        }
+
+        @AfterEach
+        void liberar() {
+            travado.liberar.countDown();
+        }
+
+        @Test
+        void os_demais_assinantes_devem_continuar_recebendo() {
+            properties.getEventos().setThreads(1);
+            properties.getEventos().setTempoMaximoEnvio(Duration.ofHours(1));
+            assinarTravadoERapido();
+
+            for (long id = 1; id <= 2; id++) {
+                transmissor.publicar(evento(id, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+            }
+
+            await().untilAsserted(() -> {
+                assertThat(rapido.recebeu("\"id\":1")).isTrue();
+                assertThat(rapido.recebeu("\"id\":2")).isTrue();
+            });
+            assertThat(travado.enviados).isEmpty();
+            assertThat(transmissor.totalAssinantes()).isEqualTo(2);
+        }
+
+        @Test
+        void deve_desconectar_quem_passa_do_tempo_maximo_de_envio() {
+            properties.getEventos().setTempoMaximoEnvio(Duration.ofMillis(200));
+            assinarTravadoERapido();
+
+            await().untilAsserted(() -> assertThat(travado.concluido).isTrue());
+            assertThat(transmissor.totalAssinantes()).isEqualTo(1);
+            assertThat(meterRegistry.get("conectapg.eventos.descartados").counter().count()).isEqualTo(1);
+
+            transmissor.publicar(evento(3L, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+            await().untilAsserted(() -> assertThat(rapido.recebeu("\"id\":3")).isTrue());
+            assertThat(travado.enviados).isEmpty();
+        }
+
+        @Test
+        void com_todas_as_threads_ocupadas_deve_retomar_os_envios_apos_desconectar_o_lento() {
+            properties.getEventos().setThreads(1);
+            properties.getEventos().setMaximoThreads(1);
+            properties.getEventos().setTempoMaximoEnvio(Duration.ofMillis(200));
+            // A única thread fica presa na escrita do primeiro assinante e recusa o segundo
+            assinarTravadoERapido();
+            transmissor.publicar(evento(4L, StatusOcorrencia.ABERTA, TipoOcorrencia.BURACO));
+
+            await().untilAsserted(() -> assertThat(rapido.recebeu("\"id\":4")).isTrue());
+            assertThat(travado.concluido).isTrue();
+        }
+    }
+}
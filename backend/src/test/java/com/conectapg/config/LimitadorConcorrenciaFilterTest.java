@@ -0,0 +1,106 @@
+package com.conectapg.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LimitadorConcorrenciaFilterTest {
+
+    SimpleMeterRegistry meterRegistry;
+    LimitadorConcorrenciaFilter filtro;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new LimitadorConcorrenciaFilter(1, Duration.ofMillis(100), meterRegistry);
+    }
+
+    private double vagasDisponiveis() {
+        return meterRegistry.get("conectapg.concorrencia.disponiveis").gauge().value();
+    }
+
+    @Nested
+    class Dado_vagas_disponiveis {
+
+        @Test
+        void deve_processar_a_requisicao_e_devolver_a_vaga() throws Exception {
+            MockHttpServletResponse resposta = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filtro.doFilter(new MockHttpServletRequest("GET", "/ocorrencias"), resposta, chain);
+
+            assertThat(chain.getRequest()).isNotNull();
+            assertThat(resposta.getStatus()).isEqualTo(200);
+            assertThat(vagasDisponiveis()).isEqualTo(1);
+        }
+
+        @Test
+        void deve_devolver_a_vaga_mesmo_quando_a_requisicao_falhar() {
+            FilterChain chainComErro = (request, response) -> {
+                throw new IllegalStateException("falha");
+            };
+
+            Assertions.assertThrows(IllegalStateException.class, () ->
+                    filtro.doFilter(new MockHttpServletRequest("GET", "/ocorrencias"),
+                            new MockHttpServletResponse(), chainComErro));
+
+            assertThat(vagasDisponiveis()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Dado_todas_as_vagas_ocupadas {
+
+        CountDownLatch liberar;
+
+        @BeforeEach
+        void setup() {
+            liberar = new CountDownLatch(1);
+            FilterChain chainLenta = (request, response) -> {
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            CompletableFuture.runAsync(() -> {
+                try {
+                    filtro.doFilter(new MockHttpServletRequest("GET", "/ocorrencias"),
+                            new MockHttpServletResponse(), chainLenta);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            await().atMost(Duration.ofSeconds(5)).until(() -> vagasDisponiveis() == 0);
+        }
+
+        @AfterEach
+        void liberarVaga() {
+            liberar.countDown();
+        }
+
+        @Test
+        void deve_responder_503_apos_o_tempo_maximo_de_espera() throws Exception {
+            MockHttpServletResponse resposta = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filtro.doFilter(new MockHttpServletRequest("GET", "/ocorrencias"), resposta, chain);
+
+            assertThat(resposta.getStatus()).isEqualTo(503);
+            assertThat(chain.getRequest()).isNull();
+            assertThat(meterRegistry.get("conectapg.concorrencia.rejeitadas").counter().count()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.conectapg.config;
+
+import com.conectapg.ServerTest;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Acesso aos endpoints do actuator: apenas health e info são públicos.
+ *
+ * Os testes desligam a exportação de métricas por padrão; sem ela não há /actuator/prometheus.
+ */
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SecurityConfigIntegrationTest extends ServerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Nested
+    class Dado_um_cliente_anonimo {
+
+        @Test
+        void deve_consultar_health_e_info() throws Exception {
+            mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+            mockMvc.perform(get("/actuator/info")).andExpect(status().isOk());
+        }
+
+        @Test
+        void nao_deve_ler_metricas() throws Exception {
+            mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+            mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void nao_deve_esvaziar_os_caches() throws Exception {
+            mockMvc.perform(delete("/actuator/caches")).andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class Dado_as_credenciais_do_actuator {
+
+        @Test
+        void deve_ler_metricas() throws Exception {
+            mockMvc.perform(get("/actuator/metrics").with(httpBasic("test", "test"))).andExpect(status().isOk());
+            mockMvc.perform(get("/actuator/prometheus").with(httpBasic("test", "test"))).andExpect(status().isOk());
+        }
+
+        @Test
+        void nao_deve_encontrar_o_endpoint_de_caches() throws Exception {
+            mockMvc.perform(get("/actuator/caches").with(httpBasic("test", "test"))).andExpect(status().isNotFound());
+            mockMvc.perform(delete("/actuator/caches").with(httpBasic("test", "test"))).andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    class Dado_uma_senha_incorreta {
+
+        @Test
+        void nao_deve_ler_metricas() throws Exception {
+            mockMvc.perform(get("/actuator/prometheus").with(httpBasic("test", "errada")))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+}
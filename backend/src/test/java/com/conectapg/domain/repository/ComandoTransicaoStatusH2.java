@@ -0,0 +1,27 @@
+package com.conectapg.domain.repository;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Equivalente, no H2 dos testes, ao {@code UPDATE ... RETURNING} de {@link ComandoTransicaoStatus},
+ * que o H2 não suporta: a data change delta table devolve as mesmas colunas. O comando do
+ * PostgreSQL é testado no perfil {@code postgres}.
+ */
+@Component
+@Primary
+@Profile("test")
+class ComandoTransicaoStatusH2 extends ComandoTransicaoStatus {
+
+    private static final String TRANSICAO =
+            "SELECT " + COLUNAS + " FROM FINAL TABLE (" +
+            "UPDATE ocorrencias SET status = :novo, data_atualizacao = :agora " +
+            "WHERE id IN (:ids) AND status = :esperado) o " +
+            "JOIN usuarios u ON u.id = o.usuario_id";
+
+    @Override
+    String sql() {
+        return TRANSICAO;
+    }
+}
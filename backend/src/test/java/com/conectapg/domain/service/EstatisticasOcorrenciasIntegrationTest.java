@@ -0,0 +1,142 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.EstatisticasResponse;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de integração para EstatisticasOcorrencias.
+ *
+ * Sem @Transactional: os contadores só mudam depois do commit.
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EstatisticasOcorrenciasIntegrationTest extends ServerTest {
+
+    @Autowired
+    private EstatisticasOcorrencias estatisticas;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    Long usuarioId;
+
+    @BeforeEach
+    void setup() {
+        UsuarioRequest usuario = new UsuarioRequest();
+        usuario.setNome("Usuário Painel");
+        usuario.setEmail("painel@example.com");
+        usuario.setSenha("senha123");
+        usuarioId = usuarioService.criar(usuario).getId();
+        estatisticas.reconciliar();
+    }
+
+    @AfterEach
+    void limpar() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        estatisticas.reconciliar();
+    }
+
+    private OcorrenciaResponse criar(TipoOcorrencia tipo) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo("Ocorrência do painel");
+        request.setDescricao("Descrição");
+        request.setLocalizacao("Rua das Flores, 10");
+        request.setTipo(tipo);
+        request.setUsuarioId(usuarioId);
+        return ocorrenciaService.criar(request);
+    }
+
+    @Nested
+    class Dado_ocorrencias_criadas_pelo_servico {
+
+        OcorrenciaResponse buraco;
+
+        @BeforeEach
+        void setup() {
+            buraco = criar(TipoOcorrencia.BURACO);
+            criar(TipoOcorrencia.BURACO);
+            criar(TipoOcorrencia.LIXO);
+        }
+
+        @Test
+        void deve_contar_sem_consultar_o_banco() {
+            EstatisticasResponse resposta = estatisticas.consultar();
+
+            assertThat(resposta.getTotal()).isEqualTo(3);
+            assertThat(resposta.getPorStatus()).containsEntry(StatusOcorrencia.ABERTA, 3L)
+                    .containsEntry(StatusOcorrencia.FECHADA, 0L);
+            assertThat(resposta.getPorTipo()).containsEntry(TipoOcorrencia.BURACO, 2L)
+                    .containsEntry(TipoOcorrencia.LIXO, 1L);
+            assertThat(resposta.getPorDia()).hasSize(30).containsEntry(LocalDate.now(), 3L);
+        }
+
+        @Test
+        void deve_mover_a_contagem_quando_o_status_mudar() {
+            ocorrenciaService.atualizarStatus(buraco.getId(), StatusOcorrencia.EM_ANDAMENTO);
+
+            assertThat(estatisticas.consultar().getPorStatus())
+                    .containsEntry(StatusOcorrencia.ABERTA, 2L)
+                    .containsEntry(StatusOcorrencia.EM_ANDAMENTO, 1L);
+        }
+
+        @Test
+        void deve_descontar_as_ocorrencias_removidas() {
+            ocorrenciaService.deletar(buraco.getId());
+
+            EstatisticasResponse resposta = estatisticas.consultar();
+            assertThat(resposta.getTotal()).isEqualTo(2);
+            assertThat(resposta.getPorTipo()).containsEntry(TipoOcorrencia.BURACO, 1L);
+            assertThat(resposta.getPorDia()).containsEntry(LocalDate.now(), 2L);
+        }
+
+        @Test
+        void nao_deve_contar_transicoes_recusadas() {
+            assertThatThrownBy(() -> ocorrenciaService.atualizarStatus(buraco.getId(), StatusOcorrencia.FECHADA))
+                    .isInstanceOf(TransicaoStatusInvalidaException.class);
+
+            assertThat(estatisticas.consultar().getPorStatus()).containsEntry(StatusOcorrencia.ABERTA, 3L);
+        }
+    }
+
+    @Nested
+    class Quando_o_banco_for_alterado_sem_passar_pelo_servico {
+
+        @Test
+        void deve_corrigir_as_contagens_na_reconciliacao() {
+            criar(TipoOcorrencia.VANDALISMO);
+            ocorrenciaRepository.deleteAll();
+            assertThat(estatisticas.consultar().getTotal()).isEqualTo(1);
+
+            estatisticas.reconciliar();
+
+            EstatisticasResponse resposta = estatisticas.consultar();
+            assertThat(resposta.getTotal()).isZero();
+            assertThat(resposta.getPorTipo()).containsEntry(TipoOcorrencia.VANDALISMO, 0L);
+            assertThat(resposta.getPorDia()).containsEntry(LocalDate.now(), 0L);
+            assertThat(resposta.getReconciliadoEm()).isNotNull();
+        }
+    }
+}
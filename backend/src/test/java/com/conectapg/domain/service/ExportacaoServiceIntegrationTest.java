@@ -0,0 +1,260 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.domain.model.Ocorrencia;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de integração para ExportacaoService.
+ *
+ * Usa contexto Spring completo com banco H2 em memória.
+ */
+@Transactional
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ExportacaoServiceIntegrationTest extends ServerTest {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    Long usuarioId;
+
+    @BeforeEach
+    void limparBanco() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        UsuarioRequest usuarioRequest = new UsuarioRequest();
+        usuarioRequest.setNome("Silva, João");
+        usuarioRequest.setEmail("joao@example.com");
+        usuarioRequest.setSenha("senha123");
+        usuarioId = usuarioService.criar(usuarioRequest).getId();
+    }
+
+    private OcorrenciaRequest novaOcorrencia(String titulo, TipoOcorrencia tipo, StatusOcorrencia status) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(tipo);
+        request.setStatus(status);
+        request.setUsuarioId(usuarioId);
+        return request;
+    }
+
+    private Long criarOcorrencia(String titulo, TipoOcorrencia tipo, StatusOcorrencia status) {
+        return ocorrenciaService.criar(novaOcorrencia(titulo, tipo, status)).getId();
+    }
+
+    private List<String> exportar(FormatoExportacao formato, StatusOcorrencia status, TipoOcorrencia tipo,
+                                  LocalDate dataInicio, LocalDate dataFim) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportar(status, tipo, dataInicio, dataFim, formato, saida);
+        return saida.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private List<Long> idsNdjson(List<String> linhas) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (String linha : linhas) {
+            ids.add(objectMapper.readValue(linha, OcorrenciaResponse.class).getId());
+        }
+        return ids;
+    }
+
+    @Nested
+    class Dado_ocorrencias_de_tipos_e_status_diferentes {
+
+        Long buraco;
+        Long lixo;
+        Long iluminacaoResolvida;
+
+        @BeforeEach
+        void setup() {
+            buraco = criarOcorrencia("Buraco", TipoOcorrencia.BURACO, StatusOcorrencia.ABERTA);
+            lixo = criarOcorrencia("Lixo acumulado", TipoOcorrencia.LIXO, StatusOcorrencia.ABERTA);
+            iluminacaoResolvida = criarOcorrencia("Poste \"apagado\"", TipoOcorrencia.ILUMINACAO,
+                    StatusOcorrencia.RESOLVIDA);
+        }
+
+        @Test
+        void deve_exportar_uma_linha_json_por_ocorrencia_em_ordem_de_criacao() throws IOException {
+            List<String> linhas = exportar(FormatoExportacao.NDJSON, null, null, null, null);
+
+            assertThat(idsNdjson(linhas)).containsExactly(buraco, lixo, iluminacaoResolvida);
+            OcorrenciaResponse primeira = objectMapper.readValue(linhas.get(0), OcorrenciaResponse.class);
+            assertThat(primeira.getUsuario().getNome()).isEqualTo("Silva, João");
+        }
+
+        @Test
+        void deve_exportar_csv_com_cabecalho_e_campos_escapados() throws IOException {
+            List<String> linhas = exportar(FormatoExportacao.CSV, StatusOcorrencia.RESOLVIDA, null, null, null);
+
+            assertThat(linhas).hasSize(2);
+            assertThat(linhas.get(0)).isEqualTo(ExportacaoService.CABECALHO_CSV);
+            assertThat(linhas.get(1)).startsWith(iluminacaoResolvida + ",\"Poste \"\"apagado\"\"\",")
+                    .contains(",\"Rua das Flores, 123\",RESOLVIDA,ILUMINACAO," + usuarioId + ",\"Silva, João\",");
+        }
+
+        @Test
+        void deve_filtrar_por_status_e_tipo() throws IOException {
+            assertThat(idsNdjson(exportar(FormatoExportacao.NDJSON, StatusOcorrencia.ABERTA, null, null, null)))
+                    .containsExactly(buraco, lixo);
+            assertThat(idsNdjson(exportar(FormatoExportacao.NDJSON, StatusOcorrencia.ABERTA,
+                    TipoOcorrencia.LIXO, null, null)))
+                    .containsExactly(lixo);
+        }
+
+        @Test
+        void deve_filtrar_pela_data_de_criacao_incluindo_os_dois_extremos() throws IOException {
+            LocalDate hoje = LocalDate.now();
+
+            assertThat(exportar(FormatoExportacao.NDJSON, null, null, hoje, hoje)).hasSize(3);
+            assertThat(exportar(FormatoExportacao.NDJSON, null, null, hoje.plusDays(1), null)).isEmpty();
+            assertThat(exportar(FormatoExportacao.NDJSON, null, null, null, hoje.minusDays(1))).isEmpty();
+        }
+
+        @Test
+        void deve_rejeitar_periodo_invertido() {
+            LocalDate hoje = LocalDate.now();
+
+            assertThatThrownBy(() -> exportar(FormatoExportacao.CSV, null, null, hoje, hoje.minusDays(1)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("dataInicio");
+        }
+    }
+
+    @Nested
+    class Dado_mais_ocorrencias_que_um_lote_de_exportacao {
+
+        static final int QUANTIDADE = ExportacaoService.LINHAS_POR_LOTE * 2 + 7;
+
+        List<Long> criadas;
+        Statistics estatisticas;
+
+        @BeforeEach
+        void setup() {
+            List<OcorrenciaRequest> requests = new ArrayList<>();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                requests.add(novaOcorrencia("Ocorrência " + i, TipoOcorrencia.OUTROS, StatusOcorrencia.ABERTA));
+            }
+            ocorrenciaService.criarEmLote(requests);
+            criadas = ocorrenciaRepository.findAll().stream().map(Ocorrencia::getId).sorted().toList();
+
+            entityManager.flush();
+            entityManager.clear();
+
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+        }
+
+        @Test
+        void deve_exportar_todas_as_linhas_em_uma_unica_consulta() throws IOException {
+            List<String> linhas = exportar(FormatoExportacao.NDJSON, null, null, null, null);
+
+            // Criadas no mesmo lote, compartilham a data de criação e a ordem entre elas é livre
+            assertThat(idsNdjson(linhas)).containsExactlyInAnyOrderElementsOf(criadas);
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("comandos SQL emitidos pela exportação")
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void nao_deve_acumular_entidades_no_contexto_de_persistencia() throws IOException {
+            exportar(FormatoExportacao.CSV, null, null, null, null);
+
+            assertThat(estatisticas.getEntityLoadCount()).isGreaterThanOrEqualTo(QUANTIDADE);
+            assertThat(entityManager.unwrap(Session.class)
+                    .getStatistics()
+                    .getEntityCount())
+                    .isLessThanOrEqualTo(ExportacaoService.LINHAS_POR_LOTE + 1);
+        }
+    }
+
+    @Nested
+    class Quando_reservar_vagas_de_exportacao {
+
+        @Test
+        void deve_recusar_acima_do_maximo_simultaneo_ate_uma_vaga_ser_devolvida() {
+            ExportacaoService.Vaga primeira = exportacaoService.reservarVaga();
+            ExportacaoService.Vaga segunda = exportacaoService.reservarVaga();
+            ExportacaoService.Vaga terceira = null;
+            try {
+                assertThatThrownBy(() -> exportacaoService.reservarVaga())
+                        .isInstanceOf(ServicoSobrecarregadoException.class);
+
+                primeira.close();
+                primeira.close();
+                terceira = exportacaoService.reservarVaga();
+
+                assertThatThrownBy(() -> exportacaoService.reservarVaga())
+                        .as("devolver a mesma vaga duas vezes não libera uma vaga extra")
+                        .isInstanceOf(ServicoSobrecarregadoException.class);
+            } finally {
+                segunda.close();
+                if (terceira != null) {
+                    terceira.close();
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Quando_informar_o_formato {
+
+        @Test
+        void deve_aceitar_maiusculas_e_minusculas() {
+            assertThat(FormatoExportacao.de("csv")).isEqualTo(FormatoExportacao.CSV);
+            assertThat(FormatoExportacao.de("NDJSON")).isEqualTo(FormatoExportacao.NDJSON);
+        }
+
+        @Test
+        void deve_rejeitar_formato_desconhecido() {
+            assertThatThrownBy(() -> FormatoExportacao.de("xml"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("xml");
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.ExpurgoResponse;
+import com.conectapg.api.dto.ExpurgoResponse.SituacaoExpurgo;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Testes de integração para ExpurgoUsuarioService.
+ *
+ * Sem @Transactional: o expurgo roda em outra thread e só enxerga dados já commitados.
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ExpurgoUsuarioServiceIntegrationTest extends ServerTest {
+
+    static final int TAMANHO_BLOCO = 10;
+
+    @Autowired
+    private ExpurgoUsuarioService expurgoUsuarioService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ConectaPgProperties properties;
+
+    int tamanhoBlocoOriginal;
+
+    @BeforeEach
+    void setup() {
+        tamanhoBlocoOriginal = properties.getExpurgo().getTamanhoBloco();
+        properties.getExpurgo().setTamanhoBloco(TAMANHO_BLOCO);
+    }
+
+    @AfterEach
+    void limpar() {
+        properties.getExpurgo().setTamanhoBloco(tamanhoBlocoOriginal);
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private Long criarUsuario(String email) {
+        UsuarioRequest request = new UsuarioRequest();
+        request.setNome("Usuário " + email);
+        request.setEmail(email);
+        request.setSenha("senha123");
+        return usuarioService.criar(request).getId();
+    }
+
+    private void criarOcorrencias(Long usuarioId, int quantidade) {
+        List<OcorrenciaRequest> requests = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            OcorrenciaRequest request = new OcorrenciaRequest();
+            request.setTitulo("Ocorrência " + i);
+            request.setDescricao("Descrição " + i);
+            request.setLocalizacao("Rua das Flores, " + i);
+            request.setTipo(TipoOcorrencia.LIXO);
+            request.setUsuarioId(usuarioId);
+            requests.add(request);
+        }
+        ocorrenciaService.criarEmLote(requests);
+    }
+
+    private ExpurgoResponse aguardarConclusao(Long usuarioId) {
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                expurgoUsuarioService.consultar(usuarioId).getSituacao() != SituacaoExpurgo.EM_ANDAMENTO);
+        return expurgoUsuarioService.consultar(usuarioId);
+    }
+
+    @Nested
+    class Dado_um_usuario_com_historico_grande {
+
+        static final int QUANTIDADE = TAMANHO_BLOCO * 4 + 3;
+
+        Long usuarioId;
+        Long outroUsuarioId;
+
+        @BeforeEach
+        void setup() {
+            usuarioId = criarUsuario("frequente@example.com");
+            outroUsuarioId = criarUsuario("outro@example.com");
+            criarOcorrencias(usuarioId, QUANTIDADE);
+            criarOcorrencias(outroUsuarioId, 2);
+        }
+
+        @Test
+        void deve_informar_o_total_a_remover_ao_iniciar() {
+            ExpurgoResponse inicio = expurgoUsuarioService.iniciar(usuarioId);
+
+            assertThat(inicio.getTotalOcorrencias()).isEqualTo(QUANTIDADE);
+            aguardarConclusao(usuarioId);
+        }
+
+        @Test
+        void deve_remover_as_ocorrencias_em_blocos_e_depois_o_usuario() {
+            expurgoUsuarioService.iniciar(usuarioId);
+
+            ExpurgoResponse fim = aguardarConclusao(usuarioId);
+
+            assertThat(fim.getSituacao()).isEqualTo(SituacaoExpurgo.CONCLUIDO);
+            assertThat(fim.getOcorrenciasRemovidas()).isEqualTo(QUANTIDADE);
+            assertThat(fim.getConcluidoEm()).isNotNull();
+            assertThat(usuarioRepository.existsById(usuarioId)).isFalse();
+            assertThat(ocorrenciaRepository.countByUsuarioId(usuarioId)).isZero();
+        }
+
+        @Test
+        void nao_deve_afetar_outros_usuarios() {
+            expurgoUsuarioService.iniciar(usuarioId);
+            aguardarConclusao(usuarioId);
+
+            assertThat(ocorrenciaRepository.countByUsuarioId(outroUsuarioId)).isEqualTo(2);
+            assertThat(usuarioService.buscarPorId(outroUsuarioId).getTotalOcorrencias()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class Dado_a_fila_de_expurgos_cheia {
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Autowired
+        private CacheManager cacheManager;
+
+        @Autowired
+        private FiltroEmails filtroEmails;
+
+        CountDownLatch bloqueio = new CountDownLatch(1);
+        ExpurgoUsuarioService servico;
+
+        @BeforeEach
+        void setup() {
+            ConectaPgProperties limitadas = new ConectaPgProperties();
+            limitadas.getExpurgo().setThreads(1);
+            limitadas.getExpurgo().setFilaMaxima(1);
+            // O primeiro expurgo fica parado antes do primeiro bloco até o encerramento do serviço
+            TransactionTemplate bloqueada = new TransactionTemplate(transactionManager) {
+                @Override
+                public <T> T execute(TransactionCallback<T> action) {
+                    try {
+                        bloqueio.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Expurgo encerrado pelo teste");
+                    }
+                    return super.execute(action);
+                }
+            };
+            servico = new ExpurgoUsuarioService(usuarioRepository, ocorrenciaRepository, bloqueada,
+                    cacheManager, filtroEmails, limitadas);
+        }
+
+        @AfterEach
+        void encerrar() {
+            servico.encerrar();
+        }
+
+        @Test
+        void deve_recusar_novos_expurgos_sem_registrar_progresso() {
+            Long emExecucao = criarUsuario("primeiro@example.com");
+            Long naFila = criarUsuario("segundo@example.com");
+            Long recusado = criarUsuario("terceiro@example.com");
+
+            servico.iniciar(emExecucao);
+            servico.iniciar(naFila);
+
+            assertThatThrownBy(() -> servico.iniciar(recusado))
+                    .isInstanceOf(ServicoSobrecarregadoException.class)
+                    .hasMessageContaining("Muitos expurgos na fila");
+            assertThatThrownBy(() -> servico.consultar(recusado))
+                    .hasMessageContaining("Nenhum expurgo encontrado");
+        }
+    }
+
+    @Nested
+    class Dado_um_usuario_inexistente {
+
+        @Test
+        void deve_recusar_o_expurgo() {
+            assertThatThrownBy(() -> expurgoUsuarioService.iniciar(999L))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("Usuário não encontrado");
+        }
+
+        @Test
+        void nao_deve_haver_progresso_para_consultar() {
+            assertThatThrownBy(() -> expurgoUsuarioService.consultar(999L))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("Nenhum expurgo encontrado");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.repository.UsuarioRepository;
+import com.conectapg.domain.service.FiltroEmails.FiltroBloom;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FiltroEmailsTest {
+
+    @Mock
+    UsuarioRepository usuarioRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ConectaPgProperties properties;
+    FiltroEmails filtro;
+
+    @BeforeEach
+    void setup() {
+        properties = new ConectaPgProperties();
+        properties.getFiltroEmails().setCapacidadeInicial(1_000);
+        filtro = new FiltroEmails(usuarioRepository, new TransactionTemplate(transactionManager),
+                properties, new SimpleMeterRegistry());
+    }
+
+    @Nested
+    class Dado_um_filtro_de_bloom {
+
+        static final int QUANTIDADE = 10_000;
+
+        @Test
+        void nunca_deve_negar_um_email_incluido() {
+            FiltroBloom bloom = new FiltroBloom(QUANTIDADE, 0.01);
+            IntStream.range(0, QUANTIDADE).forEach(i -> bloom.adicionar("usuario" + i + "@example.com"));
+
+            assertThat(IntStream.range(0, QUANTIDADE))
+                    .allMatch(i -> bloom.contem("usuario" + i + "@example.com"));
+        }
+
+        @Test
+        void deve_manter_os_falsos_positivos_perto_da_taxa_configurada() {
+            FiltroBloom bloom = new FiltroBloom(QUANTIDADE, 0.01);
+            IntStream.range(0, QUANTIDADE).forEach(i -> bloom.adicionar("usuario" + i + "@example.com"));
+
+            long falsos = IntStream.range(0, QUANTIDADE)
+                    .filter(i -> bloom.contem("outro" + i + "@example.org"))
+                    .count();
+
+            assertThat((double) falsos / QUANTIDADE).isLessThan(0.02);
+        }
+    }
+
+    @Nested
+    class Quando_o_filtro_ainda_nao_foi_carregado {
+
+        @Test
+        void deve_encaminhar_toda_verificacao_ao_banco() {
+            assertThat(filtro.podeExistir("qualquer@example.com")).isTrue();
+        }
+    }
+
+    @Nested
+    class Quando_o_filtro_for_carregado_da_tabela {
+
+        @BeforeEach
+        void setup() {
+            when(usuarioRepository.streamEmails()).thenReturn(Stream.of("joao@example.com", "maria@example.com"));
+            filtro.carregar();
+        }
+
+        @Test
+        void deve_descartar_emails_nao_cadastrados() {
+            assertThat(filtro.podeExistir("joao@example.com")).isTrue();
+            assertThat(filtro.podeExistir("novo@example.com")).isFalse();
+        }
+
+        @Test
+        void deve_incluir_os_emails_registrados_depois() {
+            filtro.registrar("novo@example.com");
+
+            assertThat(filtro.podeExistir("novo@example.com")).isTrue();
+        }
+
+        @Test
+        void deve_reconstruir_apenas_depois_de_remocoes() {
+            filtro.reconstruirSeNecessario();
+            verify(usuarioRepository, times(1)).streamEmails();
+
+            when(usuarioRepository.streamEmails()).thenReturn(Stream.of("maria@example.com"));
+            filtro.registrarRemocao();
+            filtro.reconstruirSeNecessario();
+
+            verify(usuarioRepository, times(2)).streamEmails();
+            assertThat(filtro.podeExistir("joao@example.com")).isFalse();
+        }
+
+        @Test
+        void deve_responder_pela_disponibilidade_apenas_dentro_da_idade_maxima() {
+            assertThat(filtro.podeExistirDesde("novo@example.com")).isFalse();
+
+            properties.getFiltroEmails().setIdadeMaxima(Duration.ZERO);
+
+            assertThat(filtro.podeExistirDesde("novo@example.com")).isTrue();
+            assertThat(filtro.podeExistir("novo@example.com")).isFalse();
+        }
+
+        @Test
+        void deve_reconstruir_depois_da_idade_maxima_para_incluir_outras_instancias() {
+            properties.getFiltroEmails().setIdadeMaxima(Duration.ZERO);
+            when(usuarioRepository.streamEmails())
+                    .thenReturn(Stream.of("joao@example.com", "maria@example.com", "outra-instancia@example.com"));
+
+            filtro.reconstruirSeNecessario();
+
+            verify(usuarioRepository, times(2)).streamEmails();
+            assertThat(filtro.podeExistir("outra-instancia@example.com")).isTrue();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ManutencaoParticoesTest {
+
+    static final String CRIAR = "SELECT criar_particoes_ocorrencias(?)";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    CacheManager cacheManager;
+
+    ConectaPgProperties properties;
+    ManutencaoParticoes manutencao;
+
+    @BeforeEach
+    void setup() {
+        properties = new ConectaPgProperties();
+        properties.getParticionamento().setMesesAFrente(2);
+        properties.getParticionamento().setRetencaoMeses(12);
+        manutencao = new ManutencaoParticoes(jdbcTemplate, cacheManager, properties);
+    }
+
+    @Nested
+    class Quando_executar_a_manutencao {
+
+        @Test
+        void deve_criar_e_arquivar() {
+            when(jdbcTemplate.queryForObject(CRIAR, Integer.class, 2)).thenReturn(1);
+            when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(0);
+
+            manutencao.executar();
+
+            verify(jdbcTemplate).queryForObject(eq(CRIAR), eq(Integer.class), eq(2));
+            verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+        }
+
+        @Test
+        void deve_arquivar_mesmo_que_a_criacao_falhe() {
+            when(jdbcTemplate.queryForObject(CRIAR, Integer.class, 2))
+                    .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+            when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(0);
+
+            manutencao.executar();
+
+            verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+        }
+    }
+
+    @Nested
+    class Quando_arquivar_particoes {
+
+        @Test
+        void deve_descartar_os_caches_de_ocorrencias_e_usuarios() {
+            Cache ocorrencias = mock(Cache.class);
+            Cache usuarios = mock(Cache.class);
+            when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(2);
+            when(cacheManager.getCache(CacheConfig.OCORRENCIAS)).thenReturn(ocorrencias);
+            when(cacheManager.getCache(CacheConfig.USUARIOS)).thenReturn(usuarios);
+
+            manutencao.arquivarParticoes();
+
+            verify(ocorrencias).clear();
+            verify(usuarios).clear();
+        }
+
+        @Test
+        void nao_deve_tocar_nos_caches_quando_nada_for_arquivado() {
+            when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(0);
+
+            manutencao.arquivarParticoes();
+
+            verify(cacheManager, never()).getCache(CacheConfig.OCORRENCIAS);
+        }
+
+        @Test
+        void deve_recusar_uma_conexao_dentro_de_transacao() throws SQLException {
+            Connection conexao = mock(Connection.class);
+            when(conexao.getAutoCommit()).thenReturn(false);
+            when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                    .thenAnswer(chamada -> chamada.<ConnectionCallback<?>>getArgument(0).doInConnection(conexao));
+
+            assertThatThrownBy(() -> manutencao.arquivarParticoes())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("dentro de uma transação");
+            verify(conexao, never()).createStatement();
+        }
+    }
+}
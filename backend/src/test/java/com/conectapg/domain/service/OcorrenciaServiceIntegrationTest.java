@@ -0,0 +1,976 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.AlteracaoStatusLoteRequest;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse.ResultadoAlteracao;
+import com.conectapg.api.dto.LoteOcorrenciaResponse;
+import com.conectapg.api.dto.LoteOcorrenciaResponse.StatusItem;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.PaginaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.api.dto.UsuarioResponse;
+import com.conectapg.config.CacheConfig;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.model.Usuario.TipoUsuario;
+import com.conectapg.domain.repository.FiltroOcorrencias;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de integração para OcorrenciaService.
+ *
+ * Usa contexto Spring completo com banco H2 em memória.
+ * Valida as consultas reais do repositório, incluindo a paginação por cursor.
+ */
+@Transactional
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class OcorrenciaServiceIntegrationTest extends ServerTest {
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Número máximo de comandos SQL aceito por chamada de listagem, independente
+     * da quantidade de linhas. Um valor maior indica N+1 ao mapear o usuário.
+     */
+    private static final long MAXIMO_CONSULTAS_POR_LISTAGEM = 1;
+
+    Long usuarioId;
+
+    @BeforeEach
+    void limparBanco() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        UsuarioRequest usuarioRequest = new UsuarioRequest();
+        usuarioRequest.setNome("João Silva");
+        usuarioRequest.setEmail("joao@example.com");
+        usuarioRequest.setSenha("senha123");
+        usuarioRequest.setTipo(TipoUsuario.CIDADAO);
+        usuarioId = usuarioService.criar(usuarioRequest).getId();
+    }
+
+    private Long criarOcorrencia(String titulo) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(TipoOcorrencia.BURACO);
+        request.setUsuarioId(usuarioId);
+        return ocorrenciaService.criar(request).getId();
+    }
+
+    private Long criarUsuario(String email) {
+        UsuarioRequest request = new UsuarioRequest();
+        request.setNome("Usuário " + email);
+        request.setEmail(email);
+        request.setSenha("senha123");
+        return usuarioService.criar(request).getId();
+    }
+
+    private List<Long> percorrerPaginas(StatusOcorrencia status, int tamanho) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaResponse<OcorrenciaResponse> pagina =
+                    ocorrenciaService.listarPaginado(status, null, cursor, tamanho);
+            assertThat(pagina.getItens()).hasSizeLessThanOrEqualTo(tamanho);
+            pagina.getItens().forEach(o -> ids.add(o.getId()));
+            cursor = pagina.getNext();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Nested
+    class Dado_varias_ocorrencias_cadastradas {
+
+        List<Long> idsEmOrdemDeCriacao;
+
+        @BeforeEach
+        void setup() {
+            idsEmOrdemDeCriacao = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) {
+                idsEmOrdemDeCriacao.add(criarOcorrencia("Ocorrência " + i));
+            }
+            ocorrenciaService.atualizarStatus(idsEmOrdemDeCriacao.get(1), StatusOcorrencia.EM_ANDAMENTO);
+            ocorrenciaService.atualizarStatus(idsEmOrdemDeCriacao.get(3), StatusOcorrencia.EM_ANDAMENTO);
+
+            // Garante que as consultas leiam os valores persistidos, e não as entidades em memória
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        @Nested
+        class Quando_percorrer_todas_as_paginas {
+
+            @Test
+            void deve_retornar_cada_ocorrencia_uma_unica_vez_da_mais_recente_para_a_mais_antiga() {
+                List<Long> esperado = new ArrayList<>(idsEmOrdemDeCriacao);
+                Collections.reverse(esperado);
+
+                assertThat(percorrerPaginas(null, 2)).containsExactlyElementsOf(esperado);
+            }
+
+            @Test
+            void nao_deve_retornar_cursor_na_ultima_pagina() {
+                PaginaResponse<OcorrenciaResponse> pagina = ocorrenciaService.listarPaginado(null, null, null, 5);
+
+                assertThat(pagina.getItens()).hasSize(5);
+                assertThat(pagina.getNext()).isNull();
+            }
+
+            @Test
+            void deve_retornar_pagina_vazia_a_partir_do_cursor_da_ultima_ocorrencia() {
+                PaginaResponse<OcorrenciaResponse> penultima = ocorrenciaService.listarPaginado(null, null, null, 4);
+                PaginaResponse<OcorrenciaResponse> ultima =
+                        ocorrenciaService.listarPaginado(null, null, penultima.getNext(), 1);
+
+                assertThat(ultima.getItens()).extracting(OcorrenciaResponse::getId)
+                        .containsExactly(idsEmOrdemDeCriacao.get(0));
+                assertThat(ultima.getNext()).isNull();
+            }
+
+            @Test
+            void deve_recusar_cursor_adulterado() {
+                String adulterado = ocorrenciaService.listarPaginado(null, null, null, 2).getNext().substring(1);
+
+                assertThatThrownBy(() -> ocorrenciaService.listarPaginado(null, null, adulterado, 2))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Cursor inválido");
+            }
+        }
+
+        @Nested
+        class Quando_filtrar_por_status {
+
+            @Test
+            void deve_paginar_apenas_ocorrencias_com_o_status_informado() {
+                assertThat(percorrerPaginas(StatusOcorrencia.EM_ANDAMENTO, 1))
+                        .containsExactly(idsEmOrdemDeCriacao.get(3), idsEmOrdemDeCriacao.get(1));
+            }
+
+            @Test
+            void nao_deve_retornar_cursor_quando_o_filtro_couber_em_uma_pagina() {
+                PaginaResponse<OcorrenciaResponse> pagina =
+                        ocorrenciaService.listarPaginado(StatusOcorrencia.ABERTA, null, null, 3);
+
+                assertThat(pagina.getItens()).extracting(OcorrenciaResponse::getStatus)
+                        .hasSize(3)
+                        .containsOnly(StatusOcorrencia.ABERTA);
+                assertThat(pagina.getNext()).isNull();
+            }
+
+            @Test
+            void deve_manter_o_filtro_ao_seguir_um_cursor_gerado_sem_filtro() {
+                String cursor = ocorrenciaService.listarPaginado(null, null, null, 1).getNext();
+
+                PaginaResponse<OcorrenciaResponse> pagina =
+                        ocorrenciaService.listarPaginado(StatusOcorrencia.EM_ANDAMENTO, null, cursor, 5);
+
+                assertThat(pagina.getItens()).extracting(OcorrenciaResponse::getId)
+                        .containsExactly(idsEmOrdemDeCriacao.get(3), idsEmOrdemDeCriacao.get(1));
+            }
+        }
+
+        @Nested
+        class Quando_filtrar_por_usuario {
+
+            @Test
+            void deve_retornar_vazio_para_usuario_sem_ocorrencias() {
+                PaginaResponse<OcorrenciaResponse> pagina =
+                        ocorrenciaService.listarPaginado(null, usuarioId + 1000, null, null);
+
+                assertThat(pagina.getItens()).isEmpty();
+                assertThat(pagina.getNext()).isNull();
+            }
+        }
+    }
+
+    @Nested
+    class Dado_ocorrencias_de_varios_usuarios {
+
+        Statistics estatisticas;
+
+        @BeforeEach
+        void setup() {
+            for (int i = 1; i <= 3; i++) {
+                usuarioId = criarUsuario("usuario" + i + "@example.com");
+                criarOcorrencia("Ocorrência A do usuário " + i);
+                criarOcorrencia("Ocorrência B do usuário " + i);
+            }
+
+            // Sem o contexto de persistência, cada usuário precisaria ser lido do banco
+            entityManager.flush();
+            entityManager.clear();
+
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+        }
+
+        private void assertConsultasLimitadas(Supplier<List<OcorrenciaResponse>> listagem) {
+            List<OcorrenciaResponse> resultado = listagem.get();
+
+            assertThat(resultado).isNotEmpty();
+            assertThat(resultado).allSatisfy(o -> assertThat(o.getUsuario().getNome()).isNotBlank());
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("comandos SQL emitidos pela listagem")
+                    .isLessThanOrEqualTo(MAXIMO_CONSULTAS_POR_LISTAGEM);
+        }
+
+        @Test
+        void listar_todas_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.listarTodas());
+        }
+
+        @Test
+        void listar_com_filtros_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.listar(FiltroOcorrencias.builder()
+                    .status(StatusOcorrencia.ABERTA)
+                    .tipo(TipoOcorrencia.BURACO)
+                    .build()));
+        }
+
+        @Test
+        void buscar_por_status_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.buscarPorStatus(StatusOcorrencia.ABERTA));
+        }
+
+        @Test
+        void buscar_por_usuario_nao_deve_consultar_usuario_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.buscarPorUsuario(usuarioId));
+        }
+
+        @Test
+        void buscar_por_localizacao_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.buscarPorLocalizacao("Flores"));
+        }
+
+        @Test
+        void buscar_por_localizacao_similar_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.buscarPorLocalizacaoSimilar("FLORES", PageRequest.of(0, 20)));
+        }
+
+        @Test
+        void listar_paginado_nao_deve_consultar_usuarios_individualmente() {
+            assertConsultasLimitadas(() -> ocorrenciaService.listarPaginado(null, null, null, null).getItens());
+        }
+
+        @Test
+        void buscar_por_ids_deve_usar_uma_unica_consulta() {
+            List<Long> existentes = ocorrenciaService.listarTodas().stream().map(OcorrenciaResponse::getId).toList();
+            List<Long> pedidos = List.of(existentes.get(4), -1L, existentes.get(0), existentes.get(2));
+            estatisticas.clear();
+
+            ResultadoPorIdsResponse<OcorrenciaResponse> resultado = ocorrenciaService.buscarPorIds(pedidos);
+
+            assertThat(resultado.getItens()).extracting(OcorrenciaResponse::getId)
+                    .containsExactly(existentes.get(4), existentes.get(0), existentes.get(2));
+            assertThat(resultado.getItens()).allSatisfy(o -> assertThat(o.getUsuario().getNome()).isNotBlank());
+            assertThat(resultado.getNaoEncontrados()).containsExactly(-1L);
+            assertThat(estatisticas.getPrepareStatementCount()).as("comandos SQL emitidos").isEqualTo(1);
+        }
+
+        @Test
+        void leituras_nao_devem_carregar_entidades_no_contexto_de_persistencia() {
+            Long id = ocorrenciaService.listarTodas().get(0).getId();
+            ocorrenciaService.buscarPorId(id);
+            ocorrenciaService.listar(FiltroOcorrencias.builder().tipo(TipoOcorrencia.BURACO).build());
+            ocorrenciaService.listarPaginado(null, usuarioId, null, null);
+
+            assertThat(estatisticas.getEntityLoadCount()).as("entidades carregadas").isZero();
+        }
+    }
+
+    @Nested
+    class Quando_criar_e_deletar_ocorrencias {
+
+        @Test
+        void deve_manter_total_de_ocorrencias_do_usuario() {
+            Long primeira = criarOcorrencia("Primeira");
+            criarOcorrencia("Segunda");
+            criarOcorrencia("Terceira");
+            ocorrenciaService.deletar(primeira);
+            entityManager.flush();
+            entityManager.clear();
+
+            assertThat(usuarioService.buscarPorId(usuarioId).getTotalOcorrencias()).isEqualTo(2);
+        }
+
+        @Test
+        void listar_usuarios_nao_deve_carregar_ocorrencias() {
+            for (int i = 1; i <= 5; i++) {
+                criarOcorrencia("Ocorrência " + i);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            Statistics estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+
+            List<UsuarioResponse> usuarios = usuarioService.listarTodos(PageRequest.of(0, 50)).getItens();
+
+            assertThat(usuarios).singleElement()
+                    .extracting(UsuarioResponse::getTotalOcorrencias)
+                    .isEqualTo(5);
+            assertThat(estatisticas.getCollectionLoadCount()).isZero();
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Quando_criar_ocorrencias_em_lote {
+
+        /** Lote grande o bastante para que INSERTs individuais estourem o limite de comandos. */
+        private static final int TAMANHO_DO_LOTE = 200;
+
+        // Busca dos usuários, incremento do contador, reservas de ids da sequência (50 por vez)
+        // e os INSERTs agrupados em lotes de 50; sem batching seriam mais de 200 comandos
+        private static final long MAXIMO_CONSULTAS_POR_LOTE = 10;
+
+        List<OcorrenciaRequest> requests;
+
+        @BeforeEach
+        void setup() {
+            requests = new ArrayList<>();
+            for (int i = 0; i < TAMANHO_DO_LOTE; i++) {
+                OcorrenciaRequest request = new OcorrenciaRequest();
+                request.setTitulo("Ocorrência " + i);
+                request.setDescricao("Descrição " + i);
+                request.setLocalizacao("Rua das Flores, " + i);
+                request.setTipo(TipoOcorrencia.LIXO);
+                request.setUsuarioId(usuarioId);
+                requests.add(request);
+            }
+            requests.get(10).setTitulo("");
+            requests.get(20).setUsuarioId(usuarioId + 1000);
+
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        @Test
+        void deve_criar_os_itens_validos_e_rejeitar_os_demais() {
+            LoteOcorrenciaResponse resultado = ocorrenciaService.criarEmLote(requests);
+
+            assertThat(resultado.getCriadas()).isEqualTo(TAMANHO_DO_LOTE - 2);
+            assertThat(resultado.getItens().get(10).getStatus()).isEqualTo(StatusItem.REJEITADA);
+            assertThat(resultado.getItens().get(20).getErro()).startsWith("Usuário não encontrado");
+            assertThat(resultado.getItens()).filteredOn(i -> i.getStatus() == StatusItem.CRIADA)
+                    .allSatisfy(i -> assertThat(ocorrenciaRepository.existsById(i.getId())).isTrue());
+        }
+
+        @Test
+        void deve_atualizar_total_de_ocorrencias_do_usuario() {
+            ocorrenciaService.criarEmLote(requests);
+            entityManager.flush();
+            entityManager.clear();
+
+            assertThat(usuarioRepository.findById(usuarioId).orElseThrow().getTotalOcorrencias())
+                    .isEqualTo(TAMANHO_DO_LOTE - 2);
+        }
+
+        @Test
+        void deve_agrupar_os_inserts_em_lotes_jdbc() {
+            Statistics estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+
+            ocorrenciaService.criarEmLote(requests);
+            entityManager.flush();
+
+            assertThat(estatisticas.getEntityInsertCount()).isEqualTo(TAMANHO_DO_LOTE - 2);
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("comandos SQL emitidos para um lote de %d ocorrências", TAMANHO_DO_LOTE)
+                    .isLessThanOrEqualTo(MAXIMO_CONSULTAS_POR_LOTE);
+        }
+    }
+
+    /**
+     * O cache só é atualizado após o commit, por isso estes testes rodam fora da
+     * transação do teste e limpam os dados gravados ao final.
+     */
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class Dado_o_cache_de_consultas_por_id {
+
+        Long ocorrenciaId;
+        Statistics estatisticas;
+
+        @BeforeEach
+        void setup() {
+            limparCaches();
+            ocorrenciaId = criarOcorrencia("Ocorrência em cache");
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+        }
+
+        @AfterEach
+        void limpar() {
+            ocorrenciaRepository.deleteAll();
+            usuarioRepository.deleteAll();
+            limparCaches();
+        }
+
+        private void limparCaches() {
+            cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        }
+
+        @Test
+        void buscar_ocorrencia_novamente_nao_deve_consultar_o_banco() {
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+            estatisticas.clear();
+
+            OcorrenciaResponse resultado = ocorrenciaService.buscarPorId(ocorrenciaId);
+
+            assertThat(resultado.getTitulo()).isEqualTo("Ocorrência em cache");
+            assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        }
+
+        @Test
+        void a_copia_em_cache_na_versao_do_banco_deve_ser_usada_sem_reler_a_ocorrencia() {
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+            VersaoRecurso versao = ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow();
+            estatisticas.clear();
+
+            OcorrenciaResponse resultado = ocorrenciaService.buscarPorId(ocorrenciaId, versao);
+
+            assertThat(VersaoRecurso.daOcorrencia(resultado)).isEqualTo(versao);
+            assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        }
+
+        @Test
+        void a_copia_em_cache_alterada_em_outra_instancia_deve_ser_relida_do_banco() {
+            // Cópia que esta instância guardou antes de outra instância gravar uma alteração
+            OcorrenciaResponse emCache = ocorrenciaService.buscarPorId(ocorrenciaId);
+            emCache.setTitulo("Título anterior");
+            emCache.setDataAtualizacao(emCache.getDataAtualizacao().minusMinutes(5));
+
+            VersaoRecurso versao = ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow();
+            assertThat(VersaoRecurso.daOcorrencia(emCache)).isNotEqualTo(versao);
+
+            OcorrenciaResponse resultado = ocorrenciaService.buscarPorId(ocorrenciaId, versao);
+
+            assertThat(resultado.getTitulo()).isEqualTo("Ocorrência em cache");
+            assertThat(VersaoRecurso.daOcorrencia(resultado)).isEqualTo(versao);
+            assertThat(ocorrenciaService.buscarPorId(ocorrenciaId).getTitulo()).isEqualTo("Ocorrência em cache");
+        }
+
+        @Test
+        void atualizar_status_deve_invalidar_a_ocorrencia_em_cache() {
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+
+            assertThat(ocorrenciaService.buscarPorId(ocorrenciaId).getStatus())
+                    .isEqualTo(StatusOcorrencia.EM_ANDAMENTO);
+        }
+
+        @Test
+        void deletar_deve_invalidar_a_ocorrencia_em_cache() {
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+
+            ocorrenciaService.deletar(ocorrenciaId);
+
+            assertThatThrownBy(() -> ocorrenciaService.buscarPorId(ocorrenciaId))
+                    .hasMessageContaining("Ocorrência não encontrada");
+        }
+
+        @Test
+        void criar_e_deletar_ocorrencias_deve_invalidar_o_usuario_em_cache() {
+            assertThat(usuarioService.buscarPorId(usuarioId).getTotalOcorrencias()).isEqualTo(1);
+            assertThat(usuarioService.buscarPorEmail("joao@example.com").getTotalOcorrencias()).isEqualTo(1);
+
+            criarOcorrencia("Segunda ocorrência");
+            assertThat(usuarioService.buscarPorId(usuarioId).getTotalOcorrencias()).isEqualTo(2);
+            assertThat(usuarioService.buscarPorEmail("joao@example.com").getTotalOcorrencias()).isEqualTo(2);
+
+            ocorrenciaService.deletar(ocorrenciaId);
+            assertThat(usuarioService.buscarPorId(usuarioId).getTotalOcorrencias()).isEqualTo(1);
+            assertThat(usuarioService.buscarPorEmail("joao@example.com").getTotalOcorrencias()).isEqualTo(1);
+        }
+
+        @Test
+        void ativar_desativar_usuario_deve_invalidar_o_usuario_em_cache() {
+            usuarioService.buscarPorId(usuarioId);
+            usuarioService.buscarPorEmail("joao@example.com");
+
+            usuarioService.ativarDesativar(usuarioId, false);
+
+            assertThat(usuarioService.buscarPorId(usuarioId).getAtivo()).isFalse();
+            assertThat(usuarioService.buscarPorEmail("joao@example.com").getAtivo()).isFalse();
+        }
+
+        @Test
+        void deve_publicar_metricas_de_acerto_e_falha_do_cache() {
+            double acertosAntes = meterRegistry.get("cache.gets")
+                    .tags("cache", CacheConfig.OCORRENCIAS, "result", "hit")
+                    .functionCounter().count();
+
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+            ocorrenciaService.buscarPorId(ocorrenciaId);
+
+            assertThat(meterRegistry.get("cache.gets")
+                    .tags("cache", CacheConfig.OCORRENCIAS, "result", "hit")
+                    .functionCounter().count())
+                    .isEqualTo(acertosAntes + 1);
+        }
+    }
+
+    @Nested
+    class Dado_as_metricas_da_aplicacao {
+
+        @Test
+        void deve_medir_o_tempo_de_cada_metodo_do_servico() {
+            criarOcorrencia("Buraco na rua");
+            ocorrenciaService.listarTodas();
+
+            assertThat(meterRegistry.get("conectapg.servico")
+                    .tags("class", OcorrenciaService.class.getName(), "method", "listarTodas")
+                    .timer().count())
+                    .isGreaterThanOrEqualTo(1);
+            assertThat(meterRegistry.get("conectapg.servico")
+                    .tags("method", "criar")
+                    .timer().count())
+                    .isGreaterThanOrEqualTo(1);
+        }
+
+        @Test
+        void deve_publicar_contadores_do_hibernate_e_do_pool_de_conexoes() {
+            double consultasAntes = meterRegistry.get("hibernate.query.executions").functionCounter().count();
+
+            ocorrenciaService.listarTodas();
+
+            assertThat(meterRegistry.get("hibernate.query.executions").functionCounter().count())
+                    .isGreaterThan(consultasAntes);
+            assertThat(meterRegistry.get("hibernate.statements").tags("status", "prepared").functionCounter().count())
+                    .isPositive();
+            assertThat(meterRegistry.get("hikaricp.connections.max").gauge().value()).isPositive();
+        }
+    }
+
+    @Nested
+    class Dado_ocorrencias_de_tipos_status_e_datas_diferentes {
+
+        Long lixoAberta;
+        Long lixoEmAndamento;
+        Long buracoAberta;
+        Long lixoDeOutroUsuario;
+
+        private Long criar(TipoOcorrencia tipo, String localizacao, Long autorId, LocalDateTime dataCriacao) {
+            OcorrenciaRequest request = new OcorrenciaRequest();
+            request.setTitulo("Ocorrência " + tipo);
+            request.setDescricao("Descrição");
+            request.setLocalizacao(localizacao);
+            request.setTipo(tipo);
+            request.setUsuarioId(autorId);
+            Long id = ocorrenciaService.criar(request).getId();
+            entityManager.flush();
+            entityManager.createNativeQuery("UPDATE ocorrencias SET data_criacao = :data WHERE id = :id")
+                    .setParameter("data", dataCriacao)
+                    .setParameter("id", id)
+                    .executeUpdate();
+            return id;
+        }
+
+        @BeforeEach
+        void setup() {
+            Long outroUsuarioId = criarUsuario("outro@example.com");
+            lixoAberta = criar(TipoOcorrencia.LIXO, "Rua das Flores, 10", usuarioId,
+                    LocalDateTime.of(2024, 3, 10, 8, 0));
+            lixoEmAndamento = criar(TipoOcorrencia.LIXO, "Avenida Central, 200", usuarioId,
+                    LocalDateTime.of(2024, 3, 20, 23, 59));
+            buracoAberta = criar(TipoOcorrencia.BURACO, "Rua das Flores, 99", usuarioId,
+                    LocalDateTime.of(2024, 3, 15, 12, 0));
+            lixoDeOutroUsuario = criar(TipoOcorrencia.LIXO, "Rua das Flores, 5", outroUsuarioId,
+                    LocalDateTime.of(2024, 4, 1, 0, 0));
+            ocorrenciaService.atualizarStatus(lixoEmAndamento, StatusOcorrencia.EM_ANDAMENTO);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        private List<Long> listar(FiltroOcorrencias filtro) {
+            return ocorrenciaService.listar(filtro).stream().map(OcorrenciaResponse::getId).toList();
+        }
+
+        @Test
+        void deve_combinar_status_e_tipo_na_ordem_da_listagem() {
+            assertThat(listar(FiltroOcorrencias.builder()
+                    .status(StatusOcorrencia.ABERTA)
+                    .tipo(TipoOcorrencia.LIXO)
+                    .build()))
+                    .containsExactly(lixoDeOutroUsuario, lixoAberta);
+        }
+
+        @Test
+        void deve_incluir_os_dois_extremos_do_periodo() {
+            assertThat(listar(FiltroOcorrencias.builder()
+                    .dataInicio(LocalDate.of(2024, 3, 10))
+                    .dataFim(LocalDate.of(2024, 3, 20))
+                    .build()))
+                    .containsExactly(lixoEmAndamento, buracoAberta, lixoAberta);
+        }
+
+        @Test
+        void deve_filtrar_por_usuario_e_trecho_da_localizacao() {
+            assertThat(listar(FiltroOcorrencias.builder()
+                    .usuarioId(usuarioId)
+                    .localizacao("rua das flores")
+                    .build()))
+                    .containsExactly(buracoAberta, lixoAberta);
+        }
+
+        @Test
+        void deve_tratar_curingas_da_localizacao_como_texto() {
+            assertThat(listar(FiltroOcorrencias.builder().localizacao("%").build())).isEmpty();
+            assertThat(listar(FiltroOcorrencias.builder().localizacao("rua_das").build())).isEmpty();
+        }
+
+        @Test
+        void deve_recusar_periodo_invertido() {
+            FiltroOcorrencias filtro = FiltroOcorrencias.builder()
+                    .dataInicio(LocalDate.of(2024, 3, 20))
+                    .dataFim(LocalDate.of(2024, 3, 10))
+                    .build();
+
+            assertThatThrownBy(() -> ocorrenciaService.listar(filtro))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void deve_versionar_apenas_as_ocorrencias_do_filtro() {
+            FiltroOcorrencias buracos = FiltroOcorrencias.builder().tipo(TipoOcorrencia.BURACO).build();
+            VersaoRecurso antes = ocorrenciaService.buscarVersaoListagem(buracos);
+
+            ocorrenciaService.atualizarStatus(lixoAberta, StatusOcorrencia.EM_ANDAMENTO);
+            entityManager.flush();
+            assertThat(ocorrenciaService.buscarVersaoListagem(buracos)).isEqualTo(antes);
+
+            ocorrenciaService.atualizarStatus(buracoAberta, StatusOcorrencia.EM_ANDAMENTO);
+            entityManager.flush();
+            assertThat(ocorrenciaService.buscarVersaoListagem(buracos).getEtag()).isNotEqualTo(antes.getEtag());
+        }
+    }
+
+    @Nested
+    class Dado_uma_ocorrencia_com_versao_conhecida {
+
+        Long ocorrenciaId;
+        VersaoRecurso versao;
+        VersaoRecurso versaoListagem;
+
+        @BeforeEach
+        void setup() {
+            ocorrenciaId = criarOcorrencia("Poste queimado");
+            entityManager.flush();
+            entityManager.clear();
+
+            versao = ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow();
+            versaoListagem = ocorrenciaService.buscarVersaoListagem(null, null);
+        }
+
+        @Test
+        void deve_ler_cada_versao_em_uma_consulta_sem_carregar_entidades() {
+            Statistics estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+
+            ocorrenciaService.buscarVersao(ocorrenciaId);
+            ocorrenciaService.buscarVersaoListagem(StatusOcorrencia.ABERTA, usuarioId);
+
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(estatisticas.getEntityLoadCount()).isZero();
+        }
+
+        @Test
+        void deve_manter_a_etag_enquanto_nada_mudar() {
+            assertThat(ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow()).isEqualTo(versao);
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, null)).isEqualTo(versaoListagem);
+        }
+
+        @Test
+        void deve_mudar_a_etag_quando_a_ocorrencia_for_atualizada() {
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+            entityManager.flush();
+
+            assertThat(ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow().getEtag())
+                    .isNotEqualTo(versao.getEtag());
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, null).getEtag())
+                    .isNotEqualTo(versaoListagem.getEtag());
+        }
+
+        @Test
+        void deve_mudar_a_etag_quando_o_autor_for_renomeado() {
+            UsuarioRequest request = new UsuarioRequest();
+            request.setNome("João Souza");
+            request.setEmail("joao@example.com");
+            usuarioService.atualizar(usuarioId, request);
+            entityManager.flush();
+
+            assertThat(ocorrenciaService.buscarVersao(ocorrenciaId).orElseThrow().getEtag())
+                    .isNotEqualTo(versao.getEtag());
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, usuarioId).getEtag())
+                    .isNotEqualTo(versaoListagem.getEtag());
+        }
+
+        @Test
+        void deve_calcular_a_versao_de_cada_combinacao_de_filtros() {
+            criarOcorrencia("Buraco na calçada");
+            entityManager.flush();
+
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, null).getEtag()).startsWith("n2-");
+            assertThat(ocorrenciaService.buscarVersaoListagem(StatusOcorrencia.ABERTA, null).getEtag())
+                    .startsWith("n2-");
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, usuarioId).getEtag()).startsWith("n2-");
+            assertThat(ocorrenciaService.buscarVersaoListagem(StatusOcorrencia.FECHADA, usuarioId).getEtag())
+                    .startsWith("n0-");
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, usuarioId + 1000).getUltimaAlteracao())
+                    .isNull();
+        }
+
+        @Test
+        void deve_mudar_a_etag_da_listagem_quando_uma_ocorrencia_for_removida() {
+            criarOcorrencia("Buraco na calçada");
+            VersaoRecurso comDuas = ocorrenciaService.buscarVersaoListagem(null, null);
+
+            ocorrenciaService.deletar(ocorrenciaId);
+            entityManager.flush();
+
+            assertThat(ocorrenciaService.buscarVersaoListagem(null, null).getEtag())
+                    .isNotEqualTo(comDuas.getEtag());
+            assertThat(ocorrenciaService.buscarVersao(ocorrenciaId)).isEmpty();
+        }
+    }
+
+    @Nested
+    class Dado_transicoes_de_status {
+
+        Long ocorrenciaId;
+
+        @BeforeEach
+        void setup() {
+            ocorrenciaId = criarOcorrencia("Poste queimado");
+            entityManager.flush();
+        }
+
+        @Test
+        void deve_avancar_o_status_com_um_unico_comando() {
+            Statistics estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+
+            OcorrenciaResponse resultado = ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(resultado.getStatus()).isEqualTo(StatusOcorrencia.EM_ANDAMENTO);
+            assertThat(resultado.getUsuario().getNome()).isEqualTo("João Silva");
+        }
+
+        @Test
+        void leituras_seguintes_na_mesma_transacao_devem_ver_o_novo_status() {
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+
+            assertThat(ocorrenciaRepository.findById(ocorrenciaId).orElseThrow().getStatus())
+                    .isEqualTo(StatusOcorrencia.EM_ANDAMENTO);
+        }
+
+        @Test
+        void deve_recusar_pular_etapas_sem_alterar_a_ocorrencia() {
+            assertThatThrownBy(() -> ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.RESOLVIDA))
+                    .isInstanceOf(TransicaoStatusInvalidaException.class)
+                    .hasMessageContaining("está em ABERTA");
+
+            assertThat(ocorrenciaRepository.findStatusById(ocorrenciaId)).contains(StatusOcorrencia.ABERTA);
+        }
+
+        @Test
+        void deve_percorrer_todo_o_ciclo_de_vida() {
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.RESOLVIDA);
+            ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.FECHADA);
+
+            assertThat(ocorrenciaRepository.findStatusById(ocorrenciaId)).contains(StatusOcorrencia.FECHADA);
+        }
+    }
+
+    @Nested
+    class Dado_uma_alteracao_de_status_em_lote {
+
+        static final int QUANTIDADE = 2_100;
+
+        List<Long> abertas;
+        Long emAndamento;
+        Statistics estatisticas;
+
+        @BeforeEach
+        void setup() {
+            List<OcorrenciaRequest> requests = new ArrayList<>();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                OcorrenciaRequest request = new OcorrenciaRequest();
+                request.setTitulo("Ocorrência " + i);
+                request.setDescricao("Descrição " + i);
+                request.setLocalizacao(i % 2 == 0 ? "Rua das Flores, " + i : "Avenida Brasil, " + i);
+                request.setTipo(TipoOcorrencia.BURACO);
+                request.setUsuarioId(usuarioId);
+                requests.add(request);
+            }
+            ocorrenciaService.criarEmLote(requests);
+            abertas = ocorrenciaRepository.findByStatus(StatusOcorrencia.ABERTA).stream()
+                    .map(o -> o.getId())
+                    .sorted()
+                    .toList();
+            emAndamento = abertas.get(0);
+            ocorrenciaService.atualizarStatus(emAndamento, StatusOcorrencia.EM_ANDAMENTO);
+            entityManager.flush();
+            entityManager.clear();
+
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+        }
+
+        @Test
+        void deve_usar_poucos_comandos_independente_da_quantidade_de_ids() {
+            List<Long> ids = new ArrayList<>(abertas);
+            ids.add(-1L);
+
+            AlteracaoStatusLoteResponse resultado = ocorrenciaService.atualizarStatusEmLote(
+                    AlteracaoStatusLoteRequest.builder()
+                            .status(StatusOcorrencia.EM_ANDAMENTO)
+                            .ids(ids)
+                            .build());
+
+            // Um UPDATE por bloco de 1000 ids (3 blocos) e uma consulta para explicar as rejeitadas
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("comandos SQL emitidos para %d ids", ids.size())
+                    .isLessThanOrEqualTo(4);
+            assertThat(resultado.getAtualizadas()).isEqualTo(QUANTIDADE - 1);
+            assertThat(resultado.getItens()).hasSize(QUANTIDADE + 1);
+            assertThat(resultado.getItens().get(0).getResultado()).isEqualTo(ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA);
+            assertThat(resultado.getItens().get(QUANTIDADE).getResultado()).isEqualTo(ResultadoAlteracao.NAO_ENCONTRADA);
+            assertThat(ocorrenciaRepository.findByStatus(StatusOcorrencia.EM_ANDAMENTO)).hasSize(QUANTIDADE);
+        }
+
+        @Test
+        void deve_alterar_apenas_as_que_atendem_ao_filtro() {
+            AlteracaoStatusLoteResponse resultado = ocorrenciaService.atualizarStatusEmLote(
+                    AlteracaoStatusLoteRequest.builder()
+                            .status(StatusOcorrencia.EM_ANDAMENTO)
+                            .localizacao("Avenida Brasil")
+                            .build());
+
+            assertThat(resultado.getAtualizadas()).isEqualTo(QUANTIDADE / 2);
+            assertThat(resultado.getItens())
+                    .allMatch(item -> item.getResultado() == ResultadoAlteracao.ATUALIZADA);
+            assertThat(ocorrenciaRepository.findById(abertas.get(2)).orElseThrow().getStatus())
+                    .isEqualTo(StatusOcorrencia.ABERTA);
+            assertThat(ocorrenciaRepository.findById(abertas.get(1)).orElseThrow().getStatus())
+                    .isEqualTo(StatusOcorrencia.EM_ANDAMENTO);
+        }
+    }
+
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class Dado_atualizacoes_de_status_concorrentes {
+
+        static final int REQUISICOES = 8;
+
+        Long ocorrenciaId;
+
+        @BeforeEach
+        void setup() {
+            ocorrenciaId = criarOcorrencia("Buraco disputado");
+        }
+
+        @AfterEach
+        void limpar() {
+            ocorrenciaRepository.deleteAll();
+            usuarioRepository.deleteAll();
+            cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        }
+
+        @Test
+        void apenas_uma_deve_aplicar_a_mesma_transicao() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(REQUISICOES);
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < REQUISICOES; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        ocorrenciaService.atualizarStatus(ocorrenciaId, StatusOcorrencia.EM_ANDAMENTO);
+                        return true;
+                    } catch (TransicaoStatusInvalidaException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            int aplicadas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(10, TimeUnit.SECONDS)) {
+                    aplicadas++;
+                }
+            }
+            executor.shutdown();
+
+            assertThat(aplicadas).isEqualTo(1);
+            assertThat(ocorrenciaRepository.findStatusById(ocorrenciaId)).contains(StatusOcorrencia.EM_ANDAMENTO);
+        }
+    }
+}
@@ -1,28 +1,53 @@
 package com.conectapg.domain.service;
 
+import com.conectapg.api.dto.AlteracaoStatusLoteRequest;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse;
+import com.conectapg.api.dto.AlteracaoStatusLoteResponse.ResultadoAlteracao;
+import com.conectapg.api.dto.LoteOcorrenciaResponse;
+import com.conectapg.api.dto.LoteOcorrenciaResponse.StatusItem;
 import com.conectapg.api.dto.OcorrenciaRequest;
 import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
+import com.conectapg.api.dto.PaginaResponse;
 import com.conectapg.api.mapper.OcorrenciaMapper;
+import com.conectapg.config.CacheConfig;
+import com.conectapg.config.ConectaPgProperties;
 import com.conectapg.domain.model.Ocorrencia;
 import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
 import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
 import com.conectapg.domain.model.Usuario;
 import com.conectapg.domain.repository.OcorrenciaRepository;
 import com.conectapg.domain.repository.UsuarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +63,18 @@ class OcorrenciaServiceTest {
     @Mock
     private OcorrenciaMapper mapper;
 
+    @Spy
+    private ConectaPgProperties properties = new ConectaPgProperties();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
     @InjectMocks
     private OcorrenciaService ocorrenciaService;
 
@@ -102,8 +139,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findAllOrderByDataCriacaoDesc()).thenReturn(Arrays.asList(ocorrencia));
-                when(mapper.toResponse(any(Ocorrencia.class))).thenReturn(ocorrenciaResponse);
+                when(ocorrenciaRepository.findAllOrderByDataCriacaoDesc()).thenReturn(Arrays.asList(ocorrenciaResponse));
                 resultado = ocorrenciaService.listarTodas();
             }
 
@@ -119,8 +155,66 @@ class OcorrenciaServiceTest {
             }
 
             @Test
-            void deve_mapear_para_response() {
-                verify(mapper).toResponse(ocorrencia);
+            void deve_receber_a_projecao_pronta_sem_passar_pelo_mapper() {
+                verifyNoInteractions(mapper);
+            }
+        }
+
+        @Nested
+        class Quando_listar_paginado {
+
+            @Test
+            void deve_buscar_primeira_pagina_quando_nao_houver_cursor() {
+                when(ocorrenciaRepository.findResponses(any(), eq(Limit.of(21))))
+                        .thenReturn(Arrays.asList(ocorrenciaResponse));
+
+                PaginaResponse<OcorrenciaResponse> resultado =
+                        ocorrenciaService.listarPaginado(StatusOcorrencia.ABERTA, null, null, null);
+
+                assertThat(resultado.getItens()).hasSize(1);
+                assertThat(resultado.getNext()).isNull();
+            }
+
+            @Test
+            void deve_retornar_cursor_da_ultima_ocorrencia_quando_houver_proxima_pagina() {
+                OcorrenciaResponse seguinte = OcorrenciaResponse.builder()
+                        .id(2L)
+                        .dataCriacao(ocorrenciaResponse.getDataCriacao().minusMinutes(1))
+                        .build();
+                when(ocorrenciaRepository.findResponses(any(), eq(Limit.of(2))))
+                        .thenReturn(Arrays.asList(ocorrenciaResponse, seguinte));
+
+                PaginaResponse<OcorrenciaResponse> resultado =
+                        ocorrenciaService.listarPaginado(null, 1L, null, 1);
+
+                assertThat(resultado.getItens()).hasSize(1);
+                assertThat(CursorOcorrencia.decodificar(resultado.getNext()))
+                        .isEqualTo(new CursorOcorrencia(ocorrenciaResponse.getDataCriacao(), 1L));
+            }
+
+            @Test
+            void deve_continuar_a_partir_do_cursor_informado() {
+                LocalDateTime dataCriacao = LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123456000);
+                String cursor = new CursorOcorrencia(dataCriacao, 42L).codificar();
+
+                ocorrenciaService.listarPaginado(null, null, cursor, 10);
+
+                verify(ocorrenciaRepository).findResponses(any(), eq(Limit.of(11)));
+            }
+
+            @Test
+            void deve_recusar_cursor_adulterado_sem_acessar_o_banco() {
+                assertThatThrownBy(() -> ocorrenciaService.listarPaginado(null, null, "bm9wZQ", 10))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Cursor inválido");
+                verifyNoInteractions(ocorrenciaRepository);
+            }
+
+            @Test
+            void deve_limitar_tamanho_da_pagina_ao_maximo_configurado() {
+                ocorrenciaService.listarPaginado(null, null, null, 10_000);
+
+                verify(ocorrenciaRepository).findResponses(any(), eq(Limit.of(101)));
             }
         }
 
@@ -129,8 +223,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(1L)).thenReturn(Optional.of(ocorrencia));
-                when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaResponse);
+                when(ocorrenciaRepository.findResponseById(1L)).thenReturn(Optional.of(ocorrenciaResponse));
             }
 
             @Test
@@ -145,7 +238,7 @@ class OcorrenciaServiceTest {
             @Test
             void deve_chamar_repository_com_id_correto() {
                 ocorrenciaService.buscarPorId(1L);
-                verify(ocorrenciaRepository).findById(1L);
+                verify(ocorrenciaRepository).findResponseById(1L);
             }
         }
 
@@ -154,8 +247,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findByStatus(StatusOcorrencia.ABERTA)).thenReturn(Arrays.asList(ocorrencia));
-                when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaResponse);
+                when(ocorrenciaRepository.findByStatus(StatusOcorrencia.ABERTA)).thenReturn(Arrays.asList(ocorrenciaResponse));
             }
 
             @Test
@@ -178,8 +270,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findByUsuarioId(1L)).thenReturn(Arrays.asList(ocorrencia));
-                when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaResponse);
+                when(ocorrenciaRepository.findByUsuarioId(1L)).thenReturn(Arrays.asList(ocorrenciaResponse));
             }
 
             @Test
@@ -203,8 +294,7 @@ class OcorrenciaServiceTest {
             @BeforeEach
             void setup() {
                 when(ocorrenciaRepository.findByLocalizacaoContaining("Rua das Flores"))
-                        .thenReturn(Arrays.asList(ocorrencia));
-                when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaResponse);
+                        .thenReturn(Arrays.asList(ocorrenciaResponse));
             }
 
             @Test
@@ -222,6 +312,52 @@ class OcorrenciaServiceTest {
             }
         }
 
+        @Nested
+        class Quando_buscar_por_localizacao_similar {
+
+            @Test
+            void deve_manter_a_ordem_de_relevancia_retornada_pelo_indice_trigram() {
+                OcorrenciaResponse menosRelevante = OcorrenciaResponse.builder().id(2L).build();
+                when(ocorrenciaRepository.findIdsByLocalizacaoSimilar("av sao joao", PageRequest.of(0, 20)))
+                        .thenReturn(Arrays.asList(1L, 2L));
+                when(ocorrenciaRepository.findComUsuarioByIdIn(Arrays.asList(1L, 2L)))
+                        .thenReturn(Arrays.asList(menosRelevante, ocorrenciaResponse));
+
+                List<OcorrenciaResponse> resultado =
+                        ocorrenciaService.buscarPorLocalizacaoSimilar("av sao joao", PageRequest.of(0, 20));
+
+                assertThat(resultado).extracting(OcorrenciaResponse::getId).containsExactly(1L, 2L);
+            }
+
+            @Test
+            void deve_ignorar_ordenacao_e_limitar_tamanho_da_pagina() {
+                ocorrenciaService.buscarPorLocalizacaoSimilar("flores",
+                        PageRequest.of(2, 10_000, Sort.by("titulo")));
+
+                verify(ocorrenciaRepository).findIdsByLocalizacaoSimilar("flores", PageRequest.of(2, 100));
+            }
+
+            @Test
+            void deve_tratar_curingas_do_like_como_texto_comum() {
+                ocorrenciaService.buscarPorLocalizacaoSimilar("100%_flores", PageRequest.of(0, 20));
+
+                verify(ocorrenciaRepository).findIdsByLocalizacaoSimilar("100  flores", PageRequest.of(0, 20));
+            }
+
+            @Test
+            void deve_usar_consulta_portavel_quando_configurado_para_like() {
+                properties.getBusca().setLocalizacao(ConectaPgProperties.ModoBuscaLocalizacao.LIKE);
+                when(ocorrenciaRepository.findByLocalizacaoIgnorandoCaixa("flores", PageRequest.of(0, 20)))
+                        .thenReturn(Arrays.asList(ocorrenciaResponse));
+
+                List<OcorrenciaResponse> resultado =
+                        ocorrenciaService.buscarPorLocalizacaoSimilar("flores", PageRequest.of(0, 20));
+
+                assertThat(resultado).hasSize(1);
+                verify(ocorrenciaRepository, never()).findIdsByLocalizacaoSimilar(any(), any());
+            }
+        }
+
         @Nested
         class Quando_criar_ocorrencia {
 
@@ -245,6 +381,32 @@ class OcorrenciaServiceTest {
                 verify(ocorrenciaRepository).save(ocorrencia);
             }
 
+            @Test
+            void deve_incrementar_total_de_ocorrencias_do_usuario() {
+                ocorrenciaService.criar(ocorrenciaRequest);
+                verify(usuarioRepository).incrementarTotalOcorrencias(1L, 1);
+            }
+
+            @Test
+            void deve_remover_usuario_dos_caches() {
+                Cache usuarios = mock(Cache.class);
+                Cache usuariosPorEmail = mock(Cache.class);
+                when(cacheManager.getCache("usuarios")).thenReturn(usuarios);
+                when(cacheManager.getCache("usuariosPorEmail")).thenReturn(usuariosPorEmail);
+
+                ocorrenciaService.criar(ocorrenciaRequest);
+
+                verify(usuarios).evict(1L);
+                verify(usuariosPorEmail).evict("joao@example.com");
+            }
+
+            @Test
+            void deve_publicar_evento_de_criacao() {
+                ocorrenciaService.criar(ocorrenciaRequest);
+
+                verify(eventos).publishEvent(OcorrenciaEvento.de(OcorrenciaEvento.TipoEvento.CRIADA, ocorrenciaResponse));
+            }
+
             @Test
             void deve_retornar_ocorrencia_criada() {
                 OcorrenciaResponse resultado = ocorrenciaService.criar(ocorrenciaRequest);
@@ -259,7 +421,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(1L)).thenReturn(Optional.of(ocorrencia));
+                when(ocorrenciaRepository.findComUsuarioById(1L)).thenReturn(Optional.of(ocorrencia));
                 when(ocorrenciaRepository.save(ocorrencia)).thenReturn(ocorrencia);
                 when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaResponse);
             }
@@ -290,14 +452,12 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(1L)).thenReturn(Optional.of(ocorrencia));
-                when(ocorrenciaRepository.save(ocorrencia)).thenReturn(ocorrencia);
-                
                 ocorrenciaAtualizada = OcorrenciaResponse.builder()
                         .id(1L)
                         .status(StatusOcorrencia.EM_ANDAMENTO)
                         .build();
-                when(mapper.toResponse(ocorrencia)).thenReturn(ocorrenciaAtualizada);
+                when(ocorrenciaRepository.transicionarStatus(1L, StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO))
+                        .thenReturn(Optional.of(ocorrenciaAtualizada));
             }
 
             @Test
@@ -307,9 +467,57 @@ class OcorrenciaServiceTest {
             }
 
             @Test
-            void deve_salvar_ocorrencia_com_status_atualizado() {
+            void deve_aplicar_a_transicao_em_um_unico_comando_sem_ler_a_ocorrencia() {
                 ocorrenciaService.atualizarStatus(1L, StatusOcorrencia.EM_ANDAMENTO);
-                verify(ocorrenciaRepository).save(ocorrencia);
+
+                verify(ocorrenciaRepository).transicionarStatus(1L, StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO);
+                verify(ocorrenciaRepository, never()).findById(any());
+                verify(ocorrenciaRepository, never()).findComUsuarioById(any());
+                verify(ocorrenciaRepository, never()).save(any());
+            }
+
+            @Test
+            void deve_publicar_evento_de_mudanca_de_status() {
+                ocorrenciaService.atualizarStatus(1L, StatusOcorrencia.EM_ANDAMENTO);
+
+                verify(eventos).publishEvent(
+                        OcorrenciaEvento.statusAlterado(StatusOcorrencia.ABERTA, List.of(ocorrenciaAtualizada)));
+            }
+        }
+
+        @Nested
+        class Quando_a_transicao_de_status_nao_for_aplicada {
+
+            @Test
+            void deve_lancar_conflito_informando_o_status_atual() {
+                when(ocorrenciaRepository.transicionarStatus(1L, StatusOcorrencia.RESOLVIDA, StatusOcorrencia.FECHADA))
+                        .thenReturn(Optional.empty());
+                when(ocorrenciaRepository.findStatusById(1L)).thenReturn(Optional.of(StatusOcorrencia.EM_ANDAMENTO));
+
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatus(1L, StatusOcorrencia.FECHADA))
+                        .isInstanceOf(TransicaoStatusInvalidaException.class)
+                        .hasMessageContaining("está em EM_ANDAMENTO")
+                        .hasMessageContaining("FECHADA");
+                verify(eventos, never()).publishEvent(any());
+            }
+
+            @Test
+            void deve_recusar_voltar_para_aberta_sem_tentar_o_update() {
+                when(ocorrenciaRepository.findStatusById(1L)).thenReturn(Optional.of(StatusOcorrencia.RESOLVIDA));
+
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatus(1L, StatusOcorrencia.ABERTA))
+                        .isInstanceOf(TransicaoStatusInvalidaException.class);
+                verify(ocorrenciaRepository, never()).transicionarStatus(anyLong(), any(), any());
+            }
+
+            @Test
+            void deve_recusar_status_fora_da_sequencia_na_atualizacao_completa() {
+                when(ocorrenciaRepository.findComUsuarioById(1L)).thenReturn(Optional.of(ocorrencia));
+                ocorrenciaRequest.setStatus(StatusOcorrencia.FECHADA);
+
+                assertThatThrownBy(() -> ocorrenciaService.atualizar(1L, ocorrenciaRequest))
+                        .isInstanceOf(TransicaoStatusInvalidaException.class);
+                verify(ocorrenciaRepository, never()).save(any());
             }
         }
 
@@ -318,13 +526,13 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(1L)).thenReturn(Optional.of(ocorrencia));
+                when(ocorrenciaRepository.findComUsuarioById(1L)).thenReturn(Optional.of(ocorrencia));
             }
 
             @Test
             void deve_buscar_ocorrencia_antes_de_deletar() {
                 ocorrenciaService.deletar(1L);
-                verify(ocorrenciaRepository).findById(1L);
+                verify(ocorrenciaRepository).findComUsuarioById(1L);
             }
 
             @Test
@@ -332,6 +540,124 @@ class OcorrenciaServiceTest {
                 ocorrenciaService.deletar(1L);
                 verify(ocorrenciaRepository).delete(ocorrencia);
             }
+
+            @Test
+            void deve_decrementar_total_de_ocorrencias_do_usuario() {
+                ocorrenciaService.deletar(1L);
+                verify(usuarioRepository).incrementarTotalOcorrencias(1L, -1);
+            }
+
+            @Test
+            void deve_publicar_evento_de_remocao_com_id_status_e_tipo() {
+                ArgumentCaptor<OcorrenciaEvento> evento = ArgumentCaptor.forClass(OcorrenciaEvento.class);
+
+                ocorrenciaService.deletar(1L);
+
+                verify(eventos).publishEvent(evento.capture());
+                assertThat(evento.getValue().getTipo()).isEqualTo(OcorrenciaEvento.TipoEvento.REMOVIDA);
+                assertThat(evento.getValue().getOcorrencias())
+                        .extracting(OcorrenciaResponse::getId, OcorrenciaResponse::getStatus, OcorrenciaResponse::getTipo)
+                        .containsExactly(tuple(1L, ocorrencia.getStatus(), ocorrencia.getTipo()));
+            }
+
+            @Test
+            void deve_remover_usuario_do_cache() {
+                Cache usuarios = mock(Cache.class);
+                when(cacheManager.getCache("usuarios")).thenReturn(usuarios);
+
+                ocorrenciaService.deletar(1L);
+
+                verify(usuarios).evict(1L);
+            }
+        }
+    }
+
+    @Nested
+    class Dado_o_ciclo_de_vida_do_status {
+
+        @Test
+        void deve_permitir_apenas_o_proximo_status_da_sequencia() {
+            assertThat(StatusOcorrencia.ABERTA.permiteTransicaoPara(StatusOcorrencia.EM_ANDAMENTO)).isTrue();
+            assertThat(StatusOcorrencia.EM_ANDAMENTO.permiteTransicaoPara(StatusOcorrencia.RESOLVIDA)).isTrue();
+            assertThat(StatusOcorrencia.RESOLVIDA.permiteTransicaoPara(StatusOcorrencia.FECHADA)).isTrue();
+
+            assertThat(StatusOcorrencia.ABERTA.permiteTransicaoPara(StatusOcorrencia.RESOLVIDA)).isFalse();
+            assertThat(StatusOcorrencia.FECHADA.permiteTransicaoPara(StatusOcorrencia.ABERTA)).isFalse();
+            assertThat(StatusOcorrencia.EM_ANDAMENTO.permiteTransicaoPara(StatusOcorrencia.EM_ANDAMENTO)).isFalse();
+        }
+
+        @Test
+        void aberta_deve_ser_o_status_inicial() {
+            assertThat(StatusOcorrencia.ABERTA.anterior()).isEmpty();
+            assertThat(StatusOcorrencia.FECHADA.anterior()).contains(StatusOcorrencia.RESOLVIDA);
+        }
+    }
+
+    @Nested
+    class Dado_as_versoes_para_get_condicional {
+
+        LocalDateTime dezHoras = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime noveHoras = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+        private OcorrenciaResponse resposta(LocalDateTime dataAtualizacao, String nomeAutor) {
+            return OcorrenciaResponse.builder()
+                    .id(1L)
+                    .usuario(new OcorrenciaResponse.UsuarioResumo(7L, nomeAutor, "autor@example.com"))
+                    .dataAtualizacao(dataAtualizacao)
+                    .build();
+        }
+
+        private void stubVersaoListagem(long total, LocalDateTime ultimaAtualizacao) {
+            OcorrenciaRepository.VersaoListagem versao = mock(OcorrenciaRepository.VersaoListagem.class);
+            when(versao.getTotal()).thenReturn(total);
+            when(versao.getUltimaAtualizacao()).thenReturn(ultimaAtualizacao);
+            when(versao.getUltimaAtualizacaoUsuario()).thenReturn(noveHoras);
+            when(ocorrenciaRepository.findVersaoListagem(StatusOcorrencia.ABERTA, null)).thenReturn(versao);
+        }
+
+        @Test
+        void deve_mudar_a_etag_quando_a_ocorrencia_for_atualizada() {
+            VersaoRecurso antes = VersaoRecurso.daOcorrencia(resposta(noveHoras, "Maria"));
+            VersaoRecurso depois = VersaoRecurso.daOcorrencia(resposta(dezHoras, "Maria"));
+
+            assertThat(depois.getEtag()).isNotEqualTo(antes.getEtag());
+            assertThat(depois.getUltimaAlteracao()).isEqualTo(dezHoras);
+        }
+
+        @Test
+        void deve_mudar_a_etag_quando_o_autor_for_atualizado() {
+            VersaoRecurso antes = VersaoRecurso.daOcorrencia(resposta(noveHoras, "Maria"));
+            VersaoRecurso depois = VersaoRecurso.daOcorrencia(resposta(noveHoras, "Maria Souza"));
+
+            assertThat(depois.getEtag()).isNotEqualTo(antes.getEtag());
+        }
+
+        @Test
+        void deve_manter_a_etag_para_o_mesmo_conteudo() {
+            assertThat(VersaoRecurso.daOcorrencia(resposta(noveHoras, "Maria")))
+                    .isEqualTo(VersaoRecurso.daOcorrencia(resposta(noveHoras, "Maria")));
+        }
+
+        @Test
+        void deve_mudar_a_etag_da_listagem_quando_a_contagem_mudar() {
+            stubVersaoListagem(3, dezHoras);
+            VersaoRecurso antes = ocorrenciaService.buscarVersaoListagem(StatusOcorrencia.ABERTA, null);
+            stubVersaoListagem(2, dezHoras);
+            VersaoRecurso depois = ocorrenciaService.buscarVersaoListagem(StatusOcorrencia.ABERTA, null);
+
+            assertThat(depois.getEtag()).isNotEqualTo(antes.getEtag());
+        }
+
+        @Test
+        void deve_omitir_last_modified_para_listagem_vazia() {
+            OcorrenciaRepository.VersaoListagem vazia = mock(OcorrenciaRepository.VersaoListagem.class);
+            when(vazia.getTotal()).thenReturn(0L);
+            when(ocorrenciaRepository.findVersaoListagem(null, 7L)).thenReturn(vazia);
+
+            VersaoRecurso versao = ocorrenciaService.buscarVersaoListagem(null, 7L);
+
+            assertThat(versao.getEtag()).isNotBlank();
+            assertThat(versao.getUltimaAlteracaoEmMillis()).isEqualTo(-1);
         }
     }
 
@@ -343,7 +669,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(ocorrenciaRepository.findResponseById(999L)).thenReturn(Optional.empty());
             }
 
             @Test
@@ -359,7 +685,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(ocorrenciaRepository.findComUsuarioById(999L)).thenReturn(Optional.empty());
             }
 
             @Test
@@ -379,7 +705,9 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(ocorrenciaRepository.transicionarStatus(999L, StatusOcorrencia.ABERTA, StatusOcorrencia.EM_ANDAMENTO))
+                        .thenReturn(Optional.empty());
+                when(ocorrenciaRepository.findStatusById(999L)).thenReturn(Optional.empty());
             }
 
             @Test
@@ -395,7 +723,7 @@ class OcorrenciaServiceTest {
 
             @BeforeEach
             void setup() {
-                when(ocorrenciaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(ocorrenciaRepository.findComUsuarioById(999L)).thenReturn(Optional.empty());
             }
 
             @Test
@@ -404,11 +732,388 @@ class OcorrenciaServiceTest {
                         .isInstanceOf(RuntimeException.class)
                         .hasMessageContaining("Ocorrência não encontrada");
                 
-                verify(ocorrenciaRepository, never()).delete(any());
+                verify(ocorrenciaRepository, never()).delete(any(Ocorrencia.class));
+                verify(usuarioRepository, never()).incrementarTotalOcorrencias(any(), anyInt());
+            }
+        }
+    }
+
+    @Nested
+    class Dado_um_lote_de_ocorrencias {
+
+        Usuario usuario;
+
+        @BeforeEach
+        void setup() {
+            usuario = Usuario.builder()
+                    .id(1L)
+                    .nome("João Silva")
+                    .email("joao@example.com")
+                    .build();
+        }
+
+        private OcorrenciaRequest request(Long usuarioId) {
+            OcorrenciaRequest request = new OcorrenciaRequest();
+            request.setTitulo("Poste queimado");
+            request.setDescricao("Poste da rua está sem iluminação");
+            request.setLocalizacao("Rua das Flores, 123");
+            request.setTipo(TipoOcorrencia.ILUMINACAO);
+            request.setUsuarioId(usuarioId);
+            return request;
+        }
+
+        @Nested
+        class Quando_criar_em_lote {
+
+            OcorrenciaRequest valido;
+            OcorrenciaRequest invalido;
+            OcorrenciaRequest deUsuarioInexistente;
+            LoteOcorrenciaResponse resultado;
+
+            @BeforeEach
+            @SuppressWarnings("unchecked")
+            void setup() {
+                valido = request(1L);
+                invalido = request(1L);
+                invalido.setTitulo("");
+                deUsuarioInexistente = request(99L);
+
+                ConstraintViolation<OcorrenciaRequest> violacao = mock(ConstraintViolation.class);
+                when(violacao.getMessage()).thenReturn("Título é obrigatório");
+                when(validator.validate(any(OcorrenciaRequest.class))).thenAnswer(invocacao ->
+                        invocacao.<OcorrenciaRequest>getArgument(0).getTitulo().isBlank()
+                                ? Set.of(violacao)
+                                : Collections.emptySet());
+                when(usuarioRepository.findAllById(Set.of(1L, 99L))).thenReturn(Arrays.asList(usuario));
+                when(mapper.toEntity(valido, usuario))
+                        .thenReturn(Ocorrencia.builder().id(10L).usuario(usuario).build());
+
+                resultado = ocorrenciaService.criarEmLote(Arrays.asList(valido, invalido, deUsuarioInexistente));
+            }
+
+            @Test
+            void deve_buscar_usuarios_em_uma_unica_consulta() {
+                verify(usuarioRepository).findAllById(Set.of(1L, 99L));
+                verify(usuarioRepository, never()).findById(any());
+            }
+
+            @Test
+            void deve_salvar_apenas_os_itens_validos() {
+                verify(ocorrenciaRepository).saveAll(argThat(ocorrencias ->
+                        ocorrencias.iterator().next().getId().equals(10L)));
+                verify(mapper).toEntity(valido, usuario);
+                verify(mapper).toResponse(argThat(o -> o.getId().equals(10L)));
+                verifyNoMoreInteractions(mapper);
+            }
+
+            @Test
+            void deve_publicar_um_unico_evento_com_as_ocorrencias_criadas() {
+                ArgumentCaptor<OcorrenciaEvento> evento = ArgumentCaptor.forClass(OcorrenciaEvento.class);
+                verify(eventos).publishEvent(evento.capture());
+
+                assertThat(evento.getValue().getTipo()).isEqualTo(OcorrenciaEvento.TipoEvento.CRIADA);
+                assertThat(evento.getValue().getOcorrencias()).hasSize(1);
+            }
+
+            @Test
+            void deve_informar_o_resultado_de_cada_item_na_ordem_enviada() {
+                assertThat(resultado.getCriadas()).isEqualTo(1);
+                assertThat(resultado.getRejeitadas()).isEqualTo(2);
+                assertThat(resultado.getItens())
+                        .extracting(LoteOcorrenciaResponse.ResultadoItem::getIndice,
+                                LoteOcorrenciaResponse.ResultadoItem::getStatus,
+                                LoteOcorrenciaResponse.ResultadoItem::getId,
+                                LoteOcorrenciaResponse.ResultadoItem::getErro)
+                        .containsExactly(
+                                tuple(0, StatusItem.CRIADA, 10L, null),
+                                tuple(1, StatusItem.REJEITADA, null, "Título é obrigatório"),
+                                tuple(2, StatusItem.REJEITADA, null, "Usuário não encontrado com id: 99"));
+            }
+
+            @Test
+            void deve_incrementar_total_de_ocorrencias_uma_vez_por_usuario() {
+                verify(usuarioRepository).incrementarTotalOcorrencias(1L, 1);
+                verify(usuarioRepository, never()).incrementarTotalOcorrencias(eq(99L), anyInt());
+            }
+        }
+
+        @Nested
+        class Quando_exceder_o_tamanho_maximo {
+
+            @Test
+            void deve_lancar_excecao_sem_acessar_o_banco() {
+                properties.getLote().setTamanhoMaximo(1);
+
+                assertThatThrownBy(() -> ocorrenciaService.criarEmLote(Arrays.asList(request(1L), request(1L))))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Lote excede o limite de 1 ocorrências");
+                verifyNoInteractions(ocorrenciaRepository, usuarioRepository);
+            }
+        }
+
+        @Nested
+        class Quando_o_lote_estiver_vazio {
+
+            @Test
+            void deve_retornar_resultado_vazio() {
+                LoteOcorrenciaResponse resultado = ocorrenciaService.criarEmLote(Collections.emptyList());
+
+                assertThat(resultado.getCriadas()).isZero();
+                assertThat(resultado.getItens()).isEmpty();
             }
         }
     }
 
+    @Nested
+    class Dado_uma_lista_de_ids {
+
+        @Test
+        void deve_retornar_na_ordem_pedida_com_os_inexistentes_a_parte() {
+            OcorrenciaResponse primeira = OcorrenciaResponse.builder().id(1L).build();
+            OcorrenciaResponse segunda = OcorrenciaResponse.builder().id(2L).build();
+            when(ocorrenciaRepository.findComUsuarioByIdIn(Arrays.asList(2L, 9L, 1L)))
+                    .thenReturn(Arrays.asList(primeira, segunda));
+
+            ResultadoPorIdsResponse<OcorrenciaResponse> resultado =
+                    ocorrenciaService.buscarPorIds(Arrays.asList(2L, 9L, 1L, 2L));
+
+            assertThat(resultado.getItens()).extracting(OcorrenciaResponse::getId).containsExactly(2L, 1L);
+            assertThat(resultado.getNaoEncontrados()).containsExactly(9L);
+        }
+
+        @Test
+        void deve_recusar_ids_nulos_sem_acessar_o_banco() {
+            assertThatThrownBy(() -> ocorrenciaService.buscarPorIds(Arrays.asList(1L, null)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Lista de ids contém valor nulo");
+            verifyNoInteractions(ocorrenciaRepository);
+        }
+
+        @Test
+        void deve_recusar_listas_acima_do_tamanho_maximo_do_lote() {
+            properties.getLote().setTamanhoMaximo(2);
+
+            assertThatThrownBy(() -> ocorrenciaService.buscarPorIds(Arrays.asList(1L, 2L, 3L)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Informe no máximo 2 ids");
+            verifyNoInteractions(ocorrenciaRepository);
+        }
+    }
+
+    @Nested
+    class Dado_uma_alteracao_de_status_em_lote {
+
+        Usuario usuario;
+
+        @BeforeEach
+        void setup() {
+            usuario = Usuario.builder()
+                    .id(1L)
+                    .nome("João Silva")
+                    .email("joao@example.com")
+                    .build();
+        }
+
+        private OcorrenciaResponse fechada(Long id) {
+            return OcorrenciaResponse.builder().id(id).status(StatusOcorrencia.FECHADA).usuario(
+                    new OcorrenciaResponse.UsuarioResumo(usuario.getId(), usuario.getNome(), usuario.getEmail())).build();
+        }
+
+        private OcorrenciaRepository.StatusPorId statusPorId(Long id, StatusOcorrencia status) {
+            return new OcorrenciaRepository.StatusPorId() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public StatusOcorrencia getStatus() {
+                    return status;
+                }
+            };
+        }
+
+        @Nested
+        class Quando_informar_ids {
+
+            Cache cache;
+            AlteracaoStatusLoteResponse resultado;
+
+            @BeforeEach
+            void setup() {
+                properties.getLote().setTamanhoBloco(2);
+                cache = mock(Cache.class);
+                when(cacheManager.getCache(CacheConfig.OCORRENCIAS)).thenReturn(cache);
+                when(ocorrenciaRepository.transicionarStatus(List.of(1L, 2L), StatusOcorrencia.RESOLVIDA,
+                        StatusOcorrencia.FECHADA)).thenReturn(List.of(fechada(1L)));
+                when(ocorrenciaRepository.transicionarStatus(List.of(3L, 4L), StatusOcorrencia.RESOLVIDA,
+                        StatusOcorrencia.FECHADA)).thenReturn(List.of(fechada(4L)));
+                when(ocorrenciaRepository.transicionarStatus(List.of(5L), StatusOcorrencia.RESOLVIDA,
+                        StatusOcorrencia.FECHADA)).thenReturn(List.of());
+                when(ocorrenciaRepository.findStatusByIdIn(List.of(2L, 3L, 5L)))
+                        .thenReturn(List.of(statusPorId(2L, StatusOcorrencia.ABERTA),
+                                statusPorId(5L, StatusOcorrencia.FECHADA)));
+
+                resultado = ocorrenciaService.atualizarStatusEmLote(AlteracaoStatusLoteRequest.builder()
+                        .status(StatusOcorrencia.FECHADA)
+                        .ids(Arrays.asList(1L, 2L, 3L, 2L, 4L, 5L))
+                        .build());
+            }
+
+            @Test
+            void deve_atualizar_em_blocos_e_consultar_as_demais_uma_unica_vez() {
+                verify(ocorrenciaRepository, times(3)).transicionarStatus(anyList(), any(), any());
+                verify(ocorrenciaRepository).findStatusByIdIn(anyCollection());
+                verify(ocorrenciaRepository, never()).findById(any());
+            }
+
+            @Test
+            void deve_informar_o_resultado_de_cada_id_sem_repeticoes() {
+                assertThat(resultado.getAtualizadas()).isEqualTo(2);
+                assertThat(resultado.getRejeitadas()).isEqualTo(3);
+                assertThat(resultado.getItens())
+                        .extracting(AlteracaoStatusLoteResponse.ResultadoItem::getId,
+                                AlteracaoStatusLoteResponse.ResultadoItem::getResultado,
+                                AlteracaoStatusLoteResponse.ResultadoItem::getStatus)
+                        .containsExactly(
+                                tuple(1L, ResultadoAlteracao.ATUALIZADA, StatusOcorrencia.FECHADA),
+                                tuple(2L, ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA, StatusOcorrencia.ABERTA),
+                                tuple(3L, ResultadoAlteracao.NAO_ENCONTRADA, null),
+                                tuple(4L, ResultadoAlteracao.ATUALIZADA, StatusOcorrencia.FECHADA),
+                                tuple(5L, ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA, StatusOcorrencia.FECHADA));
+            }
+
+            @Test
+            void deve_invalidar_o_cache_apenas_das_atualizadas() {
+                verify(cache).evict(1L);
+                verify(cache).evict(4L);
+                verifyNoMoreInteractions(cache);
+            }
+
+            @Test
+            void deve_publicar_um_unico_evento_com_as_atualizadas() {
+                ArgumentCaptor<OcorrenciaEvento> evento = ArgumentCaptor.forClass(OcorrenciaEvento.class);
+                verify(eventos).publishEvent(evento.capture());
+
+                assertThat(evento.getValue().getTipo()).isEqualTo(OcorrenciaEvento.TipoEvento.STATUS_ALTERADO);
+                assertThat(evento.getValue().getStatusAnterior()).isEqualTo(StatusOcorrencia.RESOLVIDA);
+                assertThat(evento.getValue().getOcorrencias()).hasSize(2);
+            }
+        }
+
+        @Nested
+        class Quando_informar_um_filtro {
+
+            @Test
+            void deve_selecionar_apenas_as_ocorrencias_no_status_anterior() {
+                when(ocorrenciaRepository.findIdsParaAlteracaoDeStatus(StatusOcorrencia.EM_ANDAMENTO,
+                        TipoOcorrencia.BURACO, null, "Rua das Flores", Limit.of(5001)))
+                        .thenReturn(List.of(7L));
+                when(ocorrenciaRepository.transicionarStatus(List.of(7L), StatusOcorrencia.EM_ANDAMENTO,
+                        StatusOcorrencia.RESOLVIDA)).thenReturn(List.of(OcorrenciaResponse.builder()
+                        .id(7L).status(StatusOcorrencia.RESOLVIDA).build()));
+
+                AlteracaoStatusLoteResponse resultado = ocorrenciaService.atualizarStatusEmLote(
+                        AlteracaoStatusLoteRequest.builder()
+                                .status(StatusOcorrencia.RESOLVIDA)
+                                .tipo(TipoOcorrencia.BURACO)
+                                .localizacao("Rua das Flores")
+                                .build());
+
+                assertThat(resultado.getAtualizadas()).isEqualTo(1);
+                verify(ocorrenciaRepository, never()).findStatusByIdIn(anyCollection());
+            }
+
+            @Test
+            void deve_recusar_filtro_que_selecione_mais_que_o_limite() {
+                properties.getLote().setTamanhoMaximo(1);
+                when(ocorrenciaRepository.findIdsParaAlteracaoDeStatus(any(), any(), eq(1L), any(), any()))
+                        .thenReturn(List.of(7L, 8L));
+
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatusEmLote(AlteracaoStatusLoteRequest.builder()
+                        .status(StatusOcorrencia.FECHADA)
+                        .usuarioId(1L)
+                        .build()))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("refine o filtro");
+                verify(ocorrenciaRepository, never()).transicionarStatus(anyList(), any(), any());
+            }
+        }
+
+        @Nested
+        class Quando_a_selecao_for_invalida {
+
+            @Test
+            void deve_recusar_ids_e_filtro_juntos() {
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatusEmLote(AlteracaoStatusLoteRequest.builder()
+                        .status(StatusOcorrencia.FECHADA)
+                        .ids(List.of(1L))
+                        .tipo(TipoOcorrencia.LIXO)
+                        .build()))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("não ambos");
+                verifyNoInteractions(ocorrenciaRepository);
+            }
+
+            @Test
+            void deve_recusar_requisicao_sem_ids_nem_filtro() {
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatusEmLote(AlteracaoStatusLoteRequest.builder()
+                        .status(StatusOcorrencia.FECHADA)
+                        .build()))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("ao menos um filtro");
+                verifyNoInteractions(ocorrenciaRepository);
+            }
+
+            @Test
+            void deve_recusar_ids_acima_do_limite() {
+                properties.getLote().setTamanhoMaximo(2);
+
+                assertThatThrownBy(() -> ocorrenciaService.atualizarStatusEmLote(AlteracaoStatusLoteRequest.builder()
+                        .status(StatusOcorrencia.FECHADA)
+                        .ids(List.of(1L, 2L, 3L))
+                        .build()))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Lote excede o limite de 2 ocorrências");
+                verifyNoInteractions(ocorrenciaRepository);
+            }
+        }
+
+        @Nested
+        class Quando_o_status_de_destino_for_o_inicial {
+
+            @Test
+            void deve_recusar_todas_sem_executar_update() {
+                when(ocorrenciaRepository.findStatusByIdIn(List.of(1L)))
+                        .thenReturn(List.of(statusPorId(1L, StatusOcorrencia.RESOLVIDA)));
+
+                AlteracaoStatusLoteResponse resultado = ocorrenciaService.atualizarStatusEmLote(
+                        AlteracaoStatusLoteRequest.builder()
+                                .status(StatusOcorrencia.ABERTA)
+                                .ids(List.of(1L))
+                                .build());
+
+                assertThat(resultado.getItens()).extracting(AlteracaoStatusLoteResponse.ResultadoItem::getResultado)
+                        .containsExactly(ResultadoAlteracao.TRANSICAO_NAO_PERMITIDA);
+                verify(ocorrenciaRepository, never()).transicionarStatus(anyList(), any(), any());
+                verifyNoInteractions(eventos);
+            }
+        }
+    }
+
+    @Nested
+    class Dado_um_cursor_invalido {
+
+        @Test
+        void deve_lancar_excecao_sem_consultar_repositorio() {
+            assertThatThrownBy(() -> ocorrenciaService.listarPaginado(null, null, "nao-e-um-cursor", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Cursor inválido");
+
+            verifyNoInteractions(ocorrenciaRepository);
+        }
+    }
+
     @Nested
     class Dado_um_usuario_inexistente {
 
@@ -0,0 +1,128 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.config.ConectaPgProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SenhaHasherTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ConectaPgProperties properties;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConectaPgProperties();
+        properties.getSenha().setThreads(1);
+        properties.getSenha().setCapacidadeFila(1);
+    }
+
+    @Nested
+    class Dado_um_pool_livre {
+
+        SenhaHasher senhaHasher;
+
+        @BeforeEach
+        void setup() {
+            senhaHasher = new SenhaHasher(new BCryptPasswordEncoder(4), properties, meterRegistry);
+        }
+
+        @AfterEach
+        void encerrar() {
+            senhaHasher.encerrar();
+        }
+
+        @Test
+        void deve_gerar_hash_bcrypt_da_senha() {
+            String hash = senhaHasher.gerarHash("senha123");
+
+            assertThat(hash).startsWith("$2a$04$");
+            assertThat(new BCryptPasswordEncoder().matches("senha123", hash)).isTrue();
+        }
+
+        @Test
+        void deve_publicar_metricas_do_executor() {
+            senhaHasher.gerarHash("senha123");
+
+            // O contador de concluídas é atualizado pelo pool logo após o retorno do hash
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                    assertThat(meterRegistry.get("executor.completed").tag("name", "senha.hash")
+                            .functionCounter().count()).isEqualTo(1));
+            assertThat(meterRegistry.get("executor.queued").tag("name", "senha.hash").gauge()).isNotNull();
+        }
+    }
+
+    @Nested
+    class Dado_um_pool_saturado {
+
+        CountDownLatch liberar;
+        SenhaHasher senhaHasher;
+
+        /** Encoder que só conclui o hash depois que o teste libera o latch. */
+        private PasswordEncoder encoderBloqueado() {
+            return new BCryptPasswordEncoder(4) {
+                @Override
+                public String encode(CharSequence senha) {
+                    try {
+                        liberar.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.encode(senha);
+                }
+            };
+        }
+
+        @BeforeEach
+        void setup() {
+            liberar = new CountDownLatch(1);
+            senhaHasher = new SenhaHasher(encoderBloqueado(), properties, meterRegistry);
+
+            // Uma senha ocupa a única thread e outra ocupa a única posição da fila
+            CompletableFuture.runAsync(() -> senhaHasher.gerarHash("primeira"));
+            CompletableFuture.runAsync(() -> senhaHasher.gerarHash("segunda"));
+            await().atMost(Duration.ofSeconds(5)).until(() ->
+                    meterRegistry.get("executor.queued").tag("name", "senha.hash").gauge().value() == 1);
+        }
+
+        @AfterEach
+        void encerrar() {
+            liberar.countDown();
+            senhaHasher.encerrar();
+        }
+
+        @Test
+        void deve_rejeitar_imediatamente_quando_a_fila_estiver_cheia() {
+            assertThatThrownBy(() -> senhaHasher.gerarHash("terceira"))
+                    .isInstanceOf(ServicoSobrecarregadoException.class);
+            assertThat(meterRegistry.get("senha.hash.rejeitadas").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void deve_rejeitar_quando_o_tempo_de_espera_esgotar() {
+            properties.getSenha().setCapacidadeFila(10);
+            properties.getSenha().setTempoMaximoEspera(Duration.ofMillis(50));
+            SenhaHasher comEsperaCurta = new SenhaHasher(encoderBloqueado(), properties, new SimpleMeterRegistry());
+
+            try {
+                assertThatThrownBy(() -> comEsperaCurta.gerarHash("lenta"))
+                        .isInstanceOf(ServicoSobrecarregadoException.class)
+                        .hasMessageContaining("Tempo esgotado");
+            } finally {
+                comEsperaCurta.encerrar();
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.conectapg.domain.service;
+
+import com.conectapg.ServerTest;
+import com.conectapg.api.dto.AlteracoesResponse;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.OcorrenciaResponse;
+import com.conectapg.api.dto.UsuarioRequest;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.StatusOcorrencia;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
+import com.conectapg.domain.model.OcorrenciaRemovida;
+import com.conectapg.domain.repository.OcorrenciaRepository;
+import com.conectapg.domain.repository.OcorrenciaRepository.VersaoPorId;
+import com.conectapg.domain.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Testes de integração da sincronização incremental. No H2 as versões vêm de
+ * {@link com.conectapg.GatilhoAlteracoesH2}, que reproduz os gatilhos da migração V9.
+ */
+@Transactional
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SincronizacaoServiceIntegrationTest extends ServerTest {
+
+    @Autowired
+    private SincronizacaoService sincronizacaoService;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ConectaPgProperties properties;
+
+    Long usuarioId;
+    Long intacta;
+    Long alterada;
+    Long removida;
+
+    @BeforeEach
+    void setup() {
+        ocorrenciaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        usuarioId = criarUsuario("joao@example.com");
+        intacta = criarOcorrencia("Intacta", usuarioId);
+        alterada = criarOcorrencia("Alterada", usuarioId);
+        removida = criarOcorrencia("Removida", usuarioId);
+        entityManager.flush();
+    }
+
+    private Long criarUsuario(String email) {
+        UsuarioRequest request = new UsuarioRequest();
+        request.setNome("Usuário " + email);
+        request.setEmail(email);
+        request.setSenha("senha123");
+        return usuarioService.criar(request).getId();
+    }
+
+    private Long criarOcorrencia(String titulo, Long autor) {
+        OcorrenciaRequest request = new OcorrenciaRequest();
+        request.setTitulo(titulo);
+        request.setDescricao("Descrição de " + titulo);
+        request.setLocalizacao("Rua das Flores, 123");
+        request.setTipo(TipoOcorrencia.BURACO);
+        request.setUsuarioId(autor);
+        return ocorrenciaService.criar(request).getId();
+    }
+
+    private AlteracoesResponse sincronizar(String token) {
+        entityManager.flush();
+        entityManager.clear();
+        return sincronizacaoService.alteracoesDesde(token);
+    }
+
+    @Nested
+    class Dado_a_primeira_sincronizacao {
+
+        @Test
+        void deve_retornar_todas_as_ocorrencias_como_lista_completa() {
+            AlteracoesResponse resposta = sincronizar(null);
+
+            assertThat(resposta.isCompleta()).isTrue();
+            assertThat(resposta.getAlteradas()).extracting(OcorrenciaResponse::getId)
+                    .containsExactlyInAnyOrder(intacta, alterada, removida);
+            assertThat(resposta.getRemovidas()).isEmpty();
+            assertThat(resposta.getToken()).isNotBlank();
+        }
+    }
+
+    @Nested
+    class Dado_um_token_da_sincronizacao_anterior {
+
+        String token;
+
+        @BeforeEach
+        void setup() {
+            token = sincronizar(null).getToken();
+        }
+
+        @Test
+        void deve_retornar_apenas_o_que_foi_criado_alterado_ou_removido_desde_entao() {
+            OcorrenciaRequest atualizacao = new OcorrenciaRequest();
+            atualizacao.setTitulo("Alterada de novo");
+            atualizacao.setDescricao("Nova descrição");
+            atualizacao.setLocalizacao("Rua das Flores, 123");
+            atualizacao.setTipo(TipoOcorrencia.BURACO);
+            atualizacao.setUsuarioId(usuarioId);
+            ocorrenciaService.atualizar(alterada, atualizacao);
+            Long nova = criarOcorrencia("Nova", usuarioId);
+            ocorrenciaService.deletar(removida);
+
+            AlteracoesResponse resposta = sincronizar(token);
+
+            assertThat(resposta.isCompleta()).isFalse();
+            assertThat(resposta.getAlteradas()).extracting(OcorrenciaResponse::getId)
+                    .containsExactlyInAnyOrder(alterada, nova);
+            assertThat(resposta.getRemovidas()).containsExactly(removida);
+        }
+
+        @Test
+        void deve_incluir_mudancas_de_status_feitas_por_update_direto() {
+            ocorrenciaService.atualizarStatus(intacta, StatusOcorrencia.EM_ANDAMENTO);
+
+            AlteracoesResponse resposta = sincronizar(token);
+
+            assertThat(resposta.getAlteradas())
+                    .extracting(OcorrenciaResponse::getId, OcorrenciaResponse::getStatus)
+                    .containsExactly(tuple(intacta, StatusOcorrencia.EM_ANDAMENTO));
+        }
+
+        @Test
+        void deve_registrar_como_removidas_as_ocorrencias_de_um_usuario_excluido() {
+            Long outroUsuario = criarUsuario("maria@example.com");
+            Long daMaria = criarOcorrencia("Da Maria", outroUsuario);
+            String antesDaRemocao = sincronizar(token).getToken();
+
+            usuarioService.deletar(outroUsuario);
+
+            assertThat(sincronizar(antesDaRemocao).getRemovidas()).containsExactly(daMaria);
+        }
+
+        @Test
+        void deve_retornar_listas_vazias_quando_nada_mudou() {
+            AlteracoesResponse resposta = sincronizar(token);
+
+            assertThat(resposta.getAlteradas()).isEmpty();
+            assertThat(resposta.getRemovidas()).isEmpty();
+        }
+    }
+
+    @Nested
+    class Dado_uma_lista_completa_maior_que_a_pagina {
+
+        int tamanhoOriginal;
+
+        @BeforeEach
+        void setup() {
+            tamanhoOriginal = properties.getSincronizacao().getTamanhoPagina();
+            properties.getSincronizacao().setTamanhoPagina(2);
+        }
+
+        @AfterEach
+        void restaurar() {
+            properties.getSincronizacao().setTamanhoPagina(tamanhoOriginal);
+        }
+
+        @Test
+        void deve_entregar_a_lista_em_paginas_ate_o_fim() {
+            AlteracoesResponse primeira = sincronizar(null);
+            AlteracoesResponse segunda = sincronizar(primeira.getToken());
+
+            assertThat(primeira.isCompleta()).isTrue();
+            assertThat(primeira.isTemMais()).isTrue();
+            assertThat(primeira.getAlteradas()).extracting(OcorrenciaResponse::getId)
+                    .containsExactly(intacta, alterada);
+            assertThat(segunda.isCompleta()).isFalse();
+            assertThat(segunda.isTemMais()).isFalse();
+            assertThat(segunda.getAlteradas()).extracting(OcorrenciaResponse::getId)
+                    .containsExactly(removida);
+        }
+
+        @Test
+        void deve_entregar_depois_da_ultima_pagina_o_que_mudou_durante_a_paginacao() {
+            AlteracoesResponse primeira = sincronizar(null);
+            ocorrenciaService.atualizarStatus(intacta, StatusOcorrencia.EM_ANDAMENTO);
+            ocorrenciaService.deletar(removida);
+            AlteracoesResponse ultima = sincronizar(primeira.getToken());
+
+            AlteracoesResponse incremental = sincronizar(ultima.getToken());
+
+            assertThat(ultima.getAlteradas()).isEmpty();
+            assertThat(ultima.isTemMais()).isFalse();
+            assertThat(incremental.isCompleta()).isFalse();
+            assertThat(incremental.getAlteradas()).extracting(OcorrenciaResponse::getId).containsExactly(intacta);
+            assertThat(incremental.getRemovidas()).containsExactly(removida);
+        }
+
+        @Test
+        void deve_percorrer_todas_as_ocorrencias_uma_unica_vez() {
+            List<Long> recebidas = new ArrayList<>();
+            AlteracoesResponse resposta = sincronizar(null);
+            recebidas.addAll(resposta.getAlteradas().stream().map(OcorrenciaResponse::getId).toList());
+            while (resposta.isTemMais()) {
+                resposta = sincronizar(resposta.getToken());
+                recebidas.addAll(resposta.getAlteradas().stream().map(OcorrenciaResponse::getId).toList());
+            }
+
+            assertThat(recebidas).containsExactly(intacta, alterada, removida);
+        }
+    }
+
+    @Nested
+    class Dado_alteracoes_incrementais_maiores_que_a_pagina {
+
+        int tamanhoOriginal;
+        String token;
+        Long nova;
+
+        @BeforeEach
+        void setup() {
+            token = sincronizar(null).getToken();
+            tamanhoOriginal = properties.getSincronizacao().getTamanhoPagina();
+            properties.getSincronizacao().setTamanhoPagina(2);
+
+            // Um flush por passo: as versões seguem a ordem dos comandos, não a do flush do Hibernate
+            ocorrenciaService.atualizarStatus(alterada, StatusOcorrencia.EM_ANDAMENTO);
+            ocorrenciaService.deletar(removida);
+            entityManager.flush();
+            nova = criarOcorrencia("Nova", usuarioId);
+            entityManager.flush();
+            ocorrenciaService.atualizarStatus(intacta, StatusOcorrencia.EM_ANDAMENTO);
+        }
+
+        @AfterEach
+        void restaurar() {
+            properties.getSincronizacao().setTamanhoPagina(tamanhoOriginal);
+        }
+
+        @Test
+        void deve_entregar_alteracoes_e_remocoes_em_paginas_na_ordem_das_versoes() {
+            AlteracoesResponse primeira = sincronizar(token);
+            AlteracoesResponse segunda = sincronizar(primeira.getToken());
+
+            assertThat(primeira.isCompleta()).isFalse();
+            assertThat(primeira.isTemMais()).isTrue();
+            assertThat(primeira.getAlteradas()).extracting(OcorrenciaResponse::getId).containsExactly(alterada);
+            assertThat(primeira.getRemovidas()).containsExactly(removida);
+            assertThat(segunda.isCompleta()).isFalse();
+            assertThat(segunda.isTemMais()).isFalse();
+            assertThat(segunda.getAlteradas()).extracting(OcorrenciaResponse::getId).containsExactly(nova, intacta);
+            assertThat(segunda.getRemovidas()).isEmpty();
+        }
+
+        @Test
+        void deve_continuar_incremental_depois_da_ultima_pagina() {
+            AlteracoesResponse resposta = sincronizar(token);
+            while (resposta.isTemMais()) {
+                resposta = sincronizar(resposta.getToken());
+            }
+            ocorrenciaService.deletar(nova);
+
+            AlteracoesResponse seguinte = sincronizar(resposta.getToken());
+
+            assertThat(seguinte.isCompleta()).isFalse();
+            assertThat(seguinte.isTemMais()).isFalse();
+            assertThat(seguinte.getAlteradas()).isEmpty();
+            assertThat(seguinte.getRemovidas()).containsExactly(nova);
+        }
+
+        @Test
+        void deve_deixar_para_a_sincronizacao_seguinte_o_que_mudou_durante_a_paginacao() {
+            AlteracoesResponse primeira = sincronizar(token);
+            Long durante = criarOcorrencia("Durante a paginação", usuarioId);
+            AlteracoesResponse segunda = sincronizar(primeira.getToken());
+
+            AlteracoesResponse seguinte = sincronizar(segunda.getToken());
+
+            assertThat(segunda.isTemMais()).isFalse();
+            assertThat(segunda.getAlteradas()).extracting(OcorrenciaResponse::getId).doesNotContain(durante);
+            assertThat(seguinte.getAlteradas()).extracting(OcorrenciaResponse::getId).containsExactly(durante);
+        }
+    }
+
+    @Nested
+    class Dado_remocoes_ja_expurgadas {
+
+        String token;
+
+        @BeforeEach
+        void setup() {
+            token = sincronizar(null).getToken();
+            // Remoção registrada a partir da versão do token e que já saiu da retenção
+            long versao = TokenSincronizacao.decodificar(token).getVersao();
+            entityManager.persist(new OcorrenciaRemovida(-1L, versao, LocalDateTime.now().minusDays(60)));
+            entityManager.flush();
+            sincronizacaoService.expurgarRemocoes();
+        }
+
+        @Test
+        void deve_pedir_sincronizacao_completa_para_token_anterior_ao_expurgo() {
+            AlteracoesResponse resposta = sincronizar(token);
+
+            assertThat(resposta.isCompleta()).isTrue();
+            assertThat(resposta.getAlteradas()).hasSize(3);
+        }
+
+        @Test
+        void deve_aceitar_tokens_emitidos_depois_do_expurgo() {
+            criarOcorrencia("Depois do expurgo", usuarioId);
+            String novo = sincronizar(null).getToken();
+
+            assertThat(sincronizar(novo).isCompleta()).isFalse();
+        }
+    }
+
+    @Test
+    void deve_recusar_token_invalido() {
+        assertThatThrownBy(() -> sincronizacaoService.alteracoesDesde("nao-e-um-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Token de sincronização inválido");
+    }
+
+    @Test
+    void deve_expurgar_apenas_registros_de_remocao_fora_da_retencao() {
+        entityManager.persist(new OcorrenciaRemovida(-1L, 1L, LocalDateTime.now().minusDays(60)));
+        entityManager.persist(new OcorrenciaRemovida(-2L, 1L, LocalDateTime.now().minusDays(1)));
+        entityManager.flush();
+
+        sincronizacaoService.expurgarRemocoes();
+
+        assertThat(ocorrenciaRepository.findRemovidasApos(0, 0, Long.MAX_VALUE, Limit.unlimited()))
+                .extracting(VersaoPorId::getId).contains(-2L).doesNotContain(-1L);
+    }
+}
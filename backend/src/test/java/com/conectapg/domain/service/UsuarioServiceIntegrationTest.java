@@ -1,15 +1,29 @@
 package com.conectapg.domain.service;
 
 import com.conectapg.ServerTest;
+import com.conectapg.api.dto.OcorrenciaRequest;
+import com.conectapg.api.dto.PaginaNumeradaResponse;
+import com.conectapg.api.dto.ResultadoPorIdsResponse;
 import com.conectapg.api.dto.UsuarioRequest;
 import com.conectapg.api.dto.UsuarioResponse;
+import com.conectapg.config.ConectaPgProperties;
+import com.conectapg.domain.model.Ocorrencia.TipoOcorrencia;
 import com.conectapg.domain.model.Usuario;
 import com.conectapg.domain.model.Usuario.TipoUsuario;
+import com.conectapg.domain.repository.OcorrenciaRepository;
 import com.conectapg.domain.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,11 +40,25 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 class UsuarioServiceIntegrationTest extends ServerTest {
     
+    private static final Pageable PRIMEIRA_PAGINA = PageRequest.of(0, 50, Sort.by("id"));
+    
     @Autowired
     private UsuarioService usuarioService;
     
     @Autowired
     private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private OcorrenciaService ocorrenciaService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ConectaPgProperties properties;
     
     @BeforeEach
     void limparBanco() {
@@ -123,7 +151,7 @@ class UsuarioServiceIntegrationTest extends ServerTest {
             
             @Test
             void deve_aparecer_na_listagem() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertThat(todos).hasSize(1);
                 assertThat(todos.get(0).getId()).isEqualTo(usuarioId);
             }
@@ -176,12 +204,150 @@ class UsuarioServiceIntegrationTest extends ServerTest {
             
             @Test
             void nao_deve_aparecer_na_listagem() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertThat(todos).isEmpty();
             }
         }
     }
     
+    @Nested
+    class Dado_um_usuario_com_muitas_ocorrencias {
+
+        static final int QUANTIDADE = 200;
+
+        Long usuarioId;
+        Long outroUsuarioId;
+        Statistics estatisticas;
+
+        private Long criarUsuario(String email) {
+            UsuarioRequest request = new UsuarioRequest();
+            request.setNome("Usuário " + email);
+            request.setEmail(email);
+            request.setSenha("senha123");
+            return usuarioService.criar(request).getId();
+        }
+
+        private OcorrenciaRequest ocorrencia(Long usuarioId) {
+            OcorrenciaRequest request = new OcorrenciaRequest();
+            request.setTitulo("Buraco");
+            request.setDescricao("Buraco na via");
+            request.setLocalizacao("Rua das Flores, 123");
+            request.setTipo(TipoOcorrencia.BURACO);
+            request.setUsuarioId(usuarioId);
+            return request;
+        }
+
+        @BeforeEach
+        void setup() {
+            usuarioId = criarUsuario("frequente@example.com");
+            outroUsuarioId = criarUsuario("outro@example.com");
+            List<OcorrenciaRequest> requests = new ArrayList<>();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                requests.add(ocorrencia(usuarioId));
+            }
+            requests.add(ocorrencia(outroUsuarioId));
+            ocorrenciaService.criarEmLote(requests);
+            entityManager.flush();
+            entityManager.clear();
+
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+        }
+
+        @Test
+        void deve_remover_usuario_e_ocorrencias_sem_carrega_las() {
+            usuarioService.deletar(usuarioId);
+
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("comandos SQL para remover um usuário com %d ocorrências", QUANTIDADE)
+                    .isEqualTo(1);
+            assertThat(estatisticas.getEntityLoadCount()).isZero();
+            assertThat(ocorrenciaRepository.countByUsuarioId(usuarioId)).isZero();
+            assertThat(ocorrenciaRepository.countByUsuarioId(outroUsuarioId)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Dado_o_filtro_de_emails_carregado {
+
+        Statistics estatisticas;
+
+        @BeforeEach
+        void setup() {
+            UsuarioRequest request = new UsuarioRequest();
+            request.setNome("Maria");
+            request.setEmail("maria@example.com");
+            request.setSenha("senha123");
+            usuarioService.criar(request);
+
+            estatisticas = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+            estatisticas.clear();
+        }
+
+        @Test
+        void deve_responder_emails_livres_sem_consultar_o_banco() {
+            assertThat(usuarioService.emailDisponivel("ninguem-ainda@example.com")).isTrue();
+
+            assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        }
+
+        @Test
+        void pode_informar_como_disponivel_email_de_outra_instancia_dentro_da_idade_maxima() {
+            gravarSemPassarPeloFiltro("outra-instancia@example.com");
+
+            assertThat(usuarioService.emailDisponivel("outra-instancia@example.com")).isTrue();
+        }
+
+        @Test
+        void deve_consultar_o_banco_quando_o_filtro_passar_da_idade_maxima() {
+            gravarSemPassarPeloFiltro("outra-instancia@example.com");
+            Duration idadeMaxima = properties.getFiltroEmails().getIdadeMaxima();
+            properties.getFiltroEmails().setIdadeMaxima(Duration.ZERO);
+            try {
+                assertThat(usuarioService.emailDisponivel("outra-instancia@example.com")).isFalse();
+            } finally {
+                properties.getFiltroEmails().setIdadeMaxima(idadeMaxima);
+            }
+        }
+
+        // Como um cadastro feito em outra instância
+        private void gravarSemPassarPeloFiltro(String email) {
+            Usuario direto = new Usuario();
+            direto.setNome("Outra instância");
+            direto.setEmail(email);
+            direto.setSenha("hash");
+            usuarioRepository.saveAndFlush(direto);
+        }
+
+        @Test
+        void deve_confirmar_no_banco_os_emails_cadastrados() {
+            assertThat(usuarioService.emailDisponivel("maria@example.com")).isFalse();
+        }
+
+        @Test
+        void deve_recusar_email_gravado_sem_passar_pelo_filtro() {
+            Usuario direto = new Usuario();
+            direto.setNome("Gravado direto");
+            direto.setEmail("direto@example.com");
+            direto.setSenha("hash");
+            usuarioRepository.saveAndFlush(direto);
+
+            UsuarioRequest request = new UsuarioRequest();
+            request.setNome("Outro");
+            request.setEmail("direto@example.com");
+            request.setSenha("senha123");
+
+            // Pelo filtro o email está livre; a restrição de unicidade é quem recusa
+            assertThatThrownBy(() -> usuarioService.criar(request))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("Email já cadastrado");
+        }
+    }
+
     @Nested
     class Dado_um_email_ja_cadastrado {
         
@@ -265,7 +431,7 @@ class UsuarioServiceIntegrationTest extends ServerTest {
             
             @Test
             void deve_retornar_todos_usuarios() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertThat(todos).hasSize(3);
             }
         }
@@ -275,14 +441,14 @@ class UsuarioServiceIntegrationTest extends ServerTest {
             
             @Test
             void deve_retornar_apenas_cidadaos() {
-                List<UsuarioResponse> cidadaos = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO);
+                List<UsuarioResponse> cidadaos = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PRIMEIRA_PAGINA).getItens();
                 assertThat(cidadaos).hasSize(2);
                 assertThat(cidadaos).allMatch(u -> u.getTipo() == TipoUsuario.CIDADAO);
             }
             
             @Test
             void deve_retornar_apenas_admins() {
-                List<UsuarioResponse> admins = usuarioService.buscarPorTipo(TipoUsuario.ADMIN);
+                List<UsuarioResponse> admins = usuarioService.buscarPorTipo(TipoUsuario.ADMIN, PRIMEIRA_PAGINA).getItens();
                 assertThat(admins).hasSize(1);
                 assertThat(admins.get(0).getTipo()).isEqualTo(TipoUsuario.ADMIN);
             }
@@ -293,10 +459,74 @@ class UsuarioServiceIntegrationTest extends ServerTest {
             
             @Test
             void deve_retornar_apenas_usuarios_ativos() {
-                List<UsuarioResponse> ativos = usuarioService.buscarAtivos();
+                List<UsuarioResponse> ativos = usuarioService.buscarAtivos(PRIMEIRA_PAGINA).getItens();
                 assertThat(ativos).hasSize(2);
                 assertThat(ativos).allMatch(UsuarioResponse::getAtivo);
             }
         }
+        
+        @Nested
+        class Quando_buscar_por_lista_de_ids {
+
+            @Test
+            void deve_retornar_na_ordem_pedida_em_uma_unica_consulta() {
+                List<Long> ids = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens().stream().map(UsuarioResponse::getId).sorted().toList();
+                entityManager.flush();
+                entityManager.clear();
+                Statistics estatisticas = entityManager.getEntityManagerFactory()
+                        .unwrap(SessionFactory.class)
+                        .getStatistics();
+                estatisticas.clear();
+
+                ResultadoPorIdsResponse<UsuarioResponse> resultado =
+                        usuarioService.buscarPorIds(List.of(ids.get(2), -1L, ids.get(0)));
+
+                assertThat(resultado.getItens()).extracting(UsuarioResponse::getId).containsExactly(ids.get(2), ids.get(0));
+                assertThat(resultado.getNaoEncontrados()).containsExactly(-1L);
+                assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        class Quando_buscar_por_tipo_paginado {
+            
+            @Test
+            void deve_retornar_cada_pagina_sem_repetir_usuarios() {
+                PaginaNumeradaResponse<UsuarioResponse> primeira = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PageRequest.of(0, 1, Sort.by("id")));
+                PaginaNumeradaResponse<UsuarioResponse> segunda = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PageRequest.of(1, 1, Sort.by("id")));
+                PaginaNumeradaResponse<UsuarioResponse> terceira = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PageRequest.of(2, 1, Sort.by("id")));
+                
+                assertThat(primeira.getItens()).hasSize(1);
+                assertThat(segunda.getItens()).hasSize(1);
+                assertThat(primeira.getItens().get(0).getId()).isLessThan(segunda.getItens().get(0).getId());
+                assertThat(terceira.getItens()).isEmpty();
+            }
+
+            @Test
+            void deve_informar_se_ha_proxima_pagina() {
+                PaginaNumeradaResponse<UsuarioResponse> primeira = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PageRequest.of(0, 1, Sort.by("id")));
+                PaginaNumeradaResponse<UsuarioResponse> ultima = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PageRequest.of(1, 1, Sort.by("id")));
+
+                assertThat(primeira.isTemProxima()).isTrue();
+                assertThat(primeira.getPagina()).isZero();
+                assertThat(primeira.getTamanho()).isEqualTo(1);
+                assertThat(ultima.isTemProxima()).isFalse();
+            }
+        }
+
+        @Nested
+        class Quando_listar_todos_paginado {
+
+            @Test
+            void deve_limitar_ao_tamanho_da_pagina_e_indicar_a_proxima() {
+                PaginaNumeradaResponse<UsuarioResponse> primeira = usuarioService.listarTodos(PageRequest.of(0, 2, Sort.by("id")));
+                PaginaNumeradaResponse<UsuarioResponse> segunda = usuarioService.listarTodos(PageRequest.of(1, 2, Sort.by("id")));
+
+                assertThat(primeira.getItens()).hasSize(2);
+                assertThat(primeira.isTemProxima()).isTrue();
+                assertThat(segunda.getItens()).hasSize(1);
+                assertThat(segunda.isTemProxima()).isFalse();
+            }
+        }
     }
 }
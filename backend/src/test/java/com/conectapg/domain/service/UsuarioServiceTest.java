@@ -8,6 +8,9 @@ import com.conectapg.domain.model.Usuario.TipoUsuario;
 import com.conectapg.domain.repository.UsuarioRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -17,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 public class UsuarioServiceTest extends ServerTest {
 
+    private static final Pageable PRIMEIRA_PAGINA = PageRequest.of(0, 50, Sort.by("id"));
+
     @Autowired
     private UsuarioService usuarioService;
 
@@ -104,7 +109,7 @@ public class UsuarioServiceTest extends ServerTest {
 
             @Test
             void Entao_deve_aparecer_na_listagem() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertEquals(1, todos.size());
                 assertEquals(usuarioId, todos.get(0).getId());
             }
@@ -156,7 +161,7 @@ public class UsuarioServiceTest extends ServerTest {
 
             @Test
             void Entao_nao_deve_aparecer_na_listagem() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertTrue(todos.isEmpty());
             }
         }
@@ -281,7 +286,7 @@ public class UsuarioServiceTest extends ServerTest {
 
             @Test
             void Entao_deve_retornar_todos_usuarios() {
-                List<UsuarioResponse> todos = usuarioService.listarTodos();
+                List<UsuarioResponse> todos = usuarioService.listarTodos(PRIMEIRA_PAGINA).getItens();
                 assertEquals(3, todos.size());
             }
         }
@@ -291,14 +296,14 @@ public class UsuarioServiceTest extends ServerTest {
 
             @Test
             void Entao_deve_retornar_apenas_cidadaos() {
-                List<UsuarioResponse> cidadaos = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO);
+                List<UsuarioResponse> cidadaos = usuarioService.buscarPorTipo(TipoUsuario.CIDADAO, PRIMEIRA_PAGINA).getItens();
                 assertEquals(2, cidadaos.size());
                 assertTrue(cidadaos.stream().allMatch(u -> u.getTipo() == TipoUsuario.CIDADAO));
             }
 
             @Test
             void Entao_deve_retornar_apenas_admins() {
-                List<UsuarioResponse> admins = usuarioService.buscarPorTipo(TipoUsuario.ADMIN);
+                List<UsuarioResponse> admins = usuarioService.buscarPorTipo(TipoUsuario.ADMIN, PRIMEIRA_PAGINA).getItens();
                 assertEquals(1, admins.size());
                 assertEquals(TipoUsuario.ADMIN, admins.get(0).getTipo());
             }
@@ -309,7 +314,7 @@ public class UsuarioServiceTest extends ServerTest {
 
             @Test
             void Entao_deve_retornar_apenas_usuarios_ativos() {
-                List<UsuarioResponse> ativos = usuarioService.buscarAtivos();
+                List<UsuarioResponse> ativos = usuarioService.buscarAtivos(PRIMEIRA_PAGINA).getItens();
                 assertEquals(2, ativos.size());
                 assertTrue(ativos.stream().allMatch(UsuarioResponse::getAtivo));
             }
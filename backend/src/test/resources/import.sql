@@ -0,0 +1,6 @@
+-- Executado pelo Hibernate depois de criar o schema do H2; equivalente aos objetos da migração V9
+CREATE ALIAS IF NOT EXISTS horizonte_alteracoes FOR "com.conectapg.GatilhoAlteracoesH2.horizonte";
+CREATE TRIGGER IF NOT EXISTS trg_ocorrencias_alteracao BEFORE INSERT, UPDATE ON ocorrencias FOR EACH ROW CALL "com.conectapg.GatilhoAlteracoesH2";
+CREATE TRIGGER IF NOT EXISTS trg_ocorrencias_remocao AFTER DELETE ON ocorrencias FOR EACH ROW CALL "com.conectapg.GatilhoAlteracoesH2";
+-- Equivalente à linha única criada pela migração V11
+INSERT INTO controle_sincronizacao (id, versao_expurgada) VALUES (1, 0);
@@ -24,8 +24,9 @@ export const usuarioService = {
   
   listarTodos: async () => {
     try {
+      // A listagem é paginada; esta chamada devolve apenas a primeira página
       const response = await api.get('/usuarios')
-      return response.data
+      return response.data.itens
     } catch (error) {
       throw new Error(error.response?.data?.message || 'Erro ao listar usuários')
     }
@@ -54,7 +54,7 @@ describe('usuarioService', () => {
     it('deve listar todos os usuários', async () => {
       // Dado
       const usuarios = [mockUsuario, mockUsuarioAdmin]
-      api.get.mockResolvedValue({ data: usuarios })
+      api.get.mockResolvedValue({ data: { itens: usuarios, pagina: 0, tamanho: 50, temProxima: false } })
 
       // Quando
       const resultado = await usuarioService.listarTodos()
@@ -67,7 +67,7 @@ describe('usuarioService', () => {
 
     it('deve retornar lista vazia quando não houver usuários', async () => {
       // Dado
-      api.get.mockResolvedValue({ data: [] })
+      api.get.mockResolvedValue({ data: { itens: [], pagina: 0, tamanho: 50, temProxima: false } })
 
       // Quando
       const resultado = await usuarioService.listarTodos()
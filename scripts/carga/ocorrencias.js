@@ -0,0 +1,79 @@
+// Teste de carga do backend com k6 (https://k6.io).
+//
+// Mistura leituras de ocorrências (caminho mais quente) com cadastros de usuários,
+// que disputam CPU por causa do BCrypt. Execute uma vez com VIRTUAL_THREADS=false e
+// outra com VIRTUAL_THREADS=true e compare http_reqs (vazão) e http_req_duration p(99).
+//
+//   k6 run -e BASE_URL=http://localhost:8081/api -e MODO=plataforma scripts/carga/ocorrencias.js
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081/api';
+const MODO = __ENV.MODO || 'desconhecido';
+const VUS = parseInt(__ENV.VUS || '400', 10);
+const DURACAO = __ENV.DURACAO || '2m';
+
+export const options = {
+  scenarios: {
+    leitura: {
+      executor: 'constant-vus',
+      exec: 'leitura',
+      vus: VUS,
+      duration: DURACAO,
+    },
+    cadastro: {
+      executor: 'constant-arrival-rate',
+      exec: 'cadastro',
+      rate: 20,
+      timeUnit: '1s',
+      duration: DURACAO,
+      preAllocatedVUs: 50,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'http_req_duration{cenario:leitura}': ['p(99)<1000'],
+    'http_req_failed{cenario:leitura}': ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const resposta = http.get(`${BASE_URL}/ocorrencias/pagina?tamanho=100`);
+  const ids = resposta.status === 200 ? resposta.json('itens').map((o) => o.id) : [];
+  return { ids };
+}
+
+export function leitura(dados) {
+  const tags = { cenario: 'leitura' };
+  if (dados.ids.length > 0 && Math.random() < 0.5) {
+    const id = dados.ids[Math.floor(Math.random() * dados.ids.length)];
+    check(http.get(`${BASE_URL}/ocorrencias/${id}`, { tags }), { 'detalhe 200': (r) => r.status === 200 });
+  } else {
+    check(http.get(`${BASE_URL}/ocorrencias/pagina?tamanho=20`, { tags }), { 'página 200': (r) => r.status === 200 });
+  }
+}
+
+export function cadastro() {
+  const sufixo = `${Date.now()}-${__VU}-${__ITER}`;
+  const corpo = JSON.stringify({
+    nome: `Carga ${sufixo}`,
+    email: `carga-${sufixo}@example.com`,
+    senha: 'senha-de-carga',
+  });
+  const resposta = http.post(`${BASE_URL}/usuarios`, corpo, {
+    headers: { 'Content-Type': 'application/json' },
+    tags: { cenario: 'cadastro' },
+  });
+  // 503 é a rejeição rápida esperada quando o pool de hash ou o limitador estão cheios
+  check(resposta, { 'cadastro 201/503': (r) => r.status === 201 || r.status === 503 });
+}
+
+export function handleSummary(dados) {
+  return {
+    [`resultado-carga-${MODO}.json`]: JSON.stringify(dados, null, 2),
+    stdout: `\nModo: ${MODO}\n` +
+      `Vazão: ${dados.metrics.http_reqs.values.rate.toFixed(1)} req/s\n` +
+      `p99 leitura: ${dados.metrics['http_req_duration{cenario:leitura}'].values['p(99)'].toFixed(1)} ms\n`,
+  };
+}
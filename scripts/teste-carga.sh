@@ -0,0 +1,27 @@
+#!/bin/bash
+
+echo "📈 Teste de Carga - Backend ConectaPG"
+echo "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"
+echo ""
+
+# Uso: ./scripts/teste-carga.sh <plataforma|virtual> [BASE_URL]
+# O backend deve estar rodando no modo informado (VIRTUAL_THREADS=false/true).
+
+MODO=${1:-plataforma}
+BASE_URL=${2:-http://localhost:8081/api}
+
+if [ ! -f "scripts/carga/ocorrencias.js" ]; then
+    echo "❌ Erro: Execute este script na raiz do projeto"
+    exit 1
+fi
+
+if command -v k6 > /dev/null; then
+    k6 run -e BASE_URL="$BASE_URL" -e MODO="$MODO" scripts/carga/ocorrencias.js
+else
+    # Sem k6 instalado, usa a imagem oficial com a rede do host
+    docker run --rm -i --network host -v "$PWD":/carga -w /carga grafana/k6 \
+        run -e BASE_URL="$BASE_URL" -e MODO="$MODO" scripts/carga/ocorrencias.js
+fi
+
+echo ""
+echo "Resultado salvo em resultado-carga-$MODO.json"